@@ -8,8 +8,38 @@ public final class BeerstockConstants {
     public static final String ID_URI_PATH = "/{id}";
     public static final String INCREMENT_URI_PATH = "/increment";
     public static final String DECREMENT_URI_PATH = "/decrement";
+    public static final String STOCK_URI_PATH = "/stock";
+    public static final String QUANTITY_URI_PATH = "/quantity";
+    public static final String EXPORT_URI_PATH = "/export";
+    public static final String IMPORT_URI_PATH = "/import";
+    public static final String SEARCH_URI_PATH = "/search";
+    public static final String STATS_URI_PATH = "/stats";
+    public static final String WATCHLIST_URI_PATH = "/watchlist";
+    public static final String LOW_STOCK_URI_PATH = "/low-stock";
+    public static final String NEAR_CAPACITY_URI_PATH = "/near-capacity";
     public static final String ADD_BEER_TO_SHOPKEEPER_URI_PATH = "/add";
     public static final String RM_BEER_TO_SHOPKEEPER_URI_PATH = "/remove";
+    public static final String AFTER_PARAM = "after";
+    public static final String LIMIT_PARAM = "limit";
+    public static final String QUERY_PARAM = "q";
+    public static final String AT_PARAM = "at";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String GZIP_ENCODING = "gzip";
+    public static final String AVRO_MEDIA_TYPE = "application/avro";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_SEARCH_RESULTS = 50;
+    public static final int MAX_WATCHLIST_RESULTS = 100;
+    public static final String REACTIVE_PROFILE = "reactive";
+    public static final String BEERS_BY_ID_CACHE = "beersById";
+    public static final String BEER_IDS_BY_NAME_CACHE = "beerIdsByName";
+    public static final String BEER_CACHE_REGION = "beer";
+    public static final String BEER_BY_NAME_CACHE_REGION = "beer-by-name";
+    public static final String SHOPKEEPER_CACHE_REGION = "shopkeeper";
+    public static final String SHOPKEEPER_BEERS_CACHE_REGION = "shopkeeper-beers";
+    public static final String SHOPKEEPER_BY_NAME_CACHE_REGION = "shopkeeper-by-name";
 
 
     private BeerstockConstants() {
@@ -1,29 +1,66 @@
 package one.digitalinnovation.beerstock.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import one.digitalinnovation.beerstock.controllers.docs.BeerControllerDocs;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
 import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidBeerImportException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidIdempotencyKeyException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
+import one.digitalinnovation.beerstock.services.BeerImportService;
+import one.digitalinnovation.beerstock.services.BeerResponseCache;
+import one.digitalinnovation.beerstock.services.BeerResponseCache.SerializedResponse;
 import one.digitalinnovation.beerstock.services.BeerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
 
 @RestController
+@Profile("!" + REACTIVE_PROFILE)
 @RequestMapping(BASE_URI_PATH + BEERS_URI_PATH)
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
     private final BeerService beerService;
 
+    private final ObjectMapper objectMapper;
+
+    private final BeerResponseCache beerResponseCache;
+
+    private final BeerImportService beerImportService;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BeerDTO createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
@@ -31,13 +68,95 @@ public class BeerController implements BeerControllerDocs {
     }
 
     @GetMapping(NAME_URI_PATH)
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public ResponseEntity<byte[]> findByName(@PathVariable String name, WebRequest request)
+            throws BeerNotFoundException, HttpMediaTypeNotAcceptableException {
+        MediaType format = negotiateFormat(request);
+        if (request.checkNotModified(representationTag(format, request))) {
+            return null;
+        }
+        return serializedResponse(beerResponseCache.findByName(name, format), format, request);
     }
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public ResponseEntity<byte[]> listBeers(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        MediaType format = negotiateFormat(request);
+        if (request.checkNotModified(representationTag(format, request))) {
+            return null;
+        }
+        return serializedResponse(beerResponseCache.listAll(format), format, request);
+    }
+
+    @GetMapping(params = LIMIT_PARAM)
+    public CursorPageDTO<BeerDTO> listBeersPage(
+            @RequestParam(name = AFTER_PARAM, defaultValue = "0") Long after,
+            @RequestParam(name = LIMIT_PARAM) int limit,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(beerService.getChangeTag())) {
+            return null;
+        }
+        return beerService.listPage(after, limit);
+    }
+
+    /**
+     * A cursor without a limit still pages, with the default page size, rather than falling
+     * through to the whole list.
+     */
+    @GetMapping(params = {AFTER_PARAM, "!" + LIMIT_PARAM})
+    public CursorPageDTO<BeerDTO> listBeersPage(@RequestParam(name = AFTER_PARAM) Long after, WebRequest request) {
+        return listBeersPage(after, DEFAULT_PAGE_SIZE, request);
+    }
+
+    @GetMapping(SEARCH_URI_PATH)
+    public List<BeerSearchResultDTO> searchBeers(
+            @RequestParam(name = QUERY_PARAM) String query,
+            @RequestParam(name = LIMIT_PARAM, defaultValue = "10") int limit
+    ) {
+        return beerService.search(query, limit);
+    }
+
+    @GetMapping(STATS_URI_PATH)
+    public InventoryStatsDTO getInventoryStats() {
+        return beerService.getInventoryStats();
+    }
+
+    @GetMapping(WATCHLIST_URI_PATH + LOW_STOCK_URI_PATH)
+    public List<BeerDTO> listLowStockBeers(@RequestParam(name = LIMIT_PARAM, defaultValue = "10") int limit) {
+        return beerService.listLowStock(limit);
+    }
+
+    @GetMapping(WATCHLIST_URI_PATH + NEAR_CAPACITY_URI_PATH)
+    public List<BeerDTO> listNearCapacityBeers(@RequestParam(name = LIMIT_PARAM, defaultValue = "10") int limit) {
+        return beerService.listNearCapacity(limit);
+    }
+
+    @GetMapping(value = EXPORT_URI_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBeers() {
+        StreamingResponseBody body = outputStream -> beerService.exportAll(beerDTO -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(beerDTO));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = IMPORT_URI_PATH, consumes = CSV_MEDIA_TYPE)
+    public BeerImportResultDTO importBeers(InputStream csv) throws InvalidBeerImportException {
+        return beerImportService.importCsv(csv);
+    }
+
+    @GetMapping(ID_URI_PATH + QUANTITY_URI_PATH)
+    public StockLevelDTO getQuantityAt(
+            @PathVariable Long id,
+            @RequestParam(name = AT_PARAM, required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at
+    ) throws BeerNotFoundException {
+        return beerService.getQuantityAt(id, at == null ? Instant.now() : at);
     }
 
     @DeleteMapping(ID_URI_PATH)
@@ -49,16 +168,115 @@ public class BeerController implements BeerControllerDocs {
     @PatchMapping(ID_URI_PATH + INCREMENT_URI_PATH)
     public BeerDTO increment(
             @PathVariable Long id,
-            @RequestBody @Valid QuantityDTO quantityDTO
-    ) throws BeerNotFoundException, BeerStockExceededException {
-        return beerService.increment(id, quantityDTO.getQuantity());
+            @RequestBody @Valid QuantityDTO quantityDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws BeerNotFoundException, BeerStockExceededException,
+            IdempotencyKeyReusedException, IdempotencyKeyInProgressException, InvalidIdempotencyKeyException {
+        return beerService.increment(id, quantityDTO.getQuantity(), idempotencyKey);
     }
     @PatchMapping(ID_URI_PATH + DECREMENT_URI_PATH)
     public BeerDTO decrement(
             @PathVariable Long id,
-            @RequestBody @Valid QuantityDTO quantityDTO
-    ) throws BeerNotFoundException, BeerStockExceededException {
-        return beerService.decrement(id, quantityDTO.getQuantity());
+            @RequestBody @Valid QuantityDTO quantityDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws BeerNotFoundException, BeerStockExceededException,
+            IdempotencyKeyReusedException, IdempotencyKeyInProgressException, InvalidIdempotencyKeyException {
+        return beerService.decrement(id, quantityDTO.getQuantity(), idempotencyKey);
+    }
+
+    @PatchMapping(STOCK_URI_PATH)
+    public List<StockAdjustmentResultDTO> adjustStock(@RequestBody @Valid StockAdjustmentBatchDTO batchDTO)
+            throws NoBeerProvidedException {
+        return beerService.adjustStock(batchDTO.getAdjustments());
+    }
+
+    /**
+     * Responses served from the response cache are negotiated here rather than by the message
+     * converters: the first cached format the client accepts, JSON when it accepts anything.
+     */
+    private static MediaType negotiateFormat(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = new ArrayList<>(accept == null ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType format : BeerResponseCache.FORMATS) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(BeerResponseCache.FORMATS);
+    }
+
+    /**
+     * Change tag plus the format and content coding, as each representation needs its own strong ETag.
+     */
+    private String representationTag(MediaType format, WebRequest request) {
+        String tag = beerService.getChangeTag();
+        if (!MediaType.APPLICATION_JSON.equals(format)) {
+            tag += "-" + format.getSubtype();
+        }
+        if (acceptsGzip(request)) {
+            tag += "-" + GZIP_ENCODING;
+        }
+        return tag;
+    }
+
+    /**
+     * Whether Accept-Encoding gives gzip, or "*" when gzip isn't listed, a quality value above
+     * zero. A missing or unreadable quality value counts as 1 and 0 respectively.
+     */
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (name.equalsIgnoreCase(GZIP_ENCODING)) {
+                gzipQuality = qualityValue(parameters);
+            } else if (name.equals("*")) {
+                anyQuality = qualityValue(parameters);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    private static double qualityValue(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static ResponseEntity<byte[]> serializedResponse(SerializedResponse response, MediaType format,
+                                                             WebRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        if (response.getGzip() != null && acceptsGzip(request)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING).body(response.getGzip());
+        }
+        return builder.body(response.getBody());
     }
 
 }
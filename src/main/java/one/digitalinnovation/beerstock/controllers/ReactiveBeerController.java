@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.controllers;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.controllers.docs.ReactiveBeerControllerDocs;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import one.digitalinnovation.beerstock.services.ReactiveBeerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
+
+/**
+ * Reactive counterpart of BeerController, served by WebFlux in the reactive profile.
+ */
+@RestController
+@Profile(REACTIVE_PROFILE)
+@RequestMapping(BASE_URI_PATH + BEERS_URI_PATH)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController implements ReactiveBeerControllerDocs {
+
+    private final ReactiveBeerService reactiveBeerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return reactiveBeerService.createBeer(beerDTO);
+    }
+
+    @GetMapping(NAME_URI_PATH)
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return reactiveBeerService.findByName(name);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BeerDTO> listBeers() {
+        return reactiveBeerService.listAll();
+    }
+
+    @DeleteMapping(ID_URI_PATH)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return reactiveBeerService.deleteById(id);
+    }
+
+    @PatchMapping(ID_URI_PATH + INCREMENT_URI_PATH)
+    public Mono<BeerDTO> increment(
+            @PathVariable Long id,
+            @RequestBody @Valid QuantityDTO quantityDTO
+    ) {
+        return reactiveBeerService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping(ID_URI_PATH + DECREMENT_URI_PATH)
+    public Mono<BeerDTO> decrement(
+            @PathVariable Long id,
+            @RequestBody @Valid QuantityDTO quantityDTO
+    ) {
+        return reactiveBeerService.decrement(id, quantityDTO.getQuantity());
+    }
+}
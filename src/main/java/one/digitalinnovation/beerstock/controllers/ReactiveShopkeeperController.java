@@ -0,0 +1,101 @@
+package one.digitalinnovation.beerstock.controllers;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.controllers.docs.ReactiveShopkeeperControllerDocs;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import one.digitalinnovation.beerstock.services.ShopkeeperService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
+
+/**
+ * Shopkeeper API of the reactive profile. Shopkeepers are few and rarely written, so they stay
+ * on JPA: the blocking ShopkeeperService is called on the bounded elastic scheduler, off the
+ * event loop, and the API answers just like ShopkeeperController.
+ */
+@RestController
+@Profile(REACTIVE_PROFILE)
+@RequestMapping(BASE_URI_PATH + SHOPKEEPERS_URI_PATH)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveShopkeeperController implements ReactiveShopkeeperControllerDocs {
+
+    private final ShopkeeperService shopkeeperService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ShopkeeperDTO> createShopkeeper(@RequestBody @Valid ShopkeeperDTO shopkeeperDTO) {
+        return blocking(() -> shopkeeperService.createShopkeeper(shopkeeperDTO));
+    }
+
+    @GetMapping(NAME_URI_PATH)
+    public Mono<ShopkeeperDTO> findByName(@PathVariable String name, ServerWebExchange exchange) {
+        if (exchange.checkNotModified(shopkeeperService.getChangeTag())) {
+            return Mono.empty();
+        }
+        return blocking(() -> shopkeeperService.findByName(name));
+    }
+
+    @GetMapping
+    public Mono<List<ShopkeeperDTO>> listShopkeepers(ServerWebExchange exchange) {
+        if (exchange.checkNotModified(shopkeeperService.getChangeTag())) {
+            return Mono.empty();
+        }
+        return blocking(shopkeeperService::listAll);
+    }
+
+    @GetMapping(params = LIMIT_PARAM)
+    public Mono<CursorPageDTO<ShopkeeperDTO>> listShopkeepersPage(
+            @RequestParam(name = AFTER_PARAM, defaultValue = "0") Long after,
+            @RequestParam(name = LIMIT_PARAM) int limit,
+            ServerWebExchange exchange
+    ) {
+        if (exchange.checkNotModified(shopkeeperService.getChangeTag())) {
+            return Mono.empty();
+        }
+        return blocking(() -> shopkeeperService.listPage(after, limit));
+    }
+
+    @GetMapping(params = {AFTER_PARAM, "!" + LIMIT_PARAM})
+    public Mono<CursorPageDTO<ShopkeeperDTO>> listShopkeepersPage(@RequestParam(name = AFTER_PARAM) Long after,
+                                                                  ServerWebExchange exchange) {
+        return listShopkeepersPage(after, DEFAULT_PAGE_SIZE, exchange);
+    }
+
+    @DeleteMapping(ID_URI_PATH)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return blocking(() -> {
+            shopkeeperService.deleteById(id);
+            return null;
+        }).then();
+    }
+
+    @PostMapping(ID_URI_PATH + ADD_BEER_TO_SHOPKEEPER_URI_PATH)
+    public Mono<ShopkeeperDTO> addBeersToShopkeeper(@PathVariable Long id, @RequestBody List<Long> beerIds) {
+        return blocking(() -> shopkeeperService.addBeersToShopkeeper(id, beerIds));
+    }
+
+    @PostMapping(ID_URI_PATH + RM_BEER_TO_SHOPKEEPER_URI_PATH)
+    public Mono<ShopkeeperDTO> removeBeersFromShopkeeper(@PathVariable Long id, @RequestBody List<Long> beerIds) {
+        return blocking(() -> shopkeeperService.removeBeersFromShopkeeper(id, beerIds));
+    }
+
+    /**
+     * A null result completes empty, and a thrown exception is signalled as the error.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -2,6 +2,7 @@ package one.digitalinnovation.beerstock.controllers;
 
 import lombok.AllArgsConstructor;
 import one.digitalinnovation.beerstock.controllers.docs.ShopkeeperControllerDocs;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
@@ -9,8 +10,10 @@ import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperAlrea
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
 import one.digitalinnovation.beerstock.services.ShopkeeperService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -18,6 +21,7 @@ import java.util.List;
 import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
 
 @RestController
+@Profile("!" + REACTIVE_PROFILE)
 @RequestMapping(BASE_URI_PATH + SHOPKEEPERS_URI_PATH)
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ShopkeeperController implements ShopkeeperControllerDocs {
@@ -32,16 +36,43 @@ public class ShopkeeperController implements ShopkeeperControllerDocs {
     }
 
     @GetMapping(NAME_URI_PATH)
-    public ShopkeeperDTO findByName(@PathVariable String name)
+    public ShopkeeperDTO findByName(@PathVariable String name, WebRequest request)
             throws ShopkeeperNotFoundException {
+        if (request.checkNotModified(shopkeeperService.getChangeTag())) {
+            return null;
+        }
         return shopkeeperService.findByName(name);
     }
 
     @GetMapping
-    public List<ShopkeeperDTO> listShopkeepers() {
+    public List<ShopkeeperDTO> listShopkeepers(WebRequest request) {
+        if (request.checkNotModified(shopkeeperService.getChangeTag())) {
+            return null;
+        }
         return shopkeeperService.listAll();
     }
 
+    @GetMapping(params = LIMIT_PARAM)
+    public CursorPageDTO<ShopkeeperDTO> listShopkeepersPage(
+            @RequestParam(name = AFTER_PARAM, defaultValue = "0") Long after,
+            @RequestParam(name = LIMIT_PARAM) int limit,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(shopkeeperService.getChangeTag())) {
+            return null;
+        }
+        return shopkeeperService.listPage(after, limit);
+    }
+
+    /**
+     * Same as the beer listing: a cursor without a limit pages with the default page size.
+     */
+    @GetMapping(params = {AFTER_PARAM, "!" + LIMIT_PARAM})
+    public CursorPageDTO<ShopkeeperDTO> listShopkeepersPage(@RequestParam(name = AFTER_PARAM) Long after,
+                                                            WebRequest request) {
+        return listShopkeepersPage(after, DEFAULT_PAGE_SIZE, request);
+    }
+
     @DeleteMapping(ID_URI_PATH)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteById(@PathVariable Long id) throws ShopkeeperNotFoundException {
@@ -2,17 +2,38 @@ package one.digitalinnovation.beerstock.controllers.docs;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
 import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidBeerImportException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidIdempotencyKeyException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @Api("Manages beer stock")
@@ -25,18 +46,85 @@ public interface BeerControllerDocs {
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
-    @ApiOperation(value = "Returns beer found by a given name")
+    @ApiOperation(value = "Returns beer found by a given name", response = BeerDTO.class,
+            produces = "application/json, application/cbor, application/avro")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
             @ApiResponse(code = 404, message = "Beer with given name not found.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    ResponseEntity<byte[]> findByName(@PathVariable String name, @ApiIgnore WebRequest request)
+            throws BeerNotFoundException, HttpMediaTypeNotAcceptableException;
 
-    @ApiOperation(value = "Returns a list of all beers registered in the system")
+    @ApiOperation(value = "Returns a list of all beers registered in the system",
+            response = BeerDTO.class, responseContainer = "List",
+            produces = "application/json, application/cbor, application/avro")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
     })
-    List<BeerDTO> listBeers();
+    ResponseEntity<byte[]> listBeers(@ApiIgnore WebRequest request) throws HttpMediaTypeNotAcceptableException;
+
+    @ApiOperation(value = "Returns a page of beers, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    CursorPageDTO<BeerDTO> listBeersPage(@RequestParam Long after, @RequestParam int limit,
+                                         @ApiIgnore WebRequest request);
+
+    @ApiOperation(value = "Returns a page of beers of the default size, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    CursorPageDTO<BeerDTO> listBeersPage(@RequestParam Long after, @ApiIgnore WebRequest request);
+
+    @ApiOperation(value = "Returns beers whose name or brand starts with the given text, ignoring case and accents")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Matching beers, ordered by the matched name or brand"),
+    })
+    List<BeerSearchResultDTO> searchBeers(@RequestParam String query, @RequestParam int limit);
+
+    @ApiOperation(value = "Returns SKU count, total units and total capacity per beer type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Inventory totals, kept in memory and reconciled with the database periodically"),
+    })
+    InventoryStatsDTO getInventoryStats();
+
+    @ApiOperation(value = "Returns the beers closest to running out, within the low stock threshold")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Low stock beers, emptiest first (at most limit beers)"),
+    })
+    List<BeerDTO> listLowStockBeers(@RequestParam int limit);
+
+    @ApiOperation(value = "Returns the beers closest to their max, within the near capacity threshold")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Near capacity beers, fullest first (at most limit beers)"),
+    })
+    List<BeerDTO> listNearCapacityBeers(@RequestParam int limit);
+
+    @ApiOperation(value = "Streams the whole catalog as newline delimited JSON, one beer per line")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "All beers registered in the system, ordered by id"),
+    })
+    ResponseEntity<StreamingResponseBody> exportBeers();
+
+    @ApiOperation(value = "Registers the beers of a CSV file, with a header row naming the name, brand, max, " +
+            "quantity and beerType columns", consumes = "text/csv")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Number of imported and rejected rows, with the reason of each rejection"),
+            @ApiResponse(code = 400, message = "Missing columns in the header row.")
+    })
+    BeerImportResultDTO importBeers(@ApiParam("CSV file, valid rows are imported even when others are rejected")
+                                    InputStream csv) throws InvalidBeerImportException;
+
+    @ApiOperation(value = "Returns the quantity of a beer at a given time (now by default), rebuilt from the stock ledger")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Quantity of the beer at the given time"),
+            @ApiResponse(code = 404, message = "No stock movement of the beer up to the given time.")
+    })
+    StockLevelDTO getQuantityAt(@PathVariable Long id, @RequestParam Instant at) throws BeerNotFoundException;
 
     @ApiOperation(value = "Deletes a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -48,18 +136,34 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Increment valid quantity for a beer with valid id")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Beer incremented successfully"),
-            @ApiResponse(code = 400, message = "Wrong beer id or invalid quantity.")
+            @ApiResponse(code = 400, message = "Wrong beer id, invalid quantity or invalid idempotency key."),
+            @ApiResponse(code = 409, message = "Request with the same idempotency key still in progress."),
+            @ApiResponse(code = 422, message = "Idempotency key already used for another request.")
     })
     public BeerDTO increment(@PathVariable Long id,
-                             @RequestBody @Valid QuantityDTO quantityDTO)
-            throws BeerNotFoundException, BeerStockExceededException;
+                             @RequestBody @Valid QuantityDTO quantityDTO,
+                             @ApiParam("Retries with the same key are applied only once") String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException,
+            IdempotencyKeyReusedException, IdempotencyKeyInProgressException, InvalidIdempotencyKeyException;
 
     @ApiOperation(value = "Decrement valid quantity for a beer with valid id")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Beer decremented successfully"),
-            @ApiResponse(code = 400, message = "Wrong beer id or invalid quantity.")
+            @ApiResponse(code = 400, message = "Wrong beer id, invalid quantity or invalid idempotency key."),
+            @ApiResponse(code = 409, message = "Request with the same idempotency key still in progress."),
+            @ApiResponse(code = 422, message = "Idempotency key already used for another request.")
     })
     public BeerDTO decrement(@PathVariable Long id,
-                             @RequestBody @Valid QuantityDTO quantityDTO)
-            throws BeerNotFoundException, BeerStockExceededException;
+                             @RequestBody @Valid QuantityDTO quantityDTO,
+                             @ApiParam("Retries with the same key are applied only once") String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException,
+            IdempotencyKeyReusedException, IdempotencyKeyInProgressException, InvalidIdempotencyKeyException;
+
+    @ApiOperation(value = "Applies a batch of stock increments/decrements in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Batch applied, check each item for success or failure"),
+            @ApiResponse(code = 400, message = "No adjustment informed or invalid beer id/delta.")
+    })
+    List<StockAdjustmentResultDTO> adjustStock(@RequestBody @Valid StockAdjustmentBatchDTO batchDTO)
+            throws NoBeerProvidedException;
 }
@@ -0,0 +1,59 @@
+package one.digitalinnovation.beerstock.controllers.docs;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+@Api("Manages beer stock, without blocking (reactive profile)")
+public interface ReactiveBeerControllerDocs {
+
+    @ApiOperation(value = "Beer creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success beer creation"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+    })
+    Mono<BeerDTO> createBeer(BeerDTO beerDTO);
+
+    @ApiOperation(value = "Returns beer found by a given name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 404, message = "Beer with given name not found.")
+    })
+    Mono<BeerDTO> findByName(@PathVariable String name);
+
+    @ApiOperation(value = "Streams all beers registered in the system, as a JSON array or newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "All beers registered in the system, ordered by id"),
+    })
+    Flux<BeerDTO> listBeers();
+
+    @ApiOperation(value = "Deletes a beer found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success beer deleted in the system"),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    Mono<Void> deleteById(@PathVariable Long id);
+
+    @ApiOperation(value = "Increment valid quantity for a beer with valid id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer incremented successfully"),
+            @ApiResponse(code = 400, message = "Wrong beer id or invalid quantity.")
+    })
+    Mono<BeerDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO);
+
+    @ApiOperation(value = "Decrement valid quantity for a beer with valid id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer decremented successfully"),
+            @ApiResponse(code = 400, message = "Wrong beer id or invalid quantity.")
+    })
+    Mono<BeerDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO);
+}
@@ -0,0 +1,78 @@
+package one.digitalinnovation.beerstock.controllers.docs;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import springfox.documentation.annotations.ApiIgnore;
+
+import java.util.List;
+
+@Api("Manages beer's available shopkeepers (reactive profile)")
+public interface ReactiveShopkeeperControllerDocs {
+
+    @ApiOperation(value = "Create shopkeeper operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success shopkeeper creation")
+    })
+    Mono<ShopkeeperDTO> createShopkeeper(ShopkeeperDTO shopkeeperDTO);
+
+    @ApiOperation(value = "Returns shopkeeper found by a given name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success shopkeeper found in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+            @ApiResponse(code = 404, message = "Shopkeeper with given name not found.")
+    })
+    Mono<ShopkeeperDTO> findByName(@PathVariable String name, @ApiIgnore ServerWebExchange exchange);
+
+    @ApiOperation(value = "Returns a list of all shopkeepers registered in the system")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "List of all shopkeepers registered in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    Mono<List<ShopkeeperDTO>> listShopkeepers(@ApiIgnore ServerWebExchange exchange);
+
+    @ApiOperation(value = "Returns a page of shopkeepers, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of shopkeepers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    Mono<CursorPageDTO<ShopkeeperDTO>> listShopkeepersPage(@RequestParam Long after, @RequestParam int limit,
+                                                           @ApiIgnore ServerWebExchange exchange);
+
+    @ApiOperation(value = "Returns a page of shopkeepers of the default size, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of shopkeepers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    Mono<CursorPageDTO<ShopkeeperDTO>> listShopkeepersPage(@RequestParam Long after,
+                                                           @ApiIgnore ServerWebExchange exchange);
+
+    @ApiOperation(value = "Deletes a shopkeeper found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success shopkeeper deleted in the system"),
+            @ApiResponse(code = 404, message = "Shopkeeper with given id not found.")
+    })
+    Mono<Void> deleteById(@PathVariable Long id);
+
+    @ApiOperation(value = "Adds one or more beers in a shopkeeper's list")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Added beer(s) to a shopkeeper's list"),
+            @ApiResponse(code = 400, message = "Check beer's id or shopkeeper's id")
+    })
+    Mono<ShopkeeperDTO> addBeersToShopkeeper(@PathVariable Long id, List<Long> beerIds);
+
+    @ApiOperation(value = "Removes one or more beers in a shopkeeper's list")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Removed beer(s) to a shopkeeper's list"),
+            @ApiResponse(code = 400, message = "Check beer's id or shopkeeper's id")
+    })
+    Mono<ShopkeeperDTO> removeBeersFromShopkeeper(@PathVariable Long id, List<Long> beerIds);
+
+}
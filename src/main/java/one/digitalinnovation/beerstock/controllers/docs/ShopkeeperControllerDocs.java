@@ -4,12 +4,16 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperAlreadyRegisteredException;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import springfox.documentation.annotations.ApiIgnore;
 
 import java.util.List;
 
@@ -25,15 +29,32 @@ public interface ShopkeeperControllerDocs {
     @ApiOperation(value = "Returns shopkeeper found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success shopkeeper found in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
             @ApiResponse(code = 404, message = "Shopkeeper with given name not found.")
     })
-    ShopkeeperDTO findByName(@PathVariable String name) throws ShopkeeperNotFoundException;
+    ShopkeeperDTO findByName(@PathVariable String name, @ApiIgnore WebRequest request) throws ShopkeeperNotFoundException;
 
     @ApiOperation(value = "Returns a list of all shopkeepers registered in the system")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all shopkeepers registered in the system"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
     })
-    List<ShopkeeperDTO> listShopkeepers();
+    List<ShopkeeperDTO> listShopkeepers(@ApiIgnore WebRequest request);
+
+    @ApiOperation(value = "Returns a page of shopkeepers, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of shopkeepers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    CursorPageDTO<ShopkeeperDTO> listShopkeepersPage(@RequestParam Long after, @RequestParam int limit,
+                                                     @ApiIgnore WebRequest request);
+
+    @ApiOperation(value = "Returns a page of shopkeepers of the default size, ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of shopkeepers and the cursor of the next page, if any"),
+            @ApiResponse(code = 304, message = "Nothing changed since the ETag informed in If-None-Match"),
+    })
+    CursorPageDTO<ShopkeeperDTO> listShopkeepersPage(@RequestParam Long after, @ApiIgnore WebRequest request);
 
     @ApiOperation(value = "Deletes a shopkeeper found by a given valid Id")
     @ApiResponses(value = {
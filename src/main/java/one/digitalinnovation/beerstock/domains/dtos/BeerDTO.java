@@ -1,5 +1,6 @@
 package one.digitalinnovation.beerstock.domains.dtos;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,4 +39,11 @@ public class BeerDTO {
 
     @Enumerated(EnumType.STRING)
     private BeerType beerType;
+
+    /**
+     * Read only: set by the database on every change. With the stock engine enabled, it
+     * follows the flushes rather than each movement.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportErrorDTO {
+
+    /**
+     * Position of the rejected row in the file, the first row after the header being 1.
+     */
+    private long row;
+
+    private String name;
+
+    private String message;
+}
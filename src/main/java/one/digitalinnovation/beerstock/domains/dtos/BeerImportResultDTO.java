@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportResultDTO {
+
+    private long imported;
+
+    private long rejected;
+
+    @Builder.Default
+    private List<BeerImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * True when more rows were rejected than listed in errors.
+     */
+    private boolean errorsTruncated;
+}
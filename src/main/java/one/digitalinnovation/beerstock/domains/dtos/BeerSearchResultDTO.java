@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+
+/**
+ * Type-ahead entry. It carries no stock data, so it only changes when a beer is created or
+ * deleted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchResultDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String brand;
+
+    private BeerType beerType;
+}
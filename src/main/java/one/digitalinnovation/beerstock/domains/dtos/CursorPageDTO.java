@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of a keyset (cursor) paginated listing. To get the next page, send
+ * nextCursor as the "after" parameter. It is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    private Long nextCursor;
+}
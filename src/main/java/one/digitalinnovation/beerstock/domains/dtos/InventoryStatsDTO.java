@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStatsDTO {
+
+    private Map<BeerType, InventoryTotalsDTO> byBeerType;
+
+    private Map<String, InventoryTotalsDTO> byBrand;
+}
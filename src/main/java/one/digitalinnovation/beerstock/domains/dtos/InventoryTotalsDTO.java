@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock totals of a group of beers (a beer type or a brand).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTotalsDTO {
+
+    private long skus;
+
+    private long units;
+
+    private long capacity;
+}
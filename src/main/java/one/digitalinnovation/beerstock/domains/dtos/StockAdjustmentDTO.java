@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+
+    @NotNull
+    private Long beerId;
+
+    /**
+     * Positive values increment the stock, negative values decrement it.
+     */
+    @NotNull
+    @Min(-500)
+    @Max(500)
+    private Integer delta;
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.domains.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Quantity of a beer at a point in time, rebuilt from the stock ledger.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelDTO {
+
+    private Long beerId;
+
+    private Instant at;
+
+    private Integer quantity;
+}
@@ -5,18 +5,35 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.Objects;
 
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_CACHE_REGION;
+
+/**
+ * Kept in the second-level cache. The guarded quantity updates bypass Hibernate, so they
+ * lock the cached beers themselves (see BeerRepositoryCustomImpl).
+ */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = BEER_CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
+    /**
+     * Taken from beer_seq in blocks, so inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_seq")
+    @GenericGenerator(name = "beer_seq", strategy = "one.digitalinnovation.beerstock.infrastructure.persistence.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "beer_seq"))
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -35,6 +52,14 @@ public class Beer {
     @Column(nullable = false)
     private BeerType beerType;
 
+    /**
+     * Incremented on every change, including the guarded quantity updates. The default lets
+     * the column be added to tables that already have beers.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,38 @@
+package one.digitalinnovation.beerstock.domains.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.Instant;
+
+/**
+ * A stock movement made with an idempotency key, with the response sent for it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    private String idempotencyKey;
+
+    /**
+     * Operation, beer id and quantity, to tell a retry from a reused key.
+     */
+    @Column(nullable = false)
+    private String request;
+
+    /**
+     * The BeerDTO returned, as JSON.
+     */
+    @Column(nullable = false, length = 1000)
+    private String response;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
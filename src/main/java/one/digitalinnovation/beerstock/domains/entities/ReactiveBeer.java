@@ -0,0 +1,38 @@
+package one.digitalinnovation.beerstock.domains.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the same "beer" table mapped by Beer, used by the reactive profile.
+ * The schema is still owned by JPA.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("beer")
+public class ReactiveBeer {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String brand;
+
+    private Integer max;
+
+    private Integer quantity;
+
+    private BeerType beerType;
+
+    @Version
+    private Long version;
+}
@@ -3,23 +3,51 @@ package one.digitalinnovation.beerstock.domains.entities;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.util.List;
 
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.SHOPKEEPER_BEERS_CACHE_REGION;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.SHOPKEEPER_CACHE_REGION;
+
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SHOPKEEPER_CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Shopkeeper {
 
+    /**
+     * Taken from shopkeeper_seq in blocks, so inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shopkeeper_seq")
+    @GenericGenerator(name = "shopkeeper_seq", strategy = "one.digitalinnovation.beerstock.infrastructure.persistence.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "shopkeeper_seq"))
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String name;
 
+    /**
+     * Cached as beer ids, the beers themselves come from the beer region.
+     */
     @ManyToMany
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SHOPKEEPER_BEERS_CACHE_REGION)
     private List<Beer> beers;
+
+    /**
+     * Also incremented when the beers change, so concurrent edits of the list conflict
+     * instead of overwriting each other.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
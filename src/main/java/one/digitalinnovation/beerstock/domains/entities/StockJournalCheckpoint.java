@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstock.domains.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Last stock journal record applied to the database. It's written in the same transaction as
+ * the quantities, so a record is never replayed twice nor skipped.
+ *
+ * Deltas of the records up to the checkpoint that the database rejected are carried by it,
+ * by beer id, as they are still pending in memory and must be replayed along with the records
+ * after the checkpoint.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalCheckpoint {
+
+    @Id
+    private String journalId;
+
+    @Column(nullable = false)
+    private Long sequence;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_journal_carried_delta", joinColumns = @JoinColumn(name = "journal_id"))
+    @MapKeyColumn(name = "beer_id")
+    @Column(name = "delta", nullable = false)
+    private Map<Long, Integer> carriedDeltas = new HashMap<>();
+}
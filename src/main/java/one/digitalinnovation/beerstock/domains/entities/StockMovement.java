@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.domains.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Ledger entry: one stock movement of a beer. Rows are only ever inserted, and the id grows
+ * with every movement, so (beerId, id) orders the movements of a beer. The index also holds
+ * movedAt and delta, so replaying the movements after a snapshot reads the index alone.
+ */
+@Entity
+@Table(indexes = @Index(name = "stock_movement_replay_idx", columnList = "beerId, id, movedAt, delta"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // no foreign key: the history of a deleted beer is kept
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(nullable = false)
+    private Instant movedAt;
+}
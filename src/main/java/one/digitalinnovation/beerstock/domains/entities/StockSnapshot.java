@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.domains.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Quantity of a beer once every movement up to lastMovementId is applied, so rebuilding a
+ * later quantity only replays the movements after it. Movement ids, unlike their times, follow
+ * the order in which the movements were recorded, and lastMovementId is settled: no movement
+ * up to it can still be committed.
+ */
+@Entity
+@Table(indexes = @Index(name = "stock_snapshot_beer_idx", columnList = "beerId, lastMovementId"))
+@IdClass(StockSnapshotId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    private Long beerId;
+
+    @Id
+    private Instant takenAt;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Long lastMovementId;
+}
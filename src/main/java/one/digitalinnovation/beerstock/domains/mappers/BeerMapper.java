@@ -1,8 +1,11 @@
 package one.digitalinnovation.beerstock.domains.mappers;
 
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
 import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -15,7 +18,18 @@ import org.mapstruct.factory.Mappers;
 public interface BeerMapper {
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    // the version is only ever set by the database
+    @Mapping(target = "version", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
+
+    BeerDTO copy(BeerDTO beerDTO);
+
+    BeerSearchResultDTO toSearchResultDTO(Beer beer);
+
+    @Mapping(target = "version", ignore = true)
+    ReactiveBeer toReactiveModel(BeerDTO beerDTO);
+
+    BeerDTO toDTO(ReactiveBeer reactiveBeer);
 }
@@ -3,6 +3,7 @@ package one.digitalinnovation.beerstock.domains.mappers;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
 import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 /**
@@ -11,10 +12,11 @@ import org.mapstruct.factory.Mappers;
  * to add these methods in DTOs for every entity, saving a lot of time.
  */
 
-@Mapper
+@Mapper(uses = BeerMapper.class)
 public interface ShopkeeperMapper {
     ShopkeeperMapper INSTANCE = Mappers.getMapper(ShopkeeperMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     Shopkeeper toModel(ShopkeeperDTO shopkeeperDTO);
 
     ShopkeeperDTO toDTO(Shopkeeper shopkeeper);
@@ -1,10 +1,56 @@
 package one.digitalinnovation.beerstock.domains.repositories;
 
 import one.digitalinnovation.beerstock.domains.entities.Beer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_BY_NAME_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerRepositoryCustom {
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = BEER_BY_NAME_CACHE_REGION)
+    })
     Optional<Beer> findByName(String name);
+
+    /**
+     * Set-based name check: which of the given names are already registered, in one query.
+     */
+    @Query("select b.name from Beer b where b.name in :names")
+    Set<String> findNamesByNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Keyset pagination: seeks straight to the given id through the primary key
+     * index, so every page costs the same, unlike OFFSET based paging.
+     */
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams the whole catalog through a database cursor instead of loading it at once.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Beer> streamAllByOrderByIdAsc();
+
+    @Query("select b.beerType as beerType, b.brand as brand, count(b) as skus, " +
+            "sum(b.quantity) as units, sum(b.max) as capacity " +
+            "from Beer b group by b.beerType, b.brand")
+    List<InventoryTotals> sumStockByBeerTypeAndBrand();
 }
@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment for the operations Spring Data can't derive, implemented
+ * by {@link BeerRepositoryCustomImpl}.
+ */
+public interface BeerRepositoryCustom {
+
+    /**
+     * Adds delta to the beer quantity in a single guarded UPDATE, so the bound
+     * check and the mutation can't be interleaved by concurrent requests. The update
+     * bypasses Hibernate's versioning, so the version is incremented here.
+     *
+     * @param id    beer id
+     * @param delta positive to increment, negative to decrement
+     * @return number of updated rows: 0 when the beer doesn't exist or the
+     *         resulting quantity would fall outside [0, max]
+     */
+    int addToQuantity(Long id, int delta);
+
+    /**
+     * Applies the guarded update of {@link #addToQuantity(Long, int)}, appends the movement
+     * to the stock ledger and reads the updated beer back. On Postgres it all goes in a
+     * single statement.
+     *
+     * @param id      beer id
+     * @param delta   positive to increment, negative to decrement
+     * @param movedAt time of the ledger movement
+     * @return the updated beer, empty (and nothing recorded) when the beer doesn't exist or
+     *         the resulting quantity would fall outside [0, max]
+     */
+    Optional<Beer> addToQuantityAndRecord(Long id, int delta, Instant movedAt);
+
+    /**
+     * Applies every adjustment with the same guarded UPDATE used by
+     * {@link #addToQuantity(Long, int)}, sent to the database as
+     * a single JDBC batch.
+     *
+     * @param adjustments adjustments to apply, in the given order
+     * @return updated rows for each adjustment, in the same order
+     */
+    int[] addToQuantities(List<StockAdjustmentDTO> adjustments);
+
+    /**
+     * Applies every adjustment like {@link #addToQuantities(List)} and appends the applied
+     * ones to the stock ledger. On Postgres both go in the same JDBC batch.
+     *
+     * @param adjustments adjustments to apply, in the given order
+     * @param movedAt     time of the ledger movements
+     * @return updated rows for each adjustment, in the same order
+     */
+    int[] addToQuantitiesAndRecord(List<StockAdjustmentDTO> adjustments, Instant movedAt);
+
+    /**
+     * Removes a beer from the persistence context, so long reads (e.g. streams) don't
+     * keep every loaded entity in memory.
+     *
+     * @param beer managed beer
+     */
+    void detach(Beer beer);
+}
@@ -0,0 +1,230 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerRepositoryCustomImpl implements BeerRepositoryCustom {
+
+    private static final String ADD_TO_QUANTITY_SQL = "update beer set quantity = quantity + ?, version = version + 1 " +
+            "where id = ? and quantity + ? between 0 and max";
+
+    private static final String BEER_COLUMNS = "id, name, brand, max, quantity, beer_type, version";
+
+    /**
+     * Postgres: the update, the ledger insert and the read back in one statement. The insert
+     * only sees the updated row, so nothing is recorded when the guard fails. The time is cast
+     * since a select list gives the parameter no type to infer.
+     */
+    private static final String ADD_TO_QUANTITY_AND_RECORD_POSTGRES_SQL = "with updated as (" +
+            ADD_TO_QUANTITY_SQL + " returning " + BEER_COLUMNS + "), " +
+            "movement as (insert into stock_movement (beer_id, delta, moved_at) select id, ?, cast(? as timestamp) from updated) " +
+            "select " + BEER_COLUMNS + " from updated";
+
+    private static final String APPEND_MOVEMENT_SQL = "insert into stock_movement (beer_id, delta, moved_at) values (?, ?, ?)";
+
+    /**
+     * The batched variant: only the movement is inserted, its count standing for the update's.
+     */
+    private static final String ADD_TO_QUANTITIES_AND_RECORD_POSTGRES_SQL = "with updated as (" +
+            ADD_TO_QUANTITY_SQL + " returning id) " +
+            "insert into stock_movement (beer_id, delta, moved_at) select id, ?, cast(? as timestamp) from updated";
+
+    private static final String FIND_BEER_SQL = "select " + BEER_COLUMNS + " from beer where id = ?";
+
+    /**
+     * H2 can't modify data in a WITH clause, and 1.4.200 loses the first update run through
+     * FINAL TABLE on each table, so the update goes on its own and the read back travels with
+     * the ledger insert: H2 runs the statements of one command in order, each taking its share
+     * of the parameters, and returns the first one's rows.
+     */
+    private static final String FIND_BEER_AND_APPEND_MOVEMENT_H2_SQL = FIND_BEER_SQL + "; " + APPEND_MOVEMENT_SQL;
+
+    private static final RowMapper<Beer> BEER_ROW_MAPPER = (rs, rowNum) -> new Beer(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("brand"),
+            rs.getInt("max"),
+            rs.getInt("quantity"),
+            BeerType.valueOf(rs.getString("beer_type")),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Pending changes are flushed before the update and the persistence context is cleared
+     * after it, since JDBC bypasses it.
+     */
+    @Override
+    @Transactional
+    public int addToQuantity(Long id, int delta) {
+        entityManager.flush();
+        lockCachedBeers(List.of(id));
+        int updatedRows = jdbcTemplate.update(ADD_TO_QUANTITY_SQL, delta, id, delta);
+        entityManager.clear();
+
+        return updatedRows;
+    }
+
+    /**
+     * Same flush, cache lock and clear as {@link #addToQuantity(Long, int)}. The returned beer
+     * is built from the updated row and isn't managed. Postgres does it all in one statement,
+     * H2 in two: the update, then the read back with the ledger insert.
+     */
+    @Override
+    @Transactional
+    public Optional<Beer> addToQuantityAndRecord(Long id, int delta, Instant movedAt) {
+        entityManager.flush();
+        lockCachedBeers(List.of(id));
+        Timestamp movedAtTimestamp = Timestamp.from(movedAt);
+        Optional<Beer> updatedBeer;
+        if (isPostgres()) {
+            updatedBeer = jdbcTemplate.query(ADD_TO_QUANTITY_AND_RECORD_POSTGRES_SQL, BEER_ROW_MAPPER,
+                    delta, id, delta, delta, movedAtTimestamp).stream().findFirst();
+        } else {
+            updatedBeer = Optional.empty();
+            if (jdbcTemplate.update(ADD_TO_QUANTITY_SQL, delta, id, delta) > 0) {
+                updatedBeer = jdbcTemplate.query(FIND_BEER_AND_APPEND_MOVEMENT_H2_SQL, BEER_ROW_MAPPER,
+                        id, id, delta, movedAtTimestamp).stream().findFirst();
+            }
+        }
+        entityManager.clear();
+
+        return updatedBeer;
+    }
+
+    /**
+     * Like {@link #addToQuantity(Long, int)}, for a whole batch.
+     */
+    @Override
+    @Transactional
+    public int[] addToQuantities(List<StockAdjustmentDTO> adjustments) {
+        entityManager.flush();
+        lockCachedBeers(beerIds(adjustments));
+        int[] updatedRows = batchUpdate(ADD_TO_QUANTITY_SQL, adjustments, null);
+        entityManager.clear();
+
+        return updatedRows;
+    }
+
+    /**
+     * Like {@link #addToQuantities(List)}. On Postgres each statement of the batch is the
+     * update with the ledger insert chained to it, and counts the inserted movement, which
+     * is there only when the update went through.
+     */
+    @Override
+    @Transactional
+    public int[] addToQuantitiesAndRecord(List<StockAdjustmentDTO> adjustments, Instant movedAt) {
+        if (!isPostgres()) {
+            int[] updatedRows = addToQuantities(adjustments);
+            List<StockAdjustmentDTO> appliedAdjustments = new ArrayList<>(adjustments.size());
+            for (int i = 0; i < updatedRows.length; i++) {
+                if (updatedRows[i] != 0) {
+                    appliedAdjustments.add(adjustments.get(i));
+                }
+            }
+            if (!appliedAdjustments.isEmpty()) {
+                Timestamp movedAtTimestamp = Timestamp.from(movedAt);
+                jdbcTemplate.batchUpdate(APPEND_MOVEMENT_SQL, appliedAdjustments.stream()
+                        .map(adjustment -> new Object[]{adjustment.getBeerId(), adjustment.getDelta(), movedAtTimestamp})
+                        .collect(Collectors.toList()));
+            }
+            return updatedRows;
+        }
+
+        entityManager.flush();
+        lockCachedBeers(beerIds(adjustments));
+        int[] updatedRows = batchUpdate(ADD_TO_QUANTITIES_AND_RECORD_POSTGRES_SQL, adjustments, Timestamp.from(movedAt));
+        entityManager.clear();
+
+        return updatedRows;
+    }
+
+    @Override
+    public void detach(Beer beer) {
+        entityManager.detach(beer);
+    }
+
+    /**
+     * Sends the guarded update, with the movement parameters when movedAt is given, once per
+     * adjustment, as a single JDBC batch.
+     */
+    private int[] batchUpdate(String sql, List<StockAdjustmentDTO> adjustments, Timestamp movedAt) {
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockAdjustmentDTO adjustment = adjustments.get(i);
+                ps.setInt(1, adjustment.getDelta());
+                ps.setLong(2, adjustment.getBeerId());
+                ps.setInt(3, adjustment.getDelta());
+                if (movedAt != null) {
+                    ps.setInt(4, adjustment.getDelta());
+                    ps.setTimestamp(5, movedAt);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return adjustments.size();
+            }
+        });
+    }
+
+    private static List<Long> beerIds(List<StockAdjustmentDTO> adjustments) {
+        return adjustments.stream()
+                .map(StockAdjustmentDTO::getBeerId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private boolean isPostgres() {
+        return entityManager.unwrap(SessionImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQL81Dialect;
+    }
+
+    /**
+     * Locks the second-level cache entries of the beers until the transaction ends, as
+     * Hibernate does for the entities it updates itself: meanwhile the beers are read from
+     * the database, and loads that started before the end can't cache their old state.
+     * Unlike a bulk JPQL update, which evicts every cached beer, only these are affected.
+     */
+    private void lockCachedBeers(List<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Beer.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        for (Long id : ids) {
+            Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+            SoftLock lock = cacheAccess.lockItem(session, key, null);
+            session.getActionQueue().registerProcess((success, completedSession) ->
+                    cacheAccess.unlockItem(completedSession, key, lock));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * @return number of records deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdAt")
+    int deleteCreatedBefore(@Param("createdAt") Instant createdAt);
+}
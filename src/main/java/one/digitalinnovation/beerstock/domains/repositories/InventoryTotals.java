@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+
+/**
+ * Projection of BeerRepository.sumStockByBeerTypeAndBrand: stock totals of the beers sharing
+ * a beer type and a brand.
+ */
+public interface InventoryTotals {
+
+    BeerType getBeerType();
+
+    String getBrand();
+
+    Long getSkus();
+
+    Long getUnits();
+
+    Long getCapacity();
+}
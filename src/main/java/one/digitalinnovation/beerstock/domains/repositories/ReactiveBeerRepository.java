@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.REACTIVE_PROFILE;
+
+@Profile(REACTIVE_PROFILE)
+public interface ReactiveBeerRepository extends R2dbcRepository<ReactiveBeer, Long>, ReactiveBeerRepositoryCustom {
+    Mono<ReactiveBeer> findByName(String name);
+
+    Flux<ReactiveBeer> findAllByOrderByIdAsc();
+
+    /**
+     * Id for a new beer, from the sequence Beer ids come from. Hibernate hands out a block of
+     * ids per sequence value, so the whole block goes to this one beer.
+     */
+    @Query("select nextval('beer_seq')")
+    Mono<Long> nextId();
+}
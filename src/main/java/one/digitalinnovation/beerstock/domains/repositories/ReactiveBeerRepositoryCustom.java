@@ -0,0 +1,33 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Repository fragment for the reactive stock movements, implemented by
+ * {@link ReactiveBeerRepositoryCustomImpl}. They write the stock ledger like their
+ * {@link BeerRepositoryCustom} counterparts.
+ */
+public interface ReactiveBeerRepositoryCustom {
+
+    /**
+     * Applies the guarded update of BeerRepository.addToQuantity, appends the movement to the
+     * stock ledger and reads the updated beer back. On Postgres it all goes in a single
+     * statement, elsewhere in three, which the caller must run in one transaction.
+     *
+     * @param id      beer id
+     * @param delta   positive to increment, negative to decrement
+     * @param movedAt time of the ledger movement
+     * @return the updated beer, empty (and nothing recorded) when the beer doesn't exist or
+     *         the resulting quantity would fall outside [0, max]
+     */
+    Mono<ReactiveBeer> addToQuantityAndRecord(Long id, int delta, Instant movedAt);
+
+    /**
+     * Appends to the stock ledger a movement already applied in the current transaction
+     * (e.g. the initial quantity of a new beer).
+     */
+    Mono<Void> record(Long beerId, int delta, Instant movedAt);
+}
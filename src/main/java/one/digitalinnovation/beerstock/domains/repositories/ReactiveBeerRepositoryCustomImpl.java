@@ -0,0 +1,100 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.BiFunction;
+
+public class ReactiveBeerRepositoryCustomImpl implements ReactiveBeerRepositoryCustom {
+
+    private static final String ADD_TO_QUANTITY_SQL = "update beer set quantity = quantity + :delta, version = version + 1 " +
+            "where id = :id and quantity + :delta between 0 and max";
+
+    private static final String BEER_COLUMNS = "id, name, brand, max, quantity, beer_type, version";
+
+    /**
+     * Same statement as BeerRepositoryCustomImpl's: the insert only sees the updated row, so
+     * nothing is recorded when the guard fails.
+     */
+    private static final String ADD_TO_QUANTITY_AND_RECORD_POSTGRES_SQL = "with updated as (" +
+            ADD_TO_QUANTITY_SQL + " returning " + BEER_COLUMNS + "), " +
+            "movement as (insert into stock_movement (beer_id, delta, moved_at) " +
+            "select id, :delta, cast(:movedAt as timestamp) from updated) " +
+            "select " + BEER_COLUMNS + " from updated";
+
+    private static final String APPEND_MOVEMENT_SQL = "insert into stock_movement (beer_id, delta, moved_at) " +
+            "values (:beerId, :delta, :movedAt)";
+
+    private static final String FIND_BEER_SQL = "select " + BEER_COLUMNS + " from beer where id = :id";
+
+    private static final String POSTGRES_DATABASE = "PostgreSQL";
+
+    private static final BiFunction<Row, RowMetadata, ReactiveBeer> BEER_ROW_MAPPER = (row, metadata) -> new ReactiveBeer(
+            row.get("id", Long.class),
+            row.get("name", String.class),
+            row.get("brand", String.class),
+            row.get("max", Integer.class),
+            row.get("quantity", Integer.class),
+            BeerType.valueOf(row.get("beer_type", String.class)),
+            row.get("version", Long.class));
+
+    private final DatabaseClient databaseClient;
+
+    private final boolean postgres;
+
+    @Autowired
+    public ReactiveBeerRepositoryCustomImpl(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        // not the Spring Data dialect: H2's extends the Postgres one
+        this.postgres = POSTGRES_DATABASE.equals(connectionFactory.getMetadata().getName());
+    }
+
+    @Override
+    public Mono<ReactiveBeer> addToQuantityAndRecord(Long id, int delta, Instant movedAt) {
+        if (postgres) {
+            return databaseClient.sql(ADD_TO_QUANTITY_AND_RECORD_POSTGRES_SQL)
+                    .bind("id", id)
+                    .bind("delta", delta)
+                    .bind("movedAt", timestamp(movedAt))
+                    .map(BEER_ROW_MAPPER)
+                    .one();
+        }
+
+        return databaseClient.sql(ADD_TO_QUANTITY_SQL)
+                .bind("id", id)
+                .bind("delta", delta)
+                .fetch()
+                .rowsUpdated()
+                .filter(updatedRows -> updatedRows > 0)
+                .flatMap(updatedRows -> record(id, delta, movedAt)
+                        .then(databaseClient.sql(FIND_BEER_SQL)
+                                .bind("id", id)
+                                .map(BEER_ROW_MAPPER)
+                                .one()));
+    }
+
+    @Override
+    public Mono<Void> record(Long beerId, int delta, Instant movedAt) {
+        return databaseClient.sql(APPEND_MOVEMENT_SQL)
+                .bind("beerId", beerId)
+                .bind("delta", delta)
+                .bind("movedAt", timestamp(movedAt))
+                .then();
+    }
+
+    /**
+     * moved_at has no time zone, and Hibernate writes it in the JVM one.
+     */
+    private static LocalDateTime timestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
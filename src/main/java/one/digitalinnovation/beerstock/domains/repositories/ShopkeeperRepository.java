@@ -1,10 +1,45 @@
 package one.digitalinnovation.beerstock.domains.repositories;
 
 import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.SHOPKEEPER_BY_NAME_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
+/**
+ * Lookups that are mapped to ShopkeeperDTO load the beers in the same query
+ * (BEERS_GRAPH), since the mapper walks every shopkeeper's beer list.
+ */
 public interface ShopkeeperRepository extends JpaRepository<Shopkeeper, Long> {
+    String BEERS_GRAPH = "beers";
+
+    @Override
+    @EntityGraph(attributePaths = BEERS_GRAPH)
+    List<Shopkeeper> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = BEERS_GRAPH)
+    Optional<Shopkeeper> findById(Long id);
+
+    @EntityGraph(attributePaths = BEERS_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = SHOPKEEPER_BY_NAME_CACHE_REGION)
+    })
     Optional<Shopkeeper> findByName(String name);
+
+    /**
+     * Keyset pagination, see {@link BeerRepository#findByIdGreaterThanOrderByIdAsc(Long, Pageable)}.
+     * Beers aren't joined here, since a collection join would make Hibernate apply the
+     * limit in memory. They are batch fetched instead (see Shopkeeper.beers).
+     */
+    List<Shopkeeper> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.entities.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+
+    /**
+     * @return sum of the deltas of the movements of a beer after the given id, moved up to
+     * until, or null when there is none
+     */
+    @Query("select sum(m.delta) from StockMovement m " +
+            "where m.beerId = :beerId and m.id > :afterId and m.movedAt <= :until")
+    Long sumDeltas(@Param("beerId") Long beerId, @Param("afterId") Long afterId, @Param("until") Instant until);
+
+    /**
+     * Gives every beer without any movement (e.g. created before the ledger existed) an
+     * opening movement with its current quantity. Native statements are assumed to write any
+     * table, and so to evict the whole second-level cache, unless told which ones they write.
+     *
+     * @return number of beers that got an opening movement
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "stock_movement"))
+    @Query(value = "insert into stock_movement (beer_id, delta, moved_at) " +
+            "select b.id, b.quantity, :movedAt from beer b " +
+            "where not exists (select 1 from stock_movement m where m.beer_id = b.id)",
+            nativeQuery = true)
+    int appendOpeningMovements(@Param("movedAt") Instant movedAt);
+}
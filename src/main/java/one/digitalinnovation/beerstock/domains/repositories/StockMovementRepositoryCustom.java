@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository fragment for the ledger writes, implemented by {@link StockMovementRepositoryCustomImpl}.
+ */
+public interface StockMovementRepositoryCustom {
+
+    /**
+     * Inserts one ledger row per movement, sent to the database as a single JDBC batch. It
+     * runs in the caller's transaction, so the movements are committed along with the
+     * quantity updates.
+     *
+     * @param movements applied movements (beer id, delta)
+     * @param movedAt   when the movements were applied
+     */
+    void appendAll(List<StockAdjustmentDTO> movements, Instant movedAt);
+
+    /**
+     * Cutoff for the stock snapshots that follows commit order, which movement ids don't, as
+     * they are given at insert time. The greatest committed id is read first, then this waits
+     * for every transaction still writing movements, as any of them may hold a lower id. Once
+     * it returns, no movement up to the cutoff can still be committed.
+     *
+     * @return greatest movement id whose movements are all settled, 0 when there is none
+     */
+    long awaitSettledMovementId();
+}
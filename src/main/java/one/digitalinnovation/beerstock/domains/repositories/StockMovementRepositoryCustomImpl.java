@@ -0,0 +1,83 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockMovementRepositoryCustomImpl implements StockMovementRepositoryCustom {
+
+    private static final String APPEND_SQL = "insert into stock_movement (beer_id, delta, moved_at) values (?, ?, ?)";
+
+    private static final String LAST_MOVEMENT_ID_SQL = "select coalesce(max(id), 0) from stock_movement";
+
+    /**
+     * Share mode waits for the transactions holding row exclusive locks, which every insert
+     * takes until commit, and holds new inserts off until the fence commits, right after. The
+     * timeout bounds how long they can queue behind it.
+     */
+    private static final String FENCE_POSTGRES_SQL = "set local lock_timeout = '2s'; " +
+            "lock table stock_movement in share mode";
+
+    /**
+     * H2 has no lock table statement, but inserts hold a shared table lock until commit and
+     * this no-op (the ledger has no foreign key) waits for an exclusive one, up to LOCK_TIMEOUT.
+     */
+    private static final String FENCE_H2_SQL = "alter table stock_movement set referential_integrity true nocheck";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Plain JDBC inserts: no entity is created or tracked, and the ids are left to the database.
+     */
+    @Override
+    public void appendAll(List<StockAdjustmentDTO> movements, Instant movedAt) {
+        Timestamp movedAtTimestamp = Timestamp.from(movedAt);
+        jdbcTemplate.batchUpdate(APPEND_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockAdjustmentDTO movement = movements.get(i);
+                ps.setLong(1, movement.getBeerId());
+                ps.setInt(2, movement.getDelta());
+                ps.setTimestamp(3, movedAtTimestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    /**
+     * The id is read before the fence: a movement committed in between waits for the next
+     * snapshot, but any id up to the one read was given to a transaction that is either done
+     * or waited for. On H2 the fence commits as it is DDL, so nothing can be read under it.
+     */
+    @Override
+    @Transactional
+    public long awaitSettledMovementId() {
+        Long lastMovementId = jdbcTemplate.queryForObject(LAST_MOVEMENT_ID_SQL, Long.class);
+        jdbcTemplate.execute(isPostgres() ? FENCE_POSTGRES_SQL : FENCE_H2_SQL);
+        return lastMovementId == null ? 0 : lastMovementId;
+    }
+
+    private boolean isPostgres() {
+        return entityManager.unwrap(SessionImplementor.class).getJdbcServices().getDialect()
+                instanceof PostgreSQL81Dialect;
+    }
+}
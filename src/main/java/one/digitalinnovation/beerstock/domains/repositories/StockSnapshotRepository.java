@@ -0,0 +1,61 @@
+package one.digitalinnovation.beerstock.domains.repositories;
+
+import one.digitalinnovation.beerstock.domains.entities.StockSnapshot;
+import one.digitalinnovation.beerstock.domains.entities.StockSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, StockSnapshotId> {
+
+    Optional<StockSnapshot> findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(Long beerId, Instant takenAt);
+
+    /**
+     * Snapshots, in a single statement, every beer moved since its latest snapshot: the new
+     * quantity is the latest snapshot one plus the deltas of the movements after its last
+     * movement id, up to lastMovementId. Movements are picked by id, so one whose time is
+     * behind the previous snapshot is still counted, and lastMovementId must be settled, see
+     * StockMovementRepository.awaitSettledMovementId.
+     * Only stock_snapshot is written, so the second-level cache is left alone.
+     *
+     * @return number of snapshots taken
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "stock_snapshot"))
+    @Query(value = "insert into stock_snapshot (beer_id, taken_at, quantity, last_movement_id) " +
+            "select m.beer_id, :takenAt, coalesce(max(s.quantity), 0) + sum(m.delta), max(m.id) " +
+            "from stock_movement m " +
+            "left join stock_snapshot s on s.beer_id = m.beer_id and s.last_movement_id = (" +
+            "select max(l.last_movement_id) from stock_snapshot l where l.beer_id = m.beer_id) " +
+            "where (s.last_movement_id is null or m.id > s.last_movement_id) " +
+            "and m.id <= :lastMovementId " +
+            "group by m.beer_id",
+            nativeQuery = true)
+    int takeSnapshots(@Param("takenAt") Instant takenAt, @Param("lastMovementId") long lastMovementId);
+
+    /**
+     * Deletes the snapshots taken before the given time that a later one, also taken before
+     * it, supersedes. Each beer keeps its latest snapshot up to that time, so quantities from
+     * then on are rebuilt as fast as before; earlier ones replay more movements.
+     *
+     * @return number of snapshots deleted
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "stock_snapshot"))
+    @Query(value = "delete from stock_snapshot s where s.taken_at < :before and exists (" +
+            "select 1 from stock_snapshot l where l.beer_id = s.beer_id " +
+            "and l.last_movement_id > s.last_movement_id and l.taken_at <= :before)",
+            nativeQuery = true)
+    int pruneSnapshots(@Param("before") Instant before);
+}
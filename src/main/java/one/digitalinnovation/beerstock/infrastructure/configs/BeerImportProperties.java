@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CSV beer import ("beerstock.beer-import.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.beer-import")
+public class BeerImportProperties {
+
+    /**
+     * Rows checked against the database and inserted together, in one transaction. Only one
+     * chunk is kept in memory at a time, whatever the file size.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Errors listed in the import report; the rejected rows after these are only counted.
+     */
+    private int maxReportedErrors = 1000;
+}
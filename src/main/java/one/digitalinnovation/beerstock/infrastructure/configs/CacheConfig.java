@@ -0,0 +1,14 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring Boot's cache auto-configuration. Caches, their size and TTL are set by the
+ * spring.cache.* properties, and their stats are published by actuator (metrics and caches
+ * endpoints).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
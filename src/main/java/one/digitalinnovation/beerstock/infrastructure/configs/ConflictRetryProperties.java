@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Retry policy for optimistic locking conflicts ("beerstock.conflict-retry.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.conflict-retry")
+public class ConflictRetryProperties {
+
+    /**
+     * Attempts in total, the first one included.
+     */
+    private int maxAttempts = 4;
+
+    /**
+     * Upper bound of the wait before the first retry. It doubles on each retry, and the
+     * actual wait is a random value below it, so conflicting requests don't retry in step.
+     */
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    /**
+     * Upper bound of any wait between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
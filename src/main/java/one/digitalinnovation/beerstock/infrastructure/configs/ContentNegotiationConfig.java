@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import one.digitalinnovation.beerstock.infrastructure.converters.AvroHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Encodings offered besides JSON, picked by the Accept header: CBOR ("application/cbor", set up
+ * by Spring as soon as jackson-dataformat-cbor is on the classpath) and Avro ("application/avro").
+ *
+ * The Avro converter isn't a bean on purpose: Spring Boot puts converter beans ahead of the
+ * default ones, and the first converter wins when the client accepts anything. Appended here,
+ * after the JSON converter, it leaves JSON as the default.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new AvroHttpMessageConverter());
+    }
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import one.digitalinnovation.beerstock.infrastructure.persistence.PooledSequenceGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands the configured allocation size to {@link PooledSequenceGenerator}, which is created by
+ * Hibernate rather than by Spring.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorCustomizer(IdGeneratorProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(
+                PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, properties.getAllocationSize());
+    }
+}
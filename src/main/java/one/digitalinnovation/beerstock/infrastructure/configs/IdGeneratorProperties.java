@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import one.digitalinnovation.beerstock.infrastructure.persistence.PooledSequenceGenerator;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beer and shopkeeper id generation ("beerstock.id-generator.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.id-generator")
+public class IdGeneratorProperties {
+
+    /**
+     * Ids reserved per sequence call. Must match the increment of the beer_seq and
+     * shopkeeper_seq sequences: change both together (alter sequence ... increment by).
+     */
+    private int allocationSize = PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+}
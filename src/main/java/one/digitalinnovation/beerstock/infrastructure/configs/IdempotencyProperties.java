@@ -0,0 +1,44 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for idempotency keys of stock movements ("beerstock.idempotency.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key is remembered. A retry after that is applied again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of keys kept in memory, the oldest ones are dropped first.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * When enabled, keys are also stored in the database, in the same transaction as the
+     * movement, so retries are recognized after a restart or by another node. It costs one
+     * insert per movement with a key.
+     */
+    private boolean persistent = false;
+
+    /**
+     * How long a retry waits for a request with the same key that is still running. After
+     * that it's answered with 409 Conflict, and the client retries later.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time between two purges of expired keys from the database.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
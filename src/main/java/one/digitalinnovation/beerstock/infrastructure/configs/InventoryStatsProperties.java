@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory inventory aggregates ("beerstock.inventory-stats.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.inventory-stats")
+public class InventoryStatsProperties {
+
+    /**
+     * Time between two reconciliations of the aggregates against the database.
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(5);
+}
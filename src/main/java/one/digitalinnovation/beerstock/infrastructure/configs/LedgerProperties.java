@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the stock movement ledger ("beerstock.ledger.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.ledger")
+public class LedgerProperties {
+
+    /**
+     * Time between two rounds of snapshots.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    /**
+     * Superseded snapshots older than this are deleted. Quantities further back are still
+     * rebuilt, from an older snapshot or the first movement.
+     */
+    private Duration snapshotRetention = Duration.ofDays(7);
+}
@@ -0,0 +1,43 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.REACTIVE_PROFILE;
+
+/**
+ * Spring Boot doesn't create a DataSource when an R2DBC ConnectionFactory is present, but the
+ * reactive profile still needs JPA for the schema, the in-memory structures loaded at startup
+ * and the shopkeeper API, which ReactiveShopkeeperController serves from the blocking service.
+ * This declares the same DataSource the auto-configuration would, from spring.datasource.*.
+ */
+@Configuration
+@Profile(REACTIVE_PROFILE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    /**
+     * Transactions of the reactive beer API. The R2DBC transaction manager isn't a bean, so
+     * @Transactional keeps resolving to the JPA one.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache of serialized beer responses ("beerstock.response-cache.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * When disabled, responses are serialized on every read.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Also keep a gzip-compressed copy, sent to clients that accept it.
+     */
+    private boolean gzip = true;
+
+    /**
+     * Smaller responses aren't compressed, as gzip would barely shrink them.
+     */
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+    /**
+     * Maximum number of single beer responses kept, the least recently used ones are dropped first.
+     */
+    private long maximumSize = 10_000;
+}
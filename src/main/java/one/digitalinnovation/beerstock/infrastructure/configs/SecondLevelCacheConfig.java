@@ -0,0 +1,107 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Opt-in ("beerstock.second-level-cache.enabled=true") Hibernate second-level and query cache,
+ * kept in Caffeine through JCache. Each region is created here with its own size and expiry
+ * (see {@link SecondLevelCacheProperties}), so Hibernate is told to fail on a region that
+ * isn't configured instead of creating an unbounded one.
+ *
+ * Region stats are published by actuator: hits, misses and puts as seen by Hibernate
+ * (hibernate.second.level.cache.*, hibernate.query.cache.*) and entries, evictions and
+ * removals of each region as seen by the cache (cache.*, tagged cacheManager=hibernate).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.second-level-cache", name = "enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String CACHE_MANAGER_TAG = "hibernate";
+
+    /**
+     * A cache manager of its own, as Hibernate closes it along with the entity manager
+     * factory, and the default one is shared by every application context in the JVM.
+     */
+    @Bean
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("beerstock-second-level-cache-" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+
+        properties.getRegions().forEach((name, region) ->
+                cacheManager.createCache(name, regionConfiguration(region)));
+        // invalidation times of the query cache: must outlive the query results, so it's never evicted
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(new SecondLevelCacheProperties.Region()));
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            // needed by the hibernate.* metrics, without logging every session's stats
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return meterRegistry -> {
+            for (String name : secondLevelCacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = secondLevelCacheManager.getCache(name);
+                Tags tags = Tags.of("cacheManager", CACHE_MANAGER_TAG);
+                new JCacheMetrics(cache, tags).bindTo(meterRegistry);
+                // JCache can't tell its size, Caffeine can
+                Gauge.builder("cache.size", cache,
+                        region -> region.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize())
+                        .description("The number of entries in this cache. This may be an approximation, depending on the type of cache.")
+                        .tags(tags.and("cache", name))
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+    /**
+     * Entries are stored by reference: Hibernate caches immutable, disassembled copies of
+     * the entities, so the copy JCache makes by default would be wasted.
+     */
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (region.getMaximumSize() != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        }
+        if (region.getExpireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,44 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache ("beerstock.second-level-cache.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * When disabled, every entity and query is read from the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Eviction policy of each region, by region name. Every region Hibernate uses must be
+     * listed (entities, collections and queries, including default-query-results-region),
+     * as the application fails on startup otherwise.
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Maximum number of entries, the least valuable ones are dropped first. Unbounded when not set.
+         */
+        private Long maximumSize;
+
+        /**
+         * Entries are dropped this long after being written. Kept until evicted by size when not set.
+         */
+        private Duration expireAfterWrite;
+    }
+}
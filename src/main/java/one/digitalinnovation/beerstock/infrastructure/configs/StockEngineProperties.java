@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory stock engine ("beerstock.stock-engine.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.stock-engine")
+public class StockEngineProperties {
+
+    /**
+     * When disabled, every stock movement goes straight to the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum time a movement stays only in memory before being flushed.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Number of pending movements that triggers a flush before the interval ends.
+     */
+    private int flushThreshold = 1000;
+}
@@ -0,0 +1,69 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local stock journal ("beerstock.stock-journal.*" properties). The journal is
+ * only used while the stock engine is enabled.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.stock-journal")
+public class StockJournalProperties {
+
+    /**
+     * When enabled, every movement accepted by the stock engine is written to the journal
+     * before being acknowledged, and replayed into the database after a crash.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Identifies this journal's checkpoint in the database. Each node writing to the same
+     * database needs its own id.
+     */
+    private String id = "local";
+
+    /**
+     * Directory holding the journal segments.
+     */
+    private String directory = "stock-journal";
+
+    /**
+     * Size of each memory-mapped segment file. A new segment is started when one is full.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    /**
+     * When journal writes are forced to disk.
+     */
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.GROUP_COMMIT;
+
+    /**
+     * Time between two syncs with the interval policy.
+     */
+    private Duration fsyncInterval = Duration.ofMillis(100);
+
+    public enum FsyncPolicy {
+        /**
+         * Each write is forced to disk on its own before being acknowledged.
+         */
+        EVERY_WRITE,
+
+        /**
+         * Writers wait for their write to be on disk, but a single sync covers every write
+         * made while the previous one was running.
+         */
+        GROUP_COMMIT,
+
+        /**
+         * Writes are acknowledged right away and synced periodically: a crash of the machine
+         * (not only of the application) may lose the last interval.
+         */
+        INTERVAL
+    }
+}
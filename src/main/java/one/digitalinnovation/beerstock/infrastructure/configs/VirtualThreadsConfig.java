@@ -0,0 +1,55 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.annotation.PreDestroy;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in ("beerstock.virtual-threads.enabled=true") execution mode where Tomcat handles every
+ * request, and so every repository call, on its own virtual thread instead of the worker pool.
+ * MVC async work (e.g. the catalog export) also runs on virtual threads.
+ *
+ * Virtual threads need Java 21, but the code is still compiled for Java 15 (Spring 5.3 can't
+ * read newer class files), so the executor is looked up by reflection. The application fails
+ * on startup if the mode is enabled on an older runtime.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreadExecutor.shutdown();
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(
+                    "Virtual threads need Java 21 or newer, but the runtime is Java " + Runtime.version(), e);
+        }
+    }
+}
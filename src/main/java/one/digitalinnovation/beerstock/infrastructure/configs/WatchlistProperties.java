@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.infrastructure.configs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the stock watchlist ("beerstock.watchlist.*" properties).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "beerstock.watchlist")
+public class WatchlistProperties {
+
+    /**
+     * A beer is low on stock when its quantity is at most this threshold.
+     */
+    private Threshold lowStock = new Threshold(10, ThresholdUnit.PERCENT);
+
+    /**
+     * A beer is near capacity when its free room (max - quantity) is at most this threshold.
+     */
+    private Threshold nearCapacity = new Threshold(10, ThresholdUnit.PERCENT);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+
+        private int value;
+
+        private ThresholdUnit unit = ThresholdUnit.UNITS;
+    }
+
+    public enum ThresholdUnit {
+        /**
+         * Absolute number of beers.
+         */
+        UNITS,
+
+        /**
+         * Percentage of each beer's max.
+         */
+        PERCENT
+    }
+}
@@ -0,0 +1,119 @@
+package one.digitalinnovation.beerstock.infrastructure.converters;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.AVRO_MEDIA_TYPE;
+
+/**
+ * Reads and writes Avro binary ("application/avro"), a compact format where field names aren't
+ * repeated and enums are written as their ordinal. The schema is generated from the declared
+ * Java type, e.g. List&lt;BeerDTO&gt;, and cached, so the other side needs the same DTOs.
+ *
+ * Only used when asked for in Accept or Content-Type: it's registered after the JSON converter,
+ * which stays the default.
+ */
+@Slf4j
+public class AvroHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final AvroMapper avroMapper = new AvroMapper();
+
+    private final ConcurrentMap<JavaType, Optional<AvroSchema>> schemas = new ConcurrentHashMap<>();
+
+    public AvroHttpMessageConverter() {
+        super(MediaType.valueOf(AVRO_MEDIA_TYPE));
+        // Spring closes the response itself
+        avroMapper.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Encodes outside of a response, e.g. to cache the result.
+     */
+    public byte[] encode(Object value, Type type) throws IOException {
+        AvroSchema schema = schemaFor(type, null)
+                .orElseThrow(() -> new IllegalArgumentException("No Avro schema for " + type));
+        return avroMapper.writer(schema).writeValueAsBytes(value);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return schemaFor(clazz, null).isPresent();
+    }
+
+    /**
+     * Spring asks this with the raw class of the body (e.g. ArrayList, which has no schema) to list
+     * the producible types; the generic canWrite below is what checks the declared type.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return getSupportedMediaTypes();
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return canRead(mediaType) && schemaFor(type, contextClass).isPresent();
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(mediaType) && schemaFor(type != null ? type : clazz, null).isPresent();
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        JavaType javaType = getJavaType(type, contextClass);
+        AvroSchema schema = schemaFor(type, contextClass)
+                .orElseThrow(() -> new HttpMessageNotReadableException("No Avro schema for " + type, inputMessage));
+        return avroMapper.readerFor(javaType).with(schema).readValue(inputMessage.getBody());
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        Type writtenType = type != null ? type : value.getClass();
+        AvroSchema schema = schemaFor(writtenType, null)
+                .orElseThrow(() -> new IllegalArgumentException("No Avro schema for " + writtenType));
+        avroMapper.writer(schema).writeValue(outputMessage.getBody(), value);
+    }
+
+    /**
+     * Types without a schema (e.g. maps of objects) are remembered too, so they're only tried once.
+     */
+    private Optional<AvroSchema> schemaFor(Type type, @Nullable Class<?> contextClass) {
+        return schemas.computeIfAbsent(getJavaType(type, contextClass), javaType -> {
+            try {
+                return Optional.of(avroMapper.schemaFor(javaType));
+            } catch (Exception e) {
+                log.debug("No Avro schema for {}", javaType, e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    private JavaType getJavaType(Type type, @Nullable Class<?> contextClass) {
+        return avroMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+    }
+}
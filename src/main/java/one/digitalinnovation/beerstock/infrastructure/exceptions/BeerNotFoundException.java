@@ -3,6 +3,8 @@ package one.digitalinnovation.beerstock.infrastructure.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.Collection;
+
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class BeerNotFoundException extends Exception {
 
@@ -13,5 +15,9 @@ public class BeerNotFoundException extends Exception {
     public BeerNotFoundException(Long id) {
         super(String.format("Beer with id %s not found in the system.", id));
     }
+
+    public BeerNotFoundException(Collection<Long> ids) {
+        super(String.format("Beers with ids %s not found in the system.", ids));
+    }
 }
 
@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Unchecked, as it's thrown by the conflict retry aspect around methods that don't declare it.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(int attempts, Throwable cause) {
+        super(String.format("Data was changed by concurrent requests in each of %d attempts, try again later",
+                attempts), cause);
+    }
+}
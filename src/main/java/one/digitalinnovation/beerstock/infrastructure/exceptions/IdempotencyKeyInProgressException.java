@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressException extends Exception {
+
+    public IdempotencyKeyInProgressException(String idempotencyKey) {
+        super(String.format("A request with idempotency key %s is still in progress, retry it later", idempotencyKey));
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBeerImportException extends Exception {
+
+    public InvalidBeerImportException(String reason) {
+        super(String.format("Beer import rejected: %s.", reason));
+    }
+}
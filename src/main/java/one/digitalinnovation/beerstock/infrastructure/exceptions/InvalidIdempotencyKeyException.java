@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.infrastructure.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends Exception {
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(String.format("Idempotency key must have between 1 and %d characters", maxLength));
+    }
+}
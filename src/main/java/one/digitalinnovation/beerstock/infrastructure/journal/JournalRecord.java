@@ -0,0 +1,60 @@
+package one.digitalinnovation.beerstock.infrastructure.journal;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * One stock movement in the journal. Records have a fixed size: sequence (8 bytes), beer id
+ * (8), delta (4) and a CRC32 of the previous fields (4), so a torn write is detected on replay.
+ * Sequences start at 1, a zeroed slot marks the end of a segment.
+ */
+@Value
+public class JournalRecord {
+
+    public static final int SIZE = 24;
+
+    private static final int CHECKSUM_OFFSET = 20;
+
+    long sequence;
+
+    long beerId;
+
+    int delta;
+
+    void writeTo(ByteBuffer buffer, int position) {
+        buffer.putLong(position, sequence);
+        buffer.putLong(position + 8, beerId);
+        buffer.putInt(position + 16, delta);
+        buffer.putInt(position + CHECKSUM_OFFSET, checksum(buffer, position));
+    }
+
+    /**
+     * @return the record at the position, or null when the slot is empty or the checksum
+     * doesn't match
+     */
+    static JournalRecord readFrom(ByteBuffer buffer, int position) {
+        long sequence = buffer.getLong(position);
+        if (sequence == 0 || buffer.getInt(position + CHECKSUM_OFFSET) != checksum(buffer, position)) {
+            return null;
+        }
+
+        return new JournalRecord(sequence, buffer.getLong(position + 8), buffer.getInt(position + 16));
+    }
+
+    static boolean isEmptySlot(ByteBuffer buffer, int position) {
+        for (int i = 0; i < SIZE; i += Long.BYTES) {
+            if (buffer.getLong(position + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(ByteBuffer buffer, int position) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(position + CHECKSUM_OFFSET).position(position));
+        return (int) crc.getValue();
+    }
+}
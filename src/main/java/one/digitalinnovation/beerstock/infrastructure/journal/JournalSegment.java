@@ -0,0 +1,128 @@
+package one.digitalinnovation.beerstock.infrastructure.journal;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A journal file of fixed size, mapped in memory and written sequentially. Its name holds the
+ * sequence of its first record, so segments sort in write order. Segments are only appended
+ * to while they are the current one: after a restart, a new segment is always started.
+ */
+@Slf4j
+public final class JournalSegment {
+
+    private static final String PREFIX = "stock-";
+
+    private static final String SUFFIX = ".journal";
+
+    @Getter
+    private final Path file;
+
+    @Getter
+    private final long firstSequence;
+
+    private final MappedByteBuffer buffer;
+
+    private int position;
+
+    private JournalSegment(Path file, long firstSequence, MappedByteBuffer buffer) {
+        this.file = file;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates and maps a zero-filled segment. Mapping a region beyond the end of the file
+     * grows the file, so the whole segment is allocated up front.
+     */
+    public static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid once the channel is closed
+            return new JournalSegment(file, firstSequence,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, size - size % JournalRecord.SIZE));
+        }
+    }
+
+    /**
+     * @return the offset of the record in the segment, or -1 when the segment is full
+     */
+    public int append(JournalRecord record) {
+        if (position + JournalRecord.SIZE > buffer.capacity()) {
+            return -1;
+        }
+
+        int offset = position;
+        record.writeTo(buffer, offset);
+        position += JournalRecord.SIZE;
+        return offset;
+    }
+
+    /**
+     * Forces a single record to disk.
+     */
+    public void force(int offset) {
+        buffer.force(offset, JournalRecord.SIZE);
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * @return the segment files of a directory, in write order
+     */
+    public static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(JournalSegment::firstSequence))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Reads the valid records of a segment file. Reading stops at the first empty slot, or at
+     * the first record that is corrupt or out of sequence: that is where the writer stopped.
+     */
+    public static List<JournalRecord> read(Path file) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long expectedSequence = firstSequence(file);
+            for (int position = 0; position + JournalRecord.SIZE <= size; position += JournalRecord.SIZE) {
+                JournalRecord record = JournalRecord.readFrom(buffer, position);
+                if (record == null || record.getSequence() != expectedSequence) {
+                    if (!JournalRecord.isEmptySlot(buffer, position)) {
+                        log.warn("Journal segment {} is torn at offset {}, the records after it are ignored",
+                                file, position);
+                    }
+                    break;
+                }
+                records.add(record);
+                expectedSequence++;
+            }
+        }
+        return records;
+    }
+}
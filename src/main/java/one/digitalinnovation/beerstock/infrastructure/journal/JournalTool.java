@@ -0,0 +1,88 @@
+package one.digitalinnovation.beerstock.infrastructure.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline reader for a stock journal directory, for when it can't be replayed by the
+ * application itself (e.g. the node is gone, or its database was restored from a backup).
+ * It checks every segment, prints a summary to stderr and writes to stdout the net movements
+ * after the given sequence as a body for PATCH /api/v1/beers/stock.
+ *
+ * The sequence is the one of the journal checkpoint, whose carried deltas (rows of
+ * stock_journal_carried_delta) are still pending too: like the startup replay, the tool adds
+ * them to the records after the sequence when given as beer-id=delta arguments.
+ *
+ * Usage, from the application jar:
+ * java -cp beerstock.jar -Dloader.main=one.digitalinnovation.beerstock.infrastructure.journal.JournalTool
+ *      org.springframework.boot.loader.PropertiesLauncher directory [after-sequence [beer-id=delta ...]]
+ */
+public final class JournalTool {
+
+    /**
+     * Bounds of a single StockAdjustmentDTO delta, larger net movements are split.
+     */
+    private static final int MAX_DELTA = 500;
+
+    private JournalTool() {
+
+    }
+
+    private static final String USAGE = "Usage: JournalTool directory [after-sequence [beer-id=delta ...]]%n" +
+            "Give the checkpoint sequence and its carried deltas, read with:%n" +
+            "  select j.sequence, d.beer_id, d.delta from stock_journal_checkpoint j%n" +
+            "  left join stock_journal_carried_delta d on d.journal_id = j.journal_id%n";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            usage();
+        }
+
+        Path directory = Paths.get(args[0]);
+        long afterSequence = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (int i = 2; i < args.length; i++) {
+            String[] carriedDelta = args[i].split("=", 2);
+            if (carriedDelta.length != 2) {
+                usage();
+            }
+            deltas.merge(Long.parseLong(carriedDelta[0].trim()), Long.parseLong(carriedDelta[1].trim()), Long::sum);
+        }
+        System.err.printf("%d carried deltas%n", deltas.size());
+        for (Path file : JournalSegment.list(directory)) {
+            List<JournalRecord> records = JournalSegment.read(file);
+            System.err.printf("%s: %d records%s%n", file.getFileName(), records.size(), records.isEmpty() ? "" :
+                    String.format(", sequences %d to %d",
+                            records.get(0).getSequence(), records.get(records.size() - 1).getSequence()));
+            records.stream()
+                    .filter(record -> record.getSequence() > afterSequence)
+                    .forEach(record -> deltas.merge(record.getBeerId(), (long) record.getDelta(), Long::sum));
+        }
+
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>();
+        deltas.forEach((beerId, delta) -> {
+            long remainingDelta = delta;
+            while (remainingDelta != 0) {
+                int chunk = (int) Math.max(-MAX_DELTA, Math.min(MAX_DELTA, remainingDelta));
+                adjustments.add(new StockAdjustmentDTO(beerId, chunk));
+                remainingDelta -= chunk;
+            }
+        });
+        System.out.println(new ObjectMapper().writeValueAsString(new StockAdjustmentBatchDTO(adjustments)));
+    }
+
+    private static void usage() {
+        System.err.printf(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,150 @@
+package one.digitalinnovation.beerstock.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.ConcurrentUpdateException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public service method and every repository call, tagged by class, method and
+ * outcome. Timers publish a percentile histogram (for p99 across instances) and local
+ * percentiles (for the actuator metrics endpoint).
+ *
+ * Methods returning a Mono or a Flux only build the pipeline when called, so they are timed
+ * from subscription to completion, error or cancellation instead.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE_METRIC = "beerstock.service";
+    public static final String REPOSITORY_METRIC = "beerstock.repository";
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not-found";
+    public static final String EXCEEDED = "exceeded";
+    public static final String CONFLICT = "conflict";
+    public static final String ERROR = "error";
+    public static final String CANCELLED = "cancelled";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Timers by timed method, then by outcome, so they are registered once.
+     */
+    private final Map<TimedMethod, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * one.digitalinnovation.beerstock.services.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_METRIC, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        // inherited methods (findById, save...) are declared by Spring Data interfaces, so the
+        // tag uses the repository interface implemented by the proxy instead
+        String repositoryName = Arrays.stream(AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis()))
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElseGet(() -> joinPoint.getSignature().getDeclaringType().getSimpleName());
+        return time(REPOSITORY_METRIC, repositoryName, joinPoint);
+    }
+
+    private Object time(String metric, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+        TimedMethod timedMethod = new TimedMethod(metric, className,
+                ((MethodSignature) joinPoint.getSignature()).getMethod());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(timedMethod, outcomeOf(e)));
+            throw e;
+        }
+
+        if (result instanceof Mono) {
+            return Mono.defer(() -> {
+                Timer.Sample subscriptionSample = Timer.start(meterRegistry);
+                return ((Mono<?>) result)
+                        .doOnSuccess(value -> subscriptionSample.stop(timer(timedMethod, SUCCESS)))
+                        .doOnError(e -> subscriptionSample.stop(timer(timedMethod, outcomeOf(e))))
+                        .doOnCancel(() -> subscriptionSample.stop(timer(timedMethod, CANCELLED)));
+            });
+        }
+        if (result instanceof Flux) {
+            return Flux.defer(() -> {
+                Timer.Sample subscriptionSample = Timer.start(meterRegistry);
+                return ((Flux<?>) result)
+                        .doOnComplete(() -> subscriptionSample.stop(timer(timedMethod, SUCCESS)))
+                        .doOnError(e -> subscriptionSample.stop(timer(timedMethod, outcomeOf(e))))
+                        .doOnCancel(() -> subscriptionSample.stop(timer(timedMethod, CANCELLED)));
+            });
+        }
+        sample.stop(timer(timedMethod, SUCCESS));
+        return result;
+    }
+
+    private Timer timer(TimedMethod timedMethod, String outcome) {
+        Map<String, Timer> timersByOutcome = timers.get(timedMethod);
+        if (timersByOutcome == null) {
+            timersByOutcome = timers.computeIfAbsent(timedMethod, key -> new ConcurrentHashMap<>());
+        }
+
+        Timer timer = timersByOutcome.get(outcome);
+        if (timer == null) {
+            timer = timersByOutcome.computeIfAbsent(outcome, key -> Timer.builder(timedMethod.getMetric())
+                    .tag("class", timedMethod.getClassName())
+                    .tag("method", timedMethod.getMethod().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof BeerNotFoundException || e instanceof ShopkeeperNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (e instanceof BeerStockExceededException) {
+            return EXCEEDED;
+        }
+        if (e instanceof ConcurrentUpdateException || e instanceof OptimisticLockingFailureException) {
+            return CONFLICT;
+        }
+        return ERROR;
+    }
+
+    @Value
+    private static class TimedMethod {
+
+        String metric;
+
+        String className;
+
+        Method method;
+    }
+}
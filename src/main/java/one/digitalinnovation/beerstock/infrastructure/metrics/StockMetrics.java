@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stock level metrics: units moved per beer type, and how many beers are empty or full.
+ * The gauges are read from the stock watchlist, which keeps the beers sorted by stock level,
+ * so a scrape walks the empty (or full) beers only and never queries the database.
+ */
+@Component
+public class StockMetrics {
+
+    public static final String UNITS_METRIC = "beerstock.stock.units";
+    public static final String BEERS_METRIC = "beerstock.stock.beers";
+
+    private static final String UNKNOWN_BEER_TYPE = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StockMetrics(MeterRegistry meterRegistry, StockWatchlist stockWatchlist) {
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(BEERS_METRIC, stockWatchlist, StockWatchlist::countEmpty)
+                .description("Beers with no stock left")
+                .tag("level", "empty")
+                .register(meterRegistry);
+        Gauge.builder(BEERS_METRIC, stockWatchlist, StockWatchlist::countFull)
+                .description("Beers stocked at their max quantity")
+                .tag("level", "full")
+                .register(meterRegistry);
+    }
+
+    public void recordIncrement(BeerType beerType, int units) {
+        countUnits("increment", beerType, units);
+    }
+
+    public void recordDecrement(BeerType beerType, int units) {
+        countUnits("decrement", beerType, units);
+    }
+
+    /**
+     * @param delta positive for an increment, negative for a decrement
+     */
+    public void recordAdjustment(BeerType beerType, int delta) {
+        if (delta >= 0) {
+            recordIncrement(beerType, delta);
+        } else {
+            recordDecrement(beerType, -delta);
+        }
+    }
+
+    private void countUnits(String operation, BeerType beerType, int units) {
+        meterRegistry.counter(UNITS_METRIC,
+                "operation", operation,
+                "beer.type", beerType == null ? UNKNOWN_BEER_TYPE : beerType.name())
+                .increment(units);
+    }
+}
@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.infrastructure.persistence;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator that reserves a block of ids per database call ("pooled-lo"): each
+ * sequence value is the first id of a block of allocation size ids, handed out from memory.
+ * Unlike identity columns, ids are known before the insert, so Hibernate can batch inserts.
+ *
+ * The allocation size comes from the beerstock.id-generator.allocation-size setting, and must
+ * match the increment of the sequences in the database, otherwise Hibernate refuses to start.
+ * Rows inserted outside Hibernate (e.g. by the reactive API) must take their id from the
+ * sequence too, and so use a whole block each.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "beerstock.id-generator.allocation-size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE_SETTING,
+                serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
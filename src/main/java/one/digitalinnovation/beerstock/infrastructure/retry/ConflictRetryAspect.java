@@ -0,0 +1,99 @@
+package one.digitalinnovation.beerstock.infrastructure.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.infrastructure.configs.ConflictRetryProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.ConcurrentUpdateException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries methods annotated with {@link RetryOnConflict} on optimistic locking conflicts, with a
+ * bounded number of attempts and jittered exponential backoff. Once the attempts run out, a
+ * {@link ConcurrentUpdateException} is thrown.
+ *
+ * Every conflict is counted, tagged by entity and outcome. The id isn't a tag, as each row
+ * would add a time series; it is logged at debug level to find which rows are contended.
+ * The aspect runs outside the transaction interceptor, so each attempt has its own transaction.
+ * When called inside a transaction started elsewhere, the method isn't retried: that
+ * transaction is already marked for rollback, and only its owner can start over.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ConflictRetryAspect {
+
+    public static final String CONFLICTS_METRIC = "beerstock.optimistic.conflicts";
+
+    public static final String RETRIED = "retried";
+    public static final String EXHAUSTED = "exhausted";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConflictRetryProperties properties;
+
+    @Around("@annotation(one.digitalinnovation.beerstock.infrastructure.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                boolean exhausted = attempt >= properties.getMaxAttempts();
+                countConflict(e, exhausted ? EXHAUSTED : RETRIED);
+                if (exhausted) {
+                    throw new ConcurrentUpdateException(attempt, e);
+                }
+
+                log.debug("Optimistic locking conflict in {}, attempt {}", joinPoint.getSignature(), attempt);
+                try {
+                    Thread.sleep(backoffMillis(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * "Full jitter": a random wait below an exponentially growing, capped, bound.
+     */
+    private long backoffMillis(int attempt) {
+        long bound = Math.min(properties.getMaxBackoff().toMillis(),
+                properties.getInitialBackoff().toMillis() << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(bound + 1);
+    }
+
+    private void countConflict(OptimisticLockingFailureException e, String outcome) {
+        String entity = UNKNOWN;
+        String id = UNKNOWN;
+        if (e instanceof ObjectOptimisticLockingFailureException) {
+            ObjectOptimisticLockingFailureException objectFailure = (ObjectOptimisticLockingFailureException) e;
+            String className = objectFailure.getPersistentClassName();
+            entity = className.substring(className.lastIndexOf('.') + 1);
+            id = String.valueOf(objectFailure.getIdentifier());
+        }
+
+        log.debug("Optimistic locking conflict on {} {}, {}", entity, id, outcome);
+        meterRegistry.counter(CONFLICTS_METRIC, "entity", entity, "outcome", outcome).increment();
+    }
+}
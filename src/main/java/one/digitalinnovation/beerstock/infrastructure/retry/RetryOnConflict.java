@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.infrastructure.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method again, in a new transaction, when it fails on an optimistic locking conflict.
+ * The method must be safe to run again from scratch: it should read what it modifies.
+ *
+ * @see ConflictRetryAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
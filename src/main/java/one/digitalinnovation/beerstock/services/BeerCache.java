@@ -0,0 +1,115 @@
+package one.digitalinnovation.beerstock.services;
+
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEERS_BY_ID_CACHE;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_IDS_BY_NAME_CACHE;
+import static one.digitalinnovation.beerstock.services.TransactionCallbacks.afterCommit;
+
+/**
+ * In-process cache for beer lookups. Beers are cached by id, and names are mapped to ids, so a
+ * stock change only has to evict one entry.
+ *
+ * Puts and evictions made inside a transaction are applied only after it commits, so a rolled
+ * back change never reaches the cache. Cached beers are copied on the way in and out, as
+ * BeerDTO is mutable.
+ *
+ * A beer read from the database may be put after a change to it committed and evicted it, and
+ * so be stale. Readers take a stamp before reading, and every eviction records, per beer, the
+ * stamp it happened at: a put whose beer was evicted after its stamp removes itself.
+ */
+@Component
+public class BeerCache {
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final Cache beersById;
+    private final Cache beerIdsByName;
+
+    private final AtomicLong stamps = new AtomicLong();
+
+    /**
+     * Stamp of the latest eviction of each beer, one entry per beer ever changed.
+     */
+    private final Map<Long, Long> evictionStamps = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BeerCache(CacheManager cacheManager) {
+        this.beersById = Objects.requireNonNull(cacheManager.getCache(BEERS_BY_ID_CACHE));
+        this.beerIdsByName = Objects.requireNonNull(cacheManager.getCache(BEER_IDS_BY_NAME_CACHE));
+    }
+
+    public Optional<BeerDTO> getById(Long id) {
+        return Optional.ofNullable(beersById.get(id, BeerDTO.class))
+                .map(beerMapper::copy);
+    }
+
+    public Optional<BeerDTO> getByName(String name) {
+        return Optional.ofNullable(beerIdsByName.get(name, Long.class))
+                .flatMap(this::getById);
+    }
+
+    /**
+     * Must be taken before reading a beer from the database, to be given to put.
+     */
+    public long readStamp() {
+        return stamps.get();
+    }
+
+    /**
+     * Used when the beer was just written, by the current transaction.
+     */
+    public void put(BeerDTO beerDTO) {
+        put(beerDTO, readStamp());
+    }
+
+    /**
+     * Used when the beer was read from the database. It's not cached if it changed since the
+     * stamp was taken, as it may have been read before that change.
+     */
+    public void put(BeerDTO beerDTO, long readStamp) {
+        Long id = beerDTO.getId();
+        BeerDTO entry = beerMapper.copy(beerDTO);
+        afterCommit(() -> {
+            beersById.put(id, entry);
+            beerIdsByName.put(entry.getName(), id);
+            // an eviction racing with the put is either seen here, or removes the entry itself
+            if (evictionStamps.getOrDefault(id, Long.MIN_VALUE) > readStamp) {
+                beersById.evict(id);
+            }
+        });
+    }
+
+    /**
+     * Used when a beer's state changed, but not its name.
+     */
+    public void evict(Long id) {
+        afterCommit(() -> evictById(id));
+    }
+
+    /**
+     * Used when a beer is removed, so its name stops resolving too.
+     */
+    public void evict(Long id, String name) {
+        afterCommit(() -> {
+            evictById(id);
+            beerIdsByName.evict(name);
+        });
+    }
+
+    private void evictById(Long id) {
+        evictionStamps.put(id, stamps.incrementAndGet());
+        beersById.evict(id);
+    }
+}
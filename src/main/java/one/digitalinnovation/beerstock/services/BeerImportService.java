@@ -0,0 +1,223 @@
+package one.digitalinnovation.beerstock.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.infrastructure.configs.BeerImportProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidBeerImportException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk registration of beers from CSV, with a header row naming the columns
+ * (name, brand, max, quantity, beerType, in any order; other columns are ignored).
+ *
+ * The file is parsed as a stream and imported chunk by chunk, each chunk in its own
+ * transaction, so memory use depends on the chunk size rather than on the file size.
+ * Rows that can't be imported (unparseable values, BeerDTO constraint violations, names
+ * already registered or repeated in the file) are rejected one by one, without stopping
+ * the import.
+ */
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerImportService {
+
+    static final List<String> COLUMNS = List.of("name", "brand", "max", "quantity", "beerType");
+
+    private static final ObjectReader csvReader = new CsvMapper()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .readerFor(new TypeReference<Map<String, String>>() { })
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final BeerService beerService;
+
+    private final Validator validator;
+
+    private final BeerImportProperties properties;
+
+    /**
+     * Imports every valid row. A malformed row (e.g. an unclosed quote) ends the import, as
+     * the rows after it can't be told apart: it's reported, and the rows before it are kept.
+     *
+     * @param csv   CSV file, read once and not closed
+     * @return number of imported and rejected rows, with the reason of each rejection
+     * @throws InvalidBeerImportException   when the header misses any of the columns
+     */
+    public BeerImportResultDTO importCsv(InputStream csv) throws InvalidBeerImportException {
+        BeerImportResultDTO result = new BeerImportResultDTO();
+        Map<String, ImportRow> chunk = new LinkedHashMap<>();
+        long row = 0;
+        boolean headerRead = false;
+
+        try (MappingIterator<Map<String, String>> rows = csvReader.readValues(csv)) {
+            boolean hasRows = rows.hasNextValue();
+            verifyColumns((CsvSchema) rows.getParser().getSchema());
+            headerRead = true;
+
+            while (hasRows) {
+                Map<String, String> values = rows.nextValue();
+                row++;
+                addRow(row, values, chunk, result);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    importChunk(chunk, result);
+                }
+                hasRows = rows.hasNextValue();
+            }
+        } catch (JsonProcessingException e) {
+            if (!headerRead) {
+                throw new InvalidBeerImportException("unreadable header, " + e.getOriginalMessage());
+            }
+            reject(result, row + 1, null, "Malformed CSV, import stopped: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            reject(result, row + 1, null, "Import interrupted: " + e.getMessage());
+        }
+
+        importChunk(chunk, result);
+        return result;
+    }
+
+    private void verifyColumns(CsvSchema header) throws InvalidBeerImportException {
+        List<String> missingColumns = COLUMNS.stream()
+                .filter(column -> header.column(column) == null)
+                .collect(Collectors.toList());
+        if (!missingColumns.isEmpty()) {
+            throw new InvalidBeerImportException("missing columns " + missingColumns);
+        }
+    }
+
+    private void addRow(long row, Map<String, String> values, Map<String, ImportRow> chunk,
+                        BeerImportResultDTO result) {
+        List<String> problems = new ArrayList<>();
+        BeerDTO beerDTO = BeerDTO.builder()
+                .name(emptyToNull(values.get("name")))
+                .brand(emptyToNull(values.get("brand")))
+                .max(parseInteger("max", values.get("max"), problems))
+                .quantity(parseInteger("quantity", values.get("quantity"), problems))
+                .beerType(parseBeerType(values.get("beerType"), problems))
+                .build();
+        // a value that couldn't be parsed is already reported, not as a missing one
+        List<String> unparsedColumns = problems.stream()
+                .map(problem -> problem.substring(0, problem.indexOf(' ')))
+                .collect(Collectors.toList());
+        validator.validate(beerDTO).stream()
+                .filter(violation -> !unparsedColumns.contains(violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .forEach(problems::add);
+
+        if (!problems.isEmpty()) {
+            reject(result, row, beerDTO.getName(), String.join("; ", problems));
+        } else if (chunk.containsKey(beerDTO.getName())) {
+            reject(result, row, beerDTO.getName(), new BeerAlreadyRegisteredException(beerDTO.getName()).getMessage());
+        } else {
+            chunk.put(beerDTO.getName(), new ImportRow(row, beerDTO));
+        }
+    }
+
+    /**
+     * Registers the chunk, rejecting the rows whose name was already registered, and empties it.
+     */
+    private void importChunk(Map<String, ImportRow> chunk, BeerImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<BeerDTO> beerDTOs = chunk.values().stream()
+                .map(ImportRow::getBeer)
+                .collect(Collectors.toList());
+        List<BeerDTO> createdBeers;
+        try {
+            createdBeers = beerService.createBeers(beerDTOs);
+        } catch (DataIntegrityViolationException e) {
+            // a name was registered by another request after the check, which is done again
+            createdBeers = beerService.createBeers(beerDTOs);
+        }
+
+        Set<String> createdNames = createdBeers.stream()
+                .map(BeerDTO::getName)
+                .collect(Collectors.toSet());
+        result.setImported(result.getImported() + createdNames.size());
+        chunk.values().stream()
+                .filter(importRow -> !createdNames.contains(importRow.getBeer().getName()))
+                .forEach(importRow -> reject(result, importRow.getRow(), importRow.getBeer().getName(),
+                        new BeerAlreadyRegisteredException(importRow.getBeer().getName()).getMessage()));
+        chunk.clear();
+    }
+
+    /**
+     * Counts every rejected row, but only lists up to maxReportedErrors of them, to keep the
+     * report size bounded too.
+     */
+    private void reject(BeerImportResultDTO result, long row, String name, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < properties.getMaxReportedErrors()) {
+            result.getErrors().add(new BeerImportErrorDTO(row, name, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static Integer parseInteger(String column, String value, List<String> problems) {
+        if (!StringUtils.hasLength(value)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            problems.add(column + " must be a whole number");
+            return null;
+        }
+    }
+
+    /**
+     * Unlike BeerDTO, the beer type is required here, as the beer table doesn't accept rows without it.
+     */
+    private static BeerType parseBeerType(String value, List<String> problems) {
+        if (!StringUtils.hasLength(value)) {
+            problems.add("beerType must not be null");
+            return null;
+        }
+        try {
+            return BeerType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            problems.add("beerType must be one of " + Arrays.toString(BeerType.values()));
+            return null;
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasLength(value) ? value : null;
+    }
+
+    @Value
+    private static class ImportRow {
+        long row;
+        BeerDTO beer;
+    }
+}
@@ -0,0 +1,181 @@
+package one.digitalinnovation.beerstock.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.infrastructure.configs.ResponseCacheProperties;
+import one.digitalinnovation.beerstock.infrastructure.converters.AvroHttpMessageConverter;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.AVRO_MEDIA_TYPE;
+
+/**
+ * Keeps beer responses already serialized, and gzip-compressed when large enough, so a read with
+ * no change in between is written straight from a byte array: no mapping, no serialization and
+ * no compression. Each format (JSON, CBOR, Avro) is cached on its own, when first asked for.
+ *
+ * Each response is stored with the change tag it was built under, and is rebuilt by the first
+ * read that finds the tag moved, so writes don't pay for it. The tag is read before the beers,
+ * so a response is never stored under a tag newer than its content.
+ */
+@Component
+public class BeerResponseCache {
+
+    /**
+     * Formats in order of preference, for clients that accept several of them.
+     */
+    public static final List<MediaType> FORMATS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf(AVRO_MEDIA_TYPE));
+
+    private static final Type BEER_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, BeerDTO.class).getType();
+
+    private final BeerService beerService;
+
+    private final ResponseCacheProperties properties;
+
+    private final Map<MediaType, Encoder> encoders;
+
+    private final Map<MediaType, SerializedResponse> beerLists = new ConcurrentHashMap<>();
+
+    private final Cache<NameKey, SerializedResponse> beersByName;
+
+    @Autowired
+    public BeerResponseCache(BeerService beerService,
+                             ObjectMapper objectMapper,
+                             ResponseCacheProperties properties) {
+        this.beerService = beerService;
+        this.properties = properties;
+        this.beersByName = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .build();
+
+        // same encoders as the message converters, so the cached bytes match an uncached response
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        AvroHttpMessageConverter avroConverter = new AvroHttpMessageConverter();
+        this.encoders = Map.of(
+                FORMATS.get(0), (body, type) -> objectMapper.writeValueAsBytes(body),
+                FORMATS.get(1), (body, type) -> cborMapper.writeValueAsBytes(body),
+                FORMATS.get(2), avroConverter::encode);
+    }
+
+    /**
+     * @param format one of FORMATS
+     */
+    public SerializedResponse listAll(MediaType format) {
+        SerializedResponse cached = beerLists.get(format);
+        if (isCurrent(cached)) {
+            return cached;
+        }
+        return rebuildList(format);
+    }
+
+    /**
+     * @param format one of FORMATS
+     */
+    public SerializedResponse findByName(String name, MediaType format) throws BeerNotFoundException {
+        NameKey key = new NameKey(name, format);
+        SerializedResponse cached = beersByName.getIfPresent(key);
+        if (isCurrent(cached)) {
+            return cached;
+        }
+
+        String tag = beerService.getChangeTag();
+        SerializedResponse rebuilt = serialize(tag, beerService.findByName(name), BeerDTO.class, format);
+        if (properties.isEnabled()) {
+            beersByName.put(key, rebuilt);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Synchronized, so a burst of reads right after a change serializes the list only once.
+     */
+    private synchronized SerializedResponse rebuildList(MediaType format) {
+        SerializedResponse cached = beerLists.get(format);
+        if (isCurrent(cached)) {
+            return cached;
+        }
+
+        String tag = beerService.getChangeTag();
+        SerializedResponse rebuilt = serialize(tag, beerService.listAll(), BEER_LIST_TYPE, format);
+        if (properties.isEnabled()) {
+            beerLists.put(format, rebuilt);
+        }
+        return rebuilt;
+    }
+
+    private boolean isCurrent(SerializedResponse cached) {
+        return cached != null && Objects.equals(cached.getTag(), beerService.getChangeTag());
+    }
+
+    private SerializedResponse serialize(String tag, Object body, Type type, MediaType format) {
+        Encoder encoder = encoders.get(format);
+        if (encoder == null) {
+            throw new IllegalArgumentException("Unsupported format " + format);
+        }
+
+        try {
+            byte[] encoded = encoder.encode(body, type);
+            byte[] gzip = properties.isGzip() && encoded.length >= properties.getGzipMinSize().toBytes()
+                    ? gzip(encoded)
+                    : null;
+            return new SerializedResponse(tag, encoded, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+
+        byte[] encode(Object body, Type type) throws IOException;
+    }
+
+    @Value
+    private static class NameKey {
+
+        String name;
+
+        MediaType format;
+    }
+
+    @Value
+    public static class SerializedResponse {
+
+        String tag;
+
+        byte[] body;
+
+        /**
+         * Null when the response is too small to be compressed.
+         */
+        byte[] gzip;
+    }
+}
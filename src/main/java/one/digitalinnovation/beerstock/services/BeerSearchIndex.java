@@ -0,0 +1,142 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static one.digitalinnovation.beerstock.services.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory prefix index over beer names and brands, used for type-ahead search.
+ *
+ * Names and brands are folded to lower case with accents removed, then kept in a sorted map.
+ * A prefix query is a range scan over that map, so it never touches the database. The index
+ * is loaded once at startup and then kept up to date by BeerService, with committed changes
+ * only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // a NUL separator keeps entries of the same term ordered by id, and sorts before any other char
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final BeerRepository beerRepository;
+
+    private final NavigableMap<String, BeerSearchResultDTO> entriesByTerm = new ConcurrentSkipListMap<>();
+    private final Map<Long, BeerSearchResultDTO> entriesById = new ConcurrentHashMap<>();
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Runs once every bean exists, before the web server starts, so no request finds the
+     * index empty.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc()) {
+            beers.forEach(beer -> {
+                put(beerMapper.toSearchResultDTO(beer));
+                beerRepository.detach(beer);
+            });
+        }
+        log.info("Beer search index loaded with {} beers", entriesById.size());
+    }
+
+    public void add(Beer beer) {
+        BeerSearchResultDTO entry = beerMapper.toSearchResultDTO(beer);
+        afterCommit(() -> put(entry));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> removeEntry(id));
+    }
+
+    public Optional<BeerSearchResultDTO> findById(Long id) {
+        return Optional.ofNullable(entriesById.get(id));
+    }
+
+    /**
+     * Finds beers whose name or brand starts with the given prefix, ignoring case and accents.
+     *
+     * @param prefix    typed text
+     * @param limit     maximum number of beers returned
+     * @return matching beers, ordered by the matched name or brand
+     */
+    public List<BeerSearchResultDTO> search(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // a beer may match by both name and brand, so results are collected by id
+        Map<Long, BeerSearchResultDTO> matches = new LinkedHashMap<>();
+        for (BeerSearchResultDTO entry : entriesByTerm
+                .subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false)
+                .values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.putIfAbsent(entry.getId(), entry);
+        }
+
+        return new ArrayList<>(matches.values());
+    }
+
+    private synchronized void put(BeerSearchResultDTO entry) {
+        removeEntry(entry.getId());
+
+        entriesById.put(entry.getId(), entry);
+        entriesByTerm.put(key(entry.getName(), entry.getId()), entry);
+        entriesByTerm.put(key(entry.getBrand(), entry.getId()), entry);
+    }
+
+    private synchronized void removeEntry(Long id) {
+        BeerSearchResultDTO entry = entriesById.remove(id);
+        if (entry != null) {
+            entriesByTerm.remove(key(entry.getName(), id));
+            entriesByTerm.remove(key(entry.getBrand(), id));
+        }
+    }
+
+    private static String key(String term, Long id) {
+        return normalize(term) + ID_SEPARATOR + id;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,83 +2,450 @@ package one.digitalinnovation.beerstock.services;
 
 import lombok.AllArgsConstructor;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
 import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
 import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
 import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidIdempotencyKeyException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.infrastructure.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_PAGE_SIZE;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_SEARCH_RESULTS;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_WATCHLIST_RESULTS;
+import static one.digitalinnovation.beerstock.services.TransactionCallbacks.afterCommit;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
     private final BeerRepository beerRepository;
+    private final StockEngine stockEngine;
+    private final BeerCache beerCache;
+    private final BeerSearchIndex beerSearchIndex;
+    private final StockMetrics stockMetrics;
+    private final StockWatchlist stockWatchlist;
+    private final InventoryStats inventoryStats;
+    private final StockLedger stockLedger;
+    private final IdempotencyStore idempotencyStore;
+    private final ChangeVersions changeVersions;
     private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
+    @Transactional
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
         Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        stockLedger.record(savedBeer.getId(), savedBeer.getQuantity());
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        beerCache.put(savedBeerDTO);
+        beerSearchIndex.add(savedBeer);
+        stockWatchlist.add(savedBeerDTO);
+        inventoryStats.add(savedBeerDTO);
+        changeVersions.beersChanged();
+        return savedBeerDTO;
+    }
+
+    /**
+     * Set-based version of createBeer, for bulk imports: registered names are found with one
+     * query and the new beers are inserted in JDBC batches (hibernate.jdbc.batch_size), as
+     * their ids come from a pooled sequence. Beers whose name is already registered are
+     * skipped, not failed.
+     *
+     * @param beerDTOs  valid beers, with distinct names
+     * @return created beers, in no particular order
+     */
+    @Transactional
+    public List<BeerDTO> createBeers(List<BeerDTO> beerDTOs) {
+        if (beerDTOs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> registeredNames = beerRepository.findNamesByNameIn(beerDTOs.stream()
+                .map(BeerDTO::getName)
+                .collect(Collectors.toList()));
+        List<Beer> newBeers = beerDTOs.stream()
+                .filter(beerDTO -> !registeredNames.contains(beerDTO.getName()))
+                .map(beerMapper::toModel)
+                .collect(Collectors.toList());
+        if (newBeers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Beer> savedBeers = beerRepository.saveAll(newBeers);
+        // sends the batches now, before the beers are detached
+        beerRepository.flush();
+        stockLedger.record(savedBeers.stream()
+                .map(beer -> new StockAdjustmentDTO(beer.getId(), beer.getQuantity()))
+                .collect(Collectors.toList()));
+
+        List<BeerDTO> savedBeerDTOs = new ArrayList<>(savedBeers.size());
+        for (Beer savedBeer : savedBeers) {
+            BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+            beerSearchIndex.add(savedBeer);
+            stockWatchlist.add(savedBeerDTO);
+            inventoryStats.add(savedBeerDTO);
+            savedBeerDTOs.add(savedBeerDTO);
+            // with open-in-view, the persistence context lives as long as the whole import request
+            beerRepository.detach(savedBeer);
+        }
+        changeVersions.beersChanged();
+        return savedBeerDTOs;
+    }
+
+    /**
+     * Tag of the current state of every beer, moved by any change. Cheap enough to check
+     * before each read.
+     */
+    public String getChangeTag() {
+        return changeVersions.beersTag();
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
+        Optional<BeerDTO> cachedBeer = beerCache.getByName(name);
+        if (cachedBeer.isPresent()) {
+            return withLiveQuantity(cachedBeer.get());
+        }
+
+        long readStamp = beerCache.readStamp();
         Beer foundBeer = beerRepository.findByName(name)
                 .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        BeerDTO foundBeerDTO = beerMapper.toDTO(foundBeer);
+        beerCache.put(foundBeerDTO, readStamp);
+        return withLiveQuantity(foundBeerDTO);
+    }
+
+    /**
+     * Type-ahead search over beer names and brands, served by the in-memory index.
+     *
+     * @param prefix    typed text, case and accents are ignored
+     * @param limit     maximum number of beers, clamped to [1, MAX_SEARCH_RESULTS]
+     */
+    public List<BeerSearchResultDTO> search(String prefix, int limit) {
+        return beerSearchIndex.search(prefix, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    }
+
+    /**
+     * @param limit     maximum number of beers, clamped to [1, MAX_WATCHLIST_RESULTS]
+     * @return beers within the low stock threshold, emptiest first
+     */
+    public List<BeerDTO> listLowStock(int limit) {
+        return stockWatchlist.lowStock(Math.min(Math.max(limit, 1), MAX_WATCHLIST_RESULTS));
+    }
+
+    /**
+     * @param limit     maximum number of beers, clamped to [1, MAX_WATCHLIST_RESULTS]
+     * @return beers within the near capacity threshold, fullest first
+     */
+    public List<BeerDTO> listNearCapacity(int limit) {
+        return stockWatchlist.nearCapacity(Math.min(Math.max(limit, 1), MAX_WATCHLIST_RESULTS));
+    }
+
+    /**
+     * Inventory totals per beer type and brand, read from memory.
+     */
+    public InventoryStatsDTO getInventoryStats() {
+        return inventoryStats.getStats();
+    }
+
+    /**
+     * Quantity of a beer at a given time, rebuilt from the stock ledger.
+     */
+    public StockLevelDTO getQuantityAt(Long id, Instant at) throws BeerNotFoundException {
+        return stockLedger.quantityAt(id, at);
     }
 
     public List<BeerDTO> listAll() {
         return beerRepository.findAll().stream()
-                .map(beerMapper::toDTO)
+                .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Hands every beer to the consumer, one at a time, reading them through a database cursor.
+     * Each beer is detached right after being consumed, so memory use doesn't grow with the
+     * catalog size.
+     *
+     * @param consumer receives each beer, in id order
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<BeerDTO> consumer) {
+        try (Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc()) {
+            beers.forEach(beer -> {
+                consumer.accept(toDTO(beer));
+                beerRepository.detach(beer);
+            });
+        }
+    }
+
+    /**
+     * Lists beers with keyset pagination.
+     *
+     * @param after     only beers with a greater id are listed (the previous page cursor)
+     * @param limit     page size, clamped to [1, MAX_PAGE_SIZE]
+     */
+    public CursorPageDTO<BeerDTO> listPage(Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // one extra row tells if there is a next page without a count query
+        List<Beer> beers = beerRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, pageSize + 1));
+        boolean hasNextPage = beers.size() > pageSize;
+
+        return CursorPageDTO.<BeerDTO>builder()
+                .content(beers.stream()
+                        .limit(pageSize)
+                        .map(this::toDTO)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNextPage ? beers.get(pageSize - 1).getId() : null)
+                .build();
+    }
+
+    @RetryOnConflict
+    @Transactional
     public void deleteById(Long id) throws BeerNotFoundException {
-        findById(id);
+        Beer beerToDelete = findById(id);
+        // read before the stock engine forgets the live quantity
+        BeerDTO deletedBeerDTO = toDTO(beerToDelete);
         beerRepository.deleteById(id);
+        stockEngine.evict(id);
+        beerCache.evict(id, beerToDelete.getName());
+        beerSearchIndex.remove(id);
+        stockWatchlist.remove(id);
+        inventoryStats.remove(deletedBeerDTO);
+        changeVersions.beersChanged();
+    }
+
+    /**
+     * Increment that is applied once per idempotency key: a retry with the same key gets the
+     * first response back, without moving the stock again.
+     *
+     * The transaction is opened by the idempotency store, once the key is reserved.
+     *
+     * @param idempotencyKey    client key, or null to always increment
+     */
+    public BeerDTO increment(Long id, int quantityToIncrement, String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException,
+            IdempotencyKeyInProgressException, InvalidIdempotencyKeyException {
+        return idempotencyStore.execute(idempotencyKey, "increment", id, quantityToIncrement,
+                () -> increment(id, quantityToIncrement));
     }
 
+    /**
+     * Decrement that is applied once per idempotency key, see increment.
+     */
+    public BeerDTO decrement(Long id, int quantityToDecrement, String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException,
+            IdempotencyKeyInProgressException, InvalidIdempotencyKeyException {
+        return idempotencyStore.execute(idempotencyKey, "decrement", id, quantityToDecrement,
+                () -> decrement(id, quantityToDecrement));
+    }
+
+    @Transactional
     public BeerDTO increment(Long id, int quantityToIncrement)
             throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrement = findById(id);
-
-        if (beerToIncrement.getQuantity() + quantityToIncrement <= beerToIncrement.getMax()) {
-            beerToIncrement.setQuantity(beerToIncrement.getQuantity() + quantityToIncrement);
-            return beerMapper.toDTO(beerRepository.save(beerToIncrement));
+        beerCache.evict(id);
+        BeerDTO incrementedBeerDTO;
+        if (stockEngine.isEnabled()) {
+            incrementedBeerDTO = stockEngine.increment(id, quantityToIncrement);
+        } else {
+            Optional<Beer> updatedBeer = stockLedger.addToQuantity(id, quantityToIncrement);
+            incrementedBeerDTO = beerMapper.toDTO(verifyIfStockWasUpdated(updatedBeer, id, quantityToIncrement));
         }
 
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        BeerType incrementedBeerType = incrementedBeerDTO.getBeerType();
+        afterCommit(() -> stockMetrics.recordIncrement(incrementedBeerType, quantityToIncrement));
+        stockWatchlist.adjust(id, quantityToIncrement);
+        inventoryStats.adjust(incrementedBeerDTO.getBeerType(), incrementedBeerDTO.getBrand(), quantityToIncrement);
+        changeVersions.beersChanged();
+        return incrementedBeerDTO;
     }
 
+    @Transactional
     public BeerDTO decrement(Long id, int quantityToDecrement)
             throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToDecrement = findById(id);
+        beerCache.evict(id);
+        BeerDTO decrementedBeerDTO;
+        if (stockEngine.isEnabled()) {
+            decrementedBeerDTO = stockEngine.decrement(id, quantityToDecrement);
+        } else {
+            Optional<Beer> updatedBeer = stockLedger.addToQuantity(id, -quantityToDecrement);
+            decrementedBeerDTO = beerMapper.toDTO(verifyIfStockWasUpdated(updatedBeer, id, quantityToDecrement));
+        }
+
+        BeerType decrementedBeerType = decrementedBeerDTO.getBeerType();
+        afterCommit(() -> stockMetrics.recordDecrement(decrementedBeerType, quantityToDecrement));
+        stockWatchlist.adjust(id, -quantityToDecrement);
+        inventoryStats.adjust(decrementedBeerDTO.getBeerType(), decrementedBeerDTO.getBrand(), -quantityToDecrement);
+        changeVersions.beersChanged();
+        return decrementedBeerDTO;
+    }
 
-        if (beerToDecrement.getQuantity() - quantityToDecrement >= 0) {
-            beerToDecrement.setQuantity(beerToDecrement.getQuantity() - quantityToDecrement);
-            return beerMapper.toDTO(beerRepository.save(beerToDecrement));
+    /**
+     * Applies several stock movements in one transaction and one JDBC batch. Adjustments are
+     * sorted by beer id before being sent, so concurrent batches always lock rows in the same
+     * order and can't deadlock each other. A failed adjustment doesn't stop the others.
+     * When the stock engine is enabled, adjustments are applied in memory instead.
+     *
+     * @param adjustments   (beer id, delta) pairs to apply
+     * @return one result per adjustment, in the order they were applied
+     * @throws NoBeerProvidedException when no adjustment is informed
+     */
+    @Transactional
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments)
+            throws NoBeerProvidedException {
+        if (adjustments == null || adjustments.isEmpty()) {
+            throw new NoBeerProvidedException();
         }
 
-        throw new BeerStockExceededException(id, quantityToDecrement);
+        List<StockAdjustmentDTO> sortedAdjustments = adjustments.stream()
+                .sorted(Comparator.comparing(StockAdjustmentDTO::getBeerId))
+                .collect(Collectors.toList());
+        sortedAdjustments.forEach(adjustment -> beerCache.evict(adjustment.getBeerId()));
+        List<StockAdjustmentResultDTO> results = stockEngine.isEnabled()
+                ? adjustStockInMemory(sortedAdjustments)
+                : adjustStockInDatabase(sortedAdjustments);
+
+        // beer types and brands come from the search index, to avoid loading the beers again
+        results.stream()
+                .filter(StockAdjustmentResultDTO::isSuccess)
+                .forEach(result -> {
+                    Optional<BeerSearchResultDTO> adjustedBeer = beerSearchIndex.findById(result.getBeerId());
+                    BeerType adjustedBeerType = adjustedBeer.map(BeerSearchResultDTO::getBeerType).orElse(null);
+                    afterCommit(() -> stockMetrics.recordAdjustment(adjustedBeerType, result.getDelta()));
+                    stockWatchlist.adjust(result.getBeerId(), result.getDelta());
+                    adjustedBeer.ifPresent(beer ->
+                            inventoryStats.adjust(beer.getBeerType(), beer.getBrand(), result.getDelta()));
+                });
+        changeVersions.beersChanged();
+
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustStockInDatabase(List<StockAdjustmentDTO> sortedAdjustments) {
+        int[] updatedRows = stockLedger.addToQuantities(sortedAdjustments);
+
+        Set<Long> failedIds = new HashSet<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                failedIds.add(sortedAdjustments.get(i).getBeerId());
+            }
+        }
+        Set<Long> existingFailedIds = failedIds.isEmpty() ? Collections.emptySet() :
+                beerRepository.findAllById(failedIds).stream()
+                        .map(Beer::getId)
+                        .collect(Collectors.toSet());
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(sortedAdjustments.size());
+        for (int i = 0; i < updatedRows.length; i++) {
+            StockAdjustmentDTO adjustment = sortedAdjustments.get(i);
+            StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                    .beerId(adjustment.getBeerId())
+                    .delta(adjustment.getDelta())
+                    .success(updatedRows[i] != 0)
+                    .build();
+
+            if (!result.isSuccess()) {
+                Exception failure = existingFailedIds.contains(adjustment.getBeerId())
+                        ? new BeerStockExceededException(adjustment.getBeerId(), adjustment.getDelta())
+                        : new BeerNotFoundException(adjustment.getBeerId());
+                result.setMessage(failure.getMessage());
+            }
+            results.add(result);
+        }
+
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustStockInMemory(List<StockAdjustmentDTO> sortedAdjustments) {
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(sortedAdjustments.size());
+        for (StockAdjustmentDTO adjustment : sortedAdjustments) {
+            StockAdjustmentResultDTO result = StockAdjustmentResultDTO.builder()
+                    .beerId(adjustment.getBeerId())
+                    .delta(adjustment.getDelta())
+                    .success(true)
+                    .build();
+            try {
+                if (adjustment.getDelta() >= 0) {
+                    stockEngine.increment(adjustment.getBeerId(), adjustment.getDelta());
+                } else {
+                    stockEngine.decrement(adjustment.getBeerId(), -adjustment.getDelta());
+                }
+            } catch (BeerNotFoundException | BeerStockExceededException e) {
+                result.setSuccess(false);
+                result.setMessage(e.getMessage());
+            }
+            results.add(result);
+        }
+
+        return results;
     }
 
     /**
-     * This method is private because there is no use outside here
+     * The guarded update touches no rows either when the beer doesn't exist or when the
+     * new quantity would be out of bounds. Only in that (rare) case we go back to the
+     * database to find out which one happened.
+     *
+     * @param updatedBeer   beer read back by the guarded update, empty when nothing was updated
+     * @param id            beer id
+     * @param quantity      quantity informed to increment/decrement
+     * @return the updated beer
+     * @throws BeerNotFoundException        when there is no beer with given id
+     * @throws BeerStockExceededException   when the beer exists, but the stock bounds were exceeded
+     */
+    private Beer verifyIfStockWasUpdated(Optional<Beer> updatedBeer, Long id, int quantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+        if (updatedBeer.isPresent()) {
+            return updatedBeer.get();
+        }
+
+        if (!beerRepository.existsById(id)) {
+            throw new BeerNotFoundException(id);
+        }
+
+        throw new BeerStockExceededException(id, quantity);
+    }
+
+    /**
+     * This method is private because there is no use outside here.
+     * A cached name is enough to reject it, but a miss always goes to the database: only
+     * found beers are cached, so the cache can't tell that a name is free.
+     *
      * @param name beer name
      * @throws BeerAlreadyRegisteredException when beer has been registered already
      */
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-        Optional<Beer> optionalSavedBeer = beerRepository.findByName(name);
-
-        if (optionalSavedBeer.isPresent()) {
+        if (beerCache.getByName(name).isPresent() || beerRepository.findByName(name).isPresent()) {
             throw new BeerAlreadyRegisteredException(name);
         }
     }
@@ -86,11 +453,60 @@ public class BeerService {
     /**
      * This method was turned to public because there use outside this class.
      * Also, it's name was changed from "verifyIfExists" to findById.
+     * On a cache hit, the returned beer is a detached copy.
      *
      * @param id                        id to search
      * @throws BeerNotFoundException    in case of no beer is found, given id
      */
     public Beer findById(Long id) throws BeerNotFoundException{
+        Optional<BeerDTO> cachedBeer = beerCache.getById(id);
+        if (cachedBeer.isPresent()) {
+            return beerMapper.toModel(cachedBeer.get());
+        }
+
+        long readStamp = beerCache.readStamp();
+        Beer foundBeer = findInDatabase(id);
+        beerCache.put(beerMapper.toDTO(foundBeer), readStamp);
+        return foundBeer;
+    }
+
+    /**
+     * Skips the cache, for reads that must see this transaction's own writes (cache evictions
+     * only apply after commit).
+     */
+    private Beer findInDatabase(Long id) throws BeerNotFoundException {
         return beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
     }
+
+    /**
+     * Set-based version of findById: loads every beer in a single query and reports all
+     * missing ids at once.
+     *
+     * @param ids                       ids to search, duplicates are ignored
+     * @return found beers, in the order of the given ids
+     * @throws BeerNotFoundException    listing every id with no beer
+     */
+    public List<Beer> findAllById(Collection<Long> ids) throws BeerNotFoundException {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, Beer> foundBeers = beerRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        if (foundBeers.size() < uniqueIds.size()) {
+            uniqueIds.removeAll(foundBeers.keySet());
+            throw new BeerNotFoundException(uniqueIds);
+        }
+
+        return uniqueIds.stream()
+                .map(foundBeers::get)
+                .collect(Collectors.toList());
+    }
+
+    private BeerDTO toDTO(Beer beer) {
+        return withLiveQuantity(beerMapper.toDTO(beer));
+    }
+
+    private BeerDTO withLiveQuantity(BeerDTO beerDTO) {
+        stockEngine.refreshQuantity(beerDTO);
+        return beerDTO;
+    }
 }
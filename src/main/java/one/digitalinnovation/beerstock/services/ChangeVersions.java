@@ -0,0 +1,47 @@
+package one.digitalinnovation.beerstock.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for the beer and shopkeeper collections, used as ETags for conditional GETs.
+ * Every service write bumps its counter once the transaction commits, so checking a request's
+ * If-None-Match needs neither a query nor serialization.
+ *
+ * A counter is read before the data it tags, and bumped only after the change is visible, so a
+ * tag can be older than its body (costing one extra full response) but never newer. The tag
+ * starts with the startup time, so a restart doesn't give old tags back. As with the beer
+ * cache, counters are per instance: writes through another instance don't bump them.
+ */
+@Component
+public class ChangeVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong beers = new AtomicLong();
+
+    private final AtomicLong shopkeepers = new AtomicLong();
+
+    /**
+     * Tags beer lists and single beers alike: any beer change moves it.
+     */
+    public String beersTag() {
+        return epoch + "." + beers.get();
+    }
+
+    /**
+     * Shopkeepers embed their beers, so beer changes move this tag too.
+     */
+    public String shopkeepersTag() {
+        return epoch + "." + beers.get() + "." + shopkeepers.get();
+    }
+
+    public void beersChanged() {
+        TransactionCallbacks.afterCommit(beers::incrementAndGet);
+    }
+
+    public void shopkeepersChanged() {
+        TransactionCallbacks.afterCommit(shopkeepers::incrementAndGet);
+    }
+}
@@ -0,0 +1,284 @@
+package one.digitalinnovation.beerstock.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.IdempotencyRecord;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.IdempotencyRecordRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.IdempotencyProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidIdempotencyKeyException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_IDEMPOTENCY_KEY_LENGTH;
+
+/**
+ * Remembers the response of stock movements made with an idempotency key, so a client retry
+ * gets the original response instead of moving the stock again. Keys live in a bounded
+ * in-memory cache, expired after a TTL, and optionally in the database.
+ *
+ * The first request with a key reserves it; a retry arriving while it runs waits for its
+ * outcome, up to a timeout. Responses are only handed to retries once the movement commits:
+ * if it fails or rolls back, the key is released and the next retry applies the movement itself.
+ * The transaction of the movement is only opened once the key is reserved, so waiting retries
+ * don't hold a database connection.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final IdempotencyProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<String, KeyedRequest> requests;
+
+    private ScheduledExecutorService purger;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            ObjectMapper objectMapper,
+                            IdempotencyProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isPersistent()) {
+            return;
+        }
+
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-key-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getPurgeInterval().toMillis();
+        purger.scheduleWithFixedDelay(this::purge, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies the movement once per key, in a transaction that also persists the key, so it
+     * commits with the movement. The transaction of the caller is joined if there is one.
+     *
+     * @param idempotencyKey    client key, or null to always apply the movement
+     * @param operation         name of the movement, with beerId and quantity it tells a
+     *                          retry from a key reused for something else
+     * @return the response of the first request with the key
+     * @throws IdempotencyKeyReusedException        when the key was used for another movement
+     * @throws IdempotencyKeyInProgressException    when the request with the key is still running
+     * @throws InvalidIdempotencyKeyException       when the key is empty or too long
+     */
+    public BeerDTO execute(String idempotencyKey, String operation, Long beerId, int quantity,
+                           StockMovement movement)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException,
+            IdempotencyKeyInProgressException, InvalidIdempotencyKeyException {
+        if (idempotencyKey == null) {
+            return inTransaction(movement::apply);
+        }
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_IDEMPOTENCY_KEY_LENGTH);
+        }
+
+        String request = String.format("%s %d %d", operation, beerId, quantity);
+        while (true) {
+            KeyedRequest keyedRequest = new KeyedRequest(request);
+            KeyedRequest previousRequest = requests.asMap().putIfAbsent(idempotencyKey, keyedRequest);
+            if (previousRequest != null) {
+                verifyIfIsSameRequest(idempotencyKey, previousRequest.request, request);
+                try {
+                    return beerMapper.copy(previousRequest.response
+                            .get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS));
+                } catch (ExecutionException | CancellationException e) {
+                    // the previous request failed and released the key, try to take it
+                    continue;
+                } catch (TimeoutException e) {
+                    throw new IdempotencyKeyInProgressException(idempotencyKey);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IdempotencyKeyInProgressException(idempotencyKey);
+                }
+            }
+
+            try {
+                return inTransaction(() -> {
+                    BeerDTO response = findPersistedResponse(idempotencyKey, request).orElse(null);
+                    if (response == null) {
+                        response = movement.apply();
+                        persist(idempotencyKey, request, response);
+                    }
+
+                    BeerDTO committedResponse = beerMapper.copy(response);
+                    TransactionCallbacks.afterCompletion(
+                            () -> keyedRequest.response.complete(committedResponse),
+                            () -> release(idempotencyKey, keyedRequest));
+                    return response;
+                });
+            } catch (Exception e) {
+                release(idempotencyKey, keyedRequest);
+                throw e;
+            }
+        }
+    }
+
+    public void purge() {
+        try {
+            int purgedKeys = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(properties.getTtl()));
+            log.debug("{} expired idempotency keys purged", purgedKeys);
+        } catch (RuntimeException e) {
+            log.error("Could not purge expired idempotency keys, they will be purged next time", e);
+        }
+    }
+
+    /**
+     * Runs the movement in a transaction. Its checked exceptions roll the transaction back and
+     * are thrown as they are.
+     */
+    private BeerDTO inTransaction(KeyedMovement movement)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return movement.apply();
+                } catch (BeerNotFoundException | BeerStockExceededException | IdempotencyKeyReusedException e) {
+                    throw new RejectedMovementException(e);
+                }
+            });
+        } catch (RejectedMovementException e) {
+            if (e.getCause() instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) e.getCause();
+            }
+            if (e.getCause() instanceof BeerStockExceededException) {
+                throw (BeerStockExceededException) e.getCause();
+            }
+            throw (IdempotencyKeyReusedException) e.getCause();
+        }
+    }
+
+    private Optional<BeerDTO> findPersistedResponse(String idempotencyKey, String request)
+            throws IdempotencyKeyReusedException {
+        if (!properties.isPersistent()) {
+            return Optional.empty();
+        }
+
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(found -> found.getCreatedAt().isAfter(Instant.now().minus(properties.getTtl())));
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+
+        verifyIfIsSameRequest(idempotencyKey, record.get().getRequest(), request);
+        try {
+            return Optional.of(objectMapper.readValue(record.get().getResponse(), BeerDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void persist(String idempotencyKey, String request, BeerDTO response) {
+        if (!properties.isPersistent()) {
+            return;
+        }
+
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(
+                    idempotencyKey, request, objectMapper.writeValueAsString(response), Instant.now()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(String idempotencyKey, KeyedRequest keyedRequest) {
+        requests.asMap().remove(idempotencyKey, keyedRequest);
+        keyedRequest.response.cancel(false);
+    }
+
+    private void verifyIfIsSameRequest(String idempotencyKey, String previousRequest, String request)
+            throws IdempotencyKeyReusedException {
+        if (!previousRequest.equals(request)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+    }
+
+    @FunctionalInterface
+    public interface StockMovement {
+        BeerDTO apply() throws BeerNotFoundException, BeerStockExceededException;
+    }
+
+    /**
+     * A movement that may also find or persist its key.
+     */
+    @FunctionalInterface
+    private interface KeyedMovement {
+        BeerDTO apply() throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException;
+    }
+
+    /**
+     * Carries a checked exception out of the transaction callback.
+     */
+    private static final class RejectedMovementException extends RuntimeException {
+
+        private RejectedMovementException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static final class KeyedRequest {
+
+        private final String request;
+
+        /**
+         * Completed once the first request commits.
+         */
+        private final CompletableFuture<BeerDTO> response = new CompletableFuture<>();
+
+        private KeyedRequest(String request) {
+            this.request = request;
+        }
+    }
+}
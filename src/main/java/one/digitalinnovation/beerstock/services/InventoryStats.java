@@ -0,0 +1,235 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryTotalsDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.InventoryTotals;
+import one.digitalinnovation.beerstock.infrastructure.configs.InventoryStatsProperties;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static one.digitalinnovation.beerstock.services.TransactionCallbacks.afterCommit;
+
+/**
+ * Inventory totals (SKUs, units and capacity) per beer type and per brand, kept in memory.
+ *
+ * BeerService reports every beer creation, deletion and stock movement as a delta, applied
+ * once its transaction commits, so reading the totals never scans the beers. The totals are
+ * rebuilt from a GROUP BY query at startup and then periodically, which fixes any drift
+ * (e.g. changes made straight in the database).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class InventoryStats implements SmartInitializingSingleton {
+
+    private final BeerRepository beerRepository;
+
+    private final StockEngine stockEngine;
+
+    private final InventoryStatsProperties properties;
+
+    private final Map<BeerType, InventoryTotalsDTO> totalsByBeerType = new EnumMap<>(BeerType.class);
+
+    private final Map<String, InventoryTotalsDTO> totalsByBrand = new TreeMap<>();
+
+    // changes applied while a reconciliation runs, to be replayed on top of its result; null otherwise
+    private List<TotalsDelta> deltasDuringReconcile;
+
+    // rebuilt on the first read after a change
+    private volatile InventoryStatsDTO snapshot;
+
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * Runs once every bean exists, before the web server starts, so the first requests
+     * already see the totals.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        start();
+    }
+
+    public void start() {
+        reconcile();
+
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stats-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getReconcileInterval().toMillis();
+        reconciler.scheduleWithFixedDelay(this::reconcile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    public void add(BeerDTO beerDTO) {
+        BeerType beerType = beerDTO.getBeerType();
+        String brand = beerDTO.getBrand();
+        int quantity = beerDTO.getQuantity();
+        int max = beerDTO.getMax();
+        afterCommit(() -> apply(beerType, brand, 1, quantity, max));
+    }
+
+    /**
+     * @param beerDTO deleted beer, with its live quantity
+     */
+    public void remove(BeerDTO beerDTO) {
+        BeerType beerType = beerDTO.getBeerType();
+        String brand = beerDTO.getBrand();
+        int quantity = beerDTO.getQuantity();
+        int max = beerDTO.getMax();
+        afterCommit(() -> apply(beerType, brand, -1, -quantity, -max));
+    }
+
+    /**
+     * @param delta quantity added to (or, when negative, removed from) a beer stock
+     */
+    public void adjust(BeerType beerType, String brand, int delta) {
+        afterCommit(() -> apply(beerType, brand, 0, delta, 0));
+    }
+
+    public InventoryStatsDTO getStats() {
+        InventoryStatsDTO stats = snapshot;
+        if (stats != null) {
+            return stats;
+        }
+
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = InventoryStatsDTO.builder()
+                        .byBeerType(Collections.unmodifiableMap(copy(totalsByBeerType, new EnumMap<>(BeerType.class))))
+                        .byBrand(Collections.unmodifiableMap(copy(totalsByBrand, new TreeMap<>())))
+                        .build();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Replaces the totals by the ones computed by the database. Pending stock engine movements
+     * are flushed first, so the database is up to date. Changes applied while the query runs
+     * are recorded and applied again on top of its result, as they committed after the query
+     * read the beers (or, with the stock engine, aren't flushed yet). A change committed just
+     * before the query but applied after it started is counted twice, until the next
+     * reconciliation.
+     */
+    public void reconcile() {
+        synchronized (this) {
+            deltasDuringReconcile = new ArrayList<>();
+        }
+
+        List<InventoryTotals> rows;
+        try {
+            if (stockEngine.isEnabled()) {
+                stockEngine.flush();
+            }
+            rows = beerRepository.sumStockByBeerTypeAndBrand();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                deltasDuringReconcile = null;
+            }
+            log.error("Could not reconcile inventory stats, they will be reconciled next time", e);
+            return;
+        }
+
+        Map<BeerType, InventoryTotalsDTO> reconciledByBeerType = new EnumMap<>(BeerType.class);
+        Map<String, InventoryTotalsDTO> reconciledByBrand = new TreeMap<>();
+        for (InventoryTotals row : rows) {
+            add(reconciledByBeerType, row.getBeerType(), row.getSkus(), row.getUnits(), row.getCapacity());
+            add(reconciledByBrand, row.getBrand(), row.getSkus(), row.getUnits(), row.getCapacity());
+        }
+
+        synchronized (this) {
+            for (TotalsDelta delta : deltasDuringReconcile) {
+                add(reconciledByBeerType, delta.getBeerType(), delta.getSkus(), delta.getUnits(), delta.getCapacity());
+                add(reconciledByBrand, delta.getBrand(), delta.getSkus(), delta.getUnits(), delta.getCapacity());
+            }
+            deltasDuringReconcile = null;
+            if (!reconciledByBeerType.equals(totalsByBeerType) || !reconciledByBrand.equals(totalsByBrand)) {
+                log.info("Inventory stats drifted from the database and were reconciled");
+            }
+
+            totalsByBeerType.clear();
+            totalsByBeerType.putAll(reconciledByBeerType);
+            totalsByBrand.clear();
+            totalsByBrand.putAll(reconciledByBrand);
+            changed();
+        }
+    }
+
+    private synchronized void apply(BeerType beerType, String brand, long skus, long units, long capacity) {
+        add(totalsByBeerType, beerType, skus, units, capacity);
+        add(totalsByBrand, brand, skus, units, capacity);
+        if (deltasDuringReconcile != null) {
+            deltasDuringReconcile.add(new TotalsDelta(beerType, brand, skus, units, capacity));
+        }
+        changed();
+    }
+
+    private void changed() {
+        snapshot = null;
+    }
+
+    private static <K> void add(Map<K, InventoryTotalsDTO> totalsByKey, K key,
+                                long skus, long units, long capacity) {
+        if (key == null) {
+            return;
+        }
+
+        InventoryTotalsDTO totals = totalsByKey.computeIfAbsent(key, k -> new InventoryTotalsDTO());
+        totals.setSkus(totals.getSkus() + skus);
+        totals.setUnits(totals.getUnits() + units);
+        totals.setCapacity(totals.getCapacity() + capacity);
+        if (totals.getSkus() <= 0) {
+            totalsByKey.remove(key);
+        }
+    }
+
+    private static <K> Map<K, InventoryTotalsDTO> copy(Map<K, InventoryTotalsDTO> totalsByKey,
+                                                       Map<K, InventoryTotalsDTO> target) {
+        totalsByKey.forEach((key, totals) -> target.put(key, InventoryTotalsDTO.builder()
+                .skus(totals.getSkus())
+                .units(totals.getUnits())
+                .capacity(totals.getCapacity())
+                .build()));
+        return target;
+    }
+
+    @Value
+    private static class TotalsDelta {
+
+        BeerType beerType;
+
+        String brand;
+
+        long skus;
+
+        long units;
+
+        long capacity;
+    }
+}
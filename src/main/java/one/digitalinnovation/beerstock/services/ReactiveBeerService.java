@@ -0,0 +1,145 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.ReactiveBeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.REACTIVE_PROFILE;
+
+/**
+ * Non-blocking equivalent of BeerService, used by the reactive profile. Errors are signalled
+ * with the same exceptions, so the API answers with the same statuses, and stock changes are
+ * recorded in the stock ledger within the same R2DBC transaction.
+ *
+ * The in-memory structures (caches, search index, watchlist, inventory stats, change tags) and
+ * the stock metrics are shared with BeerService. R2DBC transactions aren't bound to the thread,
+ * so they are updated once the returned publisher emits, which is after the commit.
+ */
+@Service
+@Profile(REACTIVE_PROFILE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+
+    private final ReactiveBeerRepository reactiveBeerRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final BeerCache beerCache;
+    private final BeerSearchIndex beerSearchIndex;
+    private final StockMetrics stockMetrics;
+    private final StockWatchlist stockWatchlist;
+    private final InventoryStats inventoryStats;
+    private final ChangeVersions changeVersions;
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        // the mapper leaves the version null, which is what marks the beer as new, as its id is set before the insert
+        ReactiveBeer beer = beerMapper.toReactiveModel(beerDTO);
+
+        return reactiveBeerRepository.findByName(beerDTO.getName())
+                .flatMap(savedBeer -> Mono.<ReactiveBeer>error(new BeerAlreadyRegisteredException(beerDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> reactiveBeerRepository.nextId()
+                        .flatMap(id -> {
+                            beer.setId(id);
+                            return reactiveBeerRepository.save(beer);
+                        })
+                        .flatMap(savedBeer -> reactiveBeerRepository
+                                .record(savedBeer.getId(), savedBeer.getQuantity(), Instant.now())
+                                .thenReturn(savedBeer))))
+                .as(transactionalOperator::transactional)
+                // the name was registered by another request after the check (DuplicateKeyException included)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new BeerAlreadyRegisteredException(beerDTO.getName()))
+                .map(beerMapper::toDTO)
+                .doOnNext(this::beerCreated);
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return reactiveBeerRepository.findByName(name)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)))
+                .map(beerMapper::toDTO);
+    }
+
+    /**
+     * Beers are emitted as they are read, in id order.
+     */
+    public Flux<BeerDTO> listAll() {
+        return reactiveBeerRepository.findAllByOrderByIdAsc()
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return findById(id)
+                .flatMap(beer -> reactiveBeerRepository.deleteById(id).thenReturn(beer))
+                .map(beerMapper::toDTO)
+                .doOnNext(this::beerDeleted)
+                .then();
+    }
+
+    public Mono<BeerDTO> increment(Long id, int quantityToIncrement) {
+        return addToQuantity(id, quantityToIncrement, quantityToIncrement)
+                .doOnNext(beer -> stockMetrics.recordIncrement(beer.getBeerType(), quantityToIncrement));
+    }
+
+    public Mono<BeerDTO> decrement(Long id, int quantityToDecrement) {
+        return addToQuantity(id, -quantityToDecrement, quantityToDecrement)
+                .doOnNext(beer -> stockMetrics.recordDecrement(beer.getBeerType(), quantityToDecrement));
+    }
+
+    /**
+     * The guarded update does the bound check and the mutation in one statement, and the
+     * ledger insert goes with it. Only when it touches no rows we go back to the database to
+     * find out if the beer exists.
+     */
+    private Mono<BeerDTO> addToQuantity(Long id, int delta, int quantity) {
+        return reactiveBeerRepository.addToQuantityAndRecord(id, delta, Instant.now())
+                .as(transactionalOperator::transactional)
+                .switchIfEmpty(Mono.defer(() -> reactiveBeerRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new BeerStockExceededException(id, quantity)
+                                : new BeerNotFoundException(id)))))
+                .map(beerMapper::toDTO)
+                .doOnNext(beer -> quantityChanged(beer, delta));
+    }
+
+    private void beerCreated(BeerDTO createdBeerDTO) {
+        beerCache.put(createdBeerDTO);
+        beerSearchIndex.add(beerMapper.toModel(createdBeerDTO));
+        stockWatchlist.add(createdBeerDTO);
+        inventoryStats.add(createdBeerDTO);
+        changeVersions.beersChanged();
+    }
+
+    private void quantityChanged(BeerDTO updatedBeerDTO, int delta) {
+        beerCache.evict(updatedBeerDTO.getId());
+        stockWatchlist.adjust(updatedBeerDTO.getId(), delta);
+        inventoryStats.adjust(updatedBeerDTO.getBeerType(), updatedBeerDTO.getBrand(), delta);
+        changeVersions.beersChanged();
+    }
+
+    private void beerDeleted(BeerDTO deletedBeerDTO) {
+        beerCache.evict(deletedBeerDTO.getId(), deletedBeerDTO.getName());
+        beerSearchIndex.remove(deletedBeerDTO.getId());
+        stockWatchlist.remove(deletedBeerDTO.getId());
+        inventoryStats.remove(deletedBeerDTO);
+        changeVersions.beersChanged();
+    }
+
+    private Mono<ReactiveBeer> findById(Long id) {
+        return reactiveBeerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)));
+    }
+}
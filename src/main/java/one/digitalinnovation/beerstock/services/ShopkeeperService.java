@@ -1,8 +1,8 @@
 package one.digitalinnovation.beerstock.services;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
-import one.digitalinnovation.beerstock.domains.entities.Beer;
 import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
 import one.digitalinnovation.beerstock.domains.mappers.ShopkeeperMapper;
 import one.digitalinnovation.beerstock.domains.repositories.ShopkeeperRepository;
@@ -10,14 +10,20 @@ import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundExc
 import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.retry.RetryOnConflict;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_PAGE_SIZE;
+
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ShopkeeperService {
@@ -26,6 +32,8 @@ public class ShopkeeperService {
 
     private final BeerService beerService;
 
+    private final ChangeVersions changeVersions;
+
     private static final ShopkeeperMapper shopkeeperMapper = ShopkeeperMapper.INSTANCE;
 
 
@@ -36,10 +44,18 @@ public class ShopkeeperService {
 
         Shopkeeper shopkeeper = shopkeeperMapper.toModel(shopkeeperDTO);
         Shopkeeper savedShopkeeper = shopkeeperRepository.save(shopkeeper);
+        changeVersions.shopkeepersChanged();
 
         return shopkeeperMapper.toDTO(savedShopkeeper);
     }
 
+    /**
+     * Tag of the current state of every shopkeeper, beers included, moved by any change.
+     */
+    public String getChangeTag() {
+        return changeVersions.shopkeepersTag();
+    }
+
     public ShopkeeperDTO findByName(String name) throws ShopkeeperNotFoundException {
         Shopkeeper foundShopkeeper = shopkeeperRepository.findByName(name)
                 .orElseThrow(() -> new ShopkeeperNotFoundException(name));
@@ -52,30 +68,48 @@ public class ShopkeeperService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ShopkeeperDTO> listPage(Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<Shopkeeper> shopkeepers = shopkeeperRepository.findByIdGreaterThanOrderByIdAsc(
+                after, PageRequest.of(0, pageSize + 1));
+        boolean hasNextPage = shopkeepers.size() > pageSize;
+
+        return CursorPageDTO.<ShopkeeperDTO>builder()
+                .content(shopkeepers.stream()
+                        .limit(pageSize)
+                        .map(shopkeeperMapper::toDTO)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNextPage ? shopkeepers.get(pageSize - 1).getId() : null)
+                .build();
+    }
+
+    @RetryOnConflict
     public void deleteById(Long id) throws ShopkeeperNotFoundException {
         verifyIfExists(id);
         shopkeeperRepository.deleteById(id);
+        changeVersions.shopkeepersChanged();
     }
 
+    @RetryOnConflict
+    @Transactional
     public ShopkeeperDTO addBeersToShopkeeper(Long id, List<Long> beerIds)
             throws ShopkeeperNotFoundException, BeerNotFoundException, NoBeerProvidedException {
         Shopkeeper shopkeeper = verifyIfExists(id);
-        List<Beer> beers = new ArrayList<>();
 
         if (beerIds == null || beerIds.isEmpty()) {
             throw new NoBeerProvidedException();
         }
 
-        for (Long beerId: beerIds) {
-            Beer beer = beerService.findById(beerId);
-            beers.add(beer);
-        }
-        shopkeeper.setBeers(beers);
+        shopkeeper.setBeers(beerService.findAllById(beerIds));
         Shopkeeper savedShopkeeper = shopkeeperRepository.save(shopkeeper);
+        changeVersions.shopkeepersChanged();
 
         return shopkeeperMapper.toDTO(savedShopkeeper);
     }
 
+    @RetryOnConflict
+    @Transactional
     public ShopkeeperDTO removeBeersFromShopkeeper(Long id, List<Long> beerIds)
             throws ShopkeeperNotFoundException, BeerNotFoundException, NoBeerProvidedException {
         Shopkeeper shopkeeper = verifyIfExists(id);
@@ -84,18 +118,18 @@ public class ShopkeeperService {
             throw new NoBeerProvidedException();
         }
 
-        for (Long beerId: beerIds) {
-            // If it is not found, then an exception occurs
-            beerService.findById(beerId);
-        }
+        // If any of them is not found, then an exception occurs
+        beerService.findAllById(beerIds);
+        Set<Long> beerIdsToRemove = new HashSet<>(beerIds);
 
         shopkeeper.setBeers(
                 shopkeeper.getBeers()
                         .stream()
-                        .filter(e -> !beerIds.contains(e.getId()))
+                        .filter(e -> !beerIdsToRemove.contains(e.getId()))
                         .collect(Collectors.toList()));
 
         Shopkeeper savedShopkeeper = shopkeeperRepository.save(shopkeeper);
+        changeVersions.shopkeepersChanged();
 
         return shopkeeperMapper.toDTO(savedShopkeeper);
     }
@@ -0,0 +1,427 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockEngineProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind engine for stock movements. When enabled, increments and decrements are
+ * validated and applied in memory with a CAS loop per beer, and the net delta of each beer
+ * is flushed to the database from time to time (or once enough movements are pending).
+ *
+ * The flush uses the same guarded UPDATE as the database path, so the database never leaves
+ * [0, max], even after a crash. Movements acknowledged after the last flush are lost in a
+ * crash, though, unless the stock journal is enabled: then each movement is also written to
+ * a local journal before being acknowledged, and replayed into the database on startup.
+ * The engine also assumes it's the only writer of beer quantities while it is enabled. When
+ * the guard rejects the flush of a beer anyway, its movements, already acknowledged, are kept
+ * pending: the beer is reloaded from the database and its pending delta rebased onto the
+ * quantity found there, to be sent again on the next flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StockEngine {
+
+    private final BeerRepository beerRepository;
+
+    private final StockLedger stockLedger;
+
+    private final StockJournal stockJournal;
+
+    private final StockEngineProperties properties;
+
+    private final ChangeVersions changeVersions;
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final ConcurrentMap<Long, StockCell> cells = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingMovements = new AtomicInteger();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * Movements hold the read lock while applied in memory and appended to the journal, and a
+     * flush holds the write lock while collecting deltas, so the deltas it sends cover exactly
+     * the journal records up to the sequence it checkpoints.
+     */
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    private boolean journaling;
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (stockJournal.isEnabled()) {
+            replayJournal();
+            journaling = true;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-engine-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Flushes whatever is still in memory before the application goes down.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        flusher.shutdown();
+        flusher.awaitTermination(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public BeerDTO increment(Long id, int quantityToIncrement)
+            throws BeerNotFoundException, BeerStockExceededException {
+        return apply(id, quantityToIncrement, quantityToIncrement);
+    }
+
+    public BeerDTO decrement(Long id, int quantityToDecrement)
+            throws BeerNotFoundException, BeerStockExceededException {
+        return apply(id, -quantityToDecrement, quantityToDecrement);
+    }
+
+    /**
+     * Replaces the quantity read from the database by the in-memory one, which may have
+     * movements that weren't flushed yet.
+     *
+     * @param beerDTO beer read from the database
+     */
+    public void refreshQuantity(BeerDTO beerDTO) {
+        StockCell cell = cells.get(beerDTO.getId());
+        if (cell != null) {
+            beerDTO.setQuantity(cell.quantity());
+        }
+    }
+
+    /**
+     * Discards the in-memory state of a deleted beer, including movements that weren't
+     * flushed, once the current transaction commits: if the delete is rolled back, the beer
+     * keeps its movements.
+     *
+     * @param id beer id
+     */
+    public void evict(Long id) {
+        TransactionCallbacks.afterCommit(() -> cells.remove(id));
+    }
+
+    /**
+     * Sends the net delta of every beer with pending movements to the database, as one batch.
+     * Deltas of a failed flush are put back to be retried on the next one, and so are the
+     * deltas the guard rejects, once their beers are rebased on the database quantity.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        pendingMovements.set(0);
+
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>();
+        long journalSequence = 0;
+        if (journaling) {
+            journalLock.writeLock().lock();
+            try {
+                collectPendingDeltas(adjustments);
+                journalSequence = stockJournal.getLastSequence();
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+        } else {
+            collectPendingDeltas(adjustments);
+        }
+        // movements that cancel each other out still move the journal checkpoint
+        if (adjustments.isEmpty() && (!journaling || journalSequence == stockJournal.getCommittedSequence())) {
+            return;
+        }
+        adjustments.sort(Comparator.comparing(StockAdjustmentDTO::getBeerId));
+
+        int[] updatedRows;
+        try {
+            updatedRows = journaling
+                    ? stockJournal.commit(adjustments, journalSequence)
+                    : stockLedger.addToQuantities(adjustments);
+        } catch (RuntimeException e) {
+            log.error("Could not flush {} stock adjustments, they will be retried", adjustments.size(), e);
+            adjustments.forEach(this::restorePendingDelta);
+            return;
+        }
+        // flushed beers get a new version in the database
+        changeVersions.beersChanged();
+
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                StockAdjustmentDTO rejected = adjustments.get(i);
+                log.warn("Stock adjustment {} was rejected by the database, beer {} will be rebased and retried",
+                        rejected.getDelta(), rejected.getBeerId());
+                restorePendingDelta(rejected).ifPresent(cell -> cell.stale = true);
+            }
+        }
+        rebaseStaleCells();
+    }
+
+    private BeerDTO apply(Long id, int delta, int informedQuantity)
+            throws BeerNotFoundException, BeerStockExceededException {
+        StockCell cell = getCell(id);
+        int quantity;
+        long journalSequence = 0;
+        if (journaling) {
+            journalLock.readLock().lock();
+            try {
+                quantity = cell.add(delta);
+                if (quantity != StockCell.REJECTED) {
+                    journalSequence = appendToJournal(cell, id, delta);
+                }
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        } else {
+            quantity = cell.add(delta);
+        }
+        if (quantity == StockCell.REJECTED) {
+            throw new BeerStockExceededException(id, informedQuantity);
+        }
+        if (journaling) {
+            stockJournal.awaitDurable(journalSequence);
+        }
+
+        if (pendingMovements.incrementAndGet() >= properties.getFlushThreshold()
+                && flusher != null
+                && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+
+        BeerDTO beerDTO = beerMapper.toDTO(cell.beer);
+        beerDTO.setQuantity(quantity);
+        return beerDTO;
+    }
+
+    private long appendToJournal(StockCell cell, Long id, int delta) {
+        try {
+            return stockJournal.append(id, delta);
+        } catch (RuntimeException e) {
+            cell.undo(delta);
+            throw e;
+        }
+    }
+
+    private void collectPendingDeltas(List<StockAdjustmentDTO> adjustments) {
+        cells.forEach((id, cell) -> {
+            int delta = cell.takePendingDelta();
+            if (delta != 0) {
+                adjustments.add(new StockAdjustmentDTO(id, delta));
+            }
+        });
+    }
+
+    /**
+     * Puts back the delta of an adjustment that wasn't applied. A beer without cell was deleted
+     * meanwhile, so its movements have nowhere to go.
+     */
+    private Optional<StockCell> restorePendingDelta(StockAdjustmentDTO adjustment) {
+        Optional<StockCell> cell = Optional.ofNullable(cells.get(adjustment.getBeerId()));
+        cell.ifPresent(pendingCell -> pendingCell.restorePendingDelta(adjustment.getDelta()));
+        return cell;
+    }
+
+    /**
+     * Reloads the quantity of every beer whose flush was rejected and rebases its pending delta
+     * on it. The cell is kept, so movements of threads that already hold it aren't lost. A beer
+     * that can't be reloaded stays stale and is tried again on the next flush.
+     */
+    private void rebaseStaleCells() {
+        cells.forEach((id, cell) -> {
+            if (!cell.stale) {
+                return;
+            }
+
+            try {
+                Optional<Beer> beer = beerRepository.findById(id);
+                if (beer.isPresent()) {
+                    cell.rebase(beer.get().getQuantity());
+                    cell.stale = false;
+                } else {
+                    log.warn("Beer {} was deleted with {} units still pending", id, cell.takePendingDelta());
+                    cells.remove(id, cell);
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not reload beer {}, it will be rebased on the next flush", id, e);
+            }
+        });
+    }
+
+    /**
+     * Sends the movements the journal has after its checkpoint to the database, before any
+     * beer is loaded in memory.
+     */
+    private void replayJournal() {
+        List<StockAdjustmentDTO> adjustments = stockJournal.recover();
+        int[] updatedRows = stockJournal.commit(adjustments, stockJournal.getLastSequence());
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                StockAdjustmentDTO rejected = adjustments.get(i);
+                log.warn("Journaled stock adjustment {} was rejected by the database for beer {}, it will be retried",
+                        rejected.getDelta(), rejected.getBeerId());
+                carryRejectedDelta(rejected);
+            }
+        }
+        if (!adjustments.isEmpty()) {
+            log.info("Stock journal replayed into {} beers", adjustments.size());
+        }
+    }
+
+    /**
+     * Keeps a rejected replayed delta pending, as the checkpoint now carries it and the next
+     * flush must send it again.
+     */
+    private void carryRejectedDelta(StockAdjustmentDTO rejected) {
+        try {
+            StockCell cell = getCell(rejected.getBeerId());
+            cell.restorePendingDelta(rejected.getDelta());
+            cell.rebase(cell.beer.getQuantity());
+        } catch (BeerNotFoundException e) {
+            log.warn("Beer {} was deleted with {} journaled units still pending", rejected.getBeerId(), rejected.getDelta());
+        }
+    }
+
+    private StockCell getCell(Long id) throws BeerNotFoundException {
+        StockCell cell = cells.get(id);
+        if (cell != null) {
+            return cell;
+        }
+
+        Beer beer = beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
+        return cells.computeIfAbsent(id, key -> new StockCell(beer));
+    }
+
+    private static final class StockCell {
+
+        private static final int REJECTED = Integer.MIN_VALUE;
+
+        /**
+         * Snapshot of the beer when it was loaded, only its immutable fields are read.
+         */
+        private final Beer beer;
+
+        /**
+         * Quantity in the high half and pending delta in the low half, updated together, so a
+         * rebase never sees a movement in one and not in the other.
+         */
+        private final AtomicLong state;
+
+        /**
+         * Set when the database rejected the pending delta, until the cell is rebased.
+         */
+        private volatile boolean stale;
+
+        private StockCell(Beer beer) {
+            this.beer = beer;
+            this.state = new AtomicLong(pack(beer.getQuantity(), 0));
+        }
+
+        private int quantity() {
+            return quantityOf(state.get());
+        }
+
+        /**
+         * A quantity left out of [0, max] by a rebase can still move back towards the bounds.
+         *
+         * @return the new quantity, or REJECTED if it would go past 0 or max
+         */
+        private int add(int delta) {
+            while (true) {
+                long current = state.get();
+                int next = quantityOf(current) + delta;
+                if ((delta < 0 && next < 0) || (delta > 0 && next > beer.getMax())) {
+                    return REJECTED;
+                }
+                if (state.compareAndSet(current, pack(next, pendingDeltaOf(current) + delta))) {
+                    return next;
+                }
+            }
+        }
+
+        /**
+         * Reverts a movement that couldn't be journaled. It's not guarded, as the movement
+         * being reverted was.
+         */
+        private void undo(int delta) {
+            state.accumulateAndGet(delta, (current, undone) ->
+                    pack(quantityOf(current) - (int) undone, pendingDeltaOf(current) - (int) undone));
+        }
+
+        private int takePendingDelta() {
+            return pendingDeltaOf(state.getAndUpdate(current -> pack(quantityOf(current), 0)));
+        }
+
+        /**
+         * Puts back a delta taken for a flush that didn't apply it. The quantity already has it.
+         */
+        private void restorePendingDelta(int delta) {
+            state.accumulateAndGet(delta, (current, restored) ->
+                    pack(quantityOf(current), pendingDeltaOf(current) + (int) restored));
+        }
+
+        /**
+         * Sets the quantity to the database one plus the pending delta. Only valid while no
+         * delta of the beer is being flushed.
+         */
+        private void rebase(int databaseQuantity) {
+            state.updateAndGet(current -> pack(databaseQuantity + pendingDeltaOf(current), pendingDeltaOf(current)));
+        }
+
+        private static long pack(int quantity, int pendingDelta) {
+            return ((long) quantity << 32) | (pendingDelta & 0xFFFFFFFFL);
+        }
+
+        private static int quantityOf(long state) {
+            return (int) (state >> 32);
+        }
+
+        private static int pendingDeltaOf(long state) {
+            return (int) state;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.StockJournalCheckpoint;
+import one.digitalinnovation.beerstock.domains.repositories.StockJournalCheckpointRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockJournalProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockJournalProperties.FsyncPolicy;
+import one.digitalinnovation.beerstock.infrastructure.journal.JournalRecord;
+import one.digitalinnovation.beerstock.infrastructure.journal.JournalSegment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local write-ahead journal for the stock engine. Each accepted movement is appended to a
+ * memory-mapped segment and synced according to the fsync policy before being acknowledged,
+ * so no database round trip is needed per movement.
+ *
+ * Records carry a sequence number. Every engine flush commits the last sequence it covers as
+ * a checkpoint, in the same transaction as the quantities, and segments fully behind the
+ * checkpoint are deleted. On startup, the records after the checkpoint are replayed into the
+ * database before any new movement is accepted.
+ *
+ * Deltas the database rejects don't hold the checkpoint back: they're carried by it until a
+ * later commit applies them, and replayed along with the records after it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StockJournal {
+
+    private final StockLedger stockLedger;
+
+    private final StockJournalCheckpointRepository checkpointRepository;
+
+    private final StockJournalProperties properties;
+
+    /**
+     * Segment files by their first sequence, the current one included.
+     */
+    private final NavigableMap<Long, Path> segmentFiles = new ConcurrentSkipListMap<>();
+
+    private final Object syncLock = new Object();
+
+    private Path directory;
+
+    private volatile JournalSegment segment;
+
+    private long nextSequence;
+
+    private volatile long lastSequence;
+
+    private volatile long committedSequence;
+
+    // guarded by syncLock
+    private long durableSequence;
+
+    private ScheduledExecutorService syncer;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * Reads the segments left by the previous run and opens a new one. Must be called once,
+     * before the first append.
+     *
+     * @return net delta of each beer over the deltas carried by the checkpoint and the records
+     * after it, in beer id order. They must be committed up to getLastSequence() before
+     * accepting new movements.
+     */
+    public List<StockAdjustmentDTO> recover() {
+        // the opening movements must see the quantities before the replay
+        stockLedger.recordOpeningMovements();
+
+        StockJournalCheckpoint storedCheckpoint = checkpointRepository.findById(properties.getId())
+                .orElseGet(() -> new StockJournalCheckpoint(properties.getId(), 0L, Map.of()));
+        long checkpoint = storedCheckpoint.getSequence();
+        long recoveredSequence = checkpoint;
+        Map<Long, Integer> deltas = new TreeMap<>(storedCheckpoint.getCarriedDeltas());
+        try {
+            directory = Paths.get(properties.getDirectory());
+            Files.createDirectories(directory);
+            for (Path file : JournalSegment.list(directory)) {
+                List<JournalRecord> records = JournalSegment.read(file);
+                if (records.isEmpty()) {
+                    // the previous run stopped right after starting this segment
+                    Files.delete(file);
+                    continue;
+                }
+
+                segmentFiles.put(JournalSegment.firstSequence(file), file);
+                for (JournalRecord record : records) {
+                    if (record.getSequence() > checkpoint) {
+                        deltas.merge(record.getBeerId(), record.getDelta(), Integer::sum);
+                    }
+                }
+                recoveredSequence = Math.max(recoveredSequence, records.get(records.size() - 1).getSequence());
+            }
+
+            committedSequence = checkpoint;
+            lastSequence = recoveredSequence;
+            nextSequence = recoveredSequence + 1;
+            synchronized (syncLock) {
+                durableSequence = recoveredSequence;
+            }
+            startSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the stock journal in " + properties.getDirectory(), e);
+        }
+        log.info("Stock journal recovered: checkpoint {}, {} records and {} carried deltas to replay",
+                checkpoint, recoveredSequence - checkpoint, storedCheckpoint.getCarriedDeltas().size());
+
+        if (properties.getFsyncPolicy() == FsyncPolicy.INTERVAL) {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-journal-syncer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = properties.getFsyncInterval().toMillis();
+            syncer.scheduleWithFixedDelay(() -> segment.force(), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>(deltas.size());
+        deltas.forEach((beerId, delta) -> {
+            if (delta != 0) {
+                adjustments.add(new StockAdjustmentDTO(beerId, delta));
+            }
+        });
+        return adjustments;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Appends a movement already applied in memory. With the every-write policy, the record
+     * is on disk when this returns; with the others, see awaitDurable.
+     *
+     * @return the sequence of the record
+     * @throws UncheckedIOException when a new segment can't be created
+     */
+    public synchronized long append(Long beerId, int delta) {
+        JournalRecord record = new JournalRecord(nextSequence, beerId, delta);
+        int offset = segment.append(record);
+        if (offset < 0) {
+            try {
+                segment.force();
+                startSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start a new stock journal segment", e);
+            }
+            offset = segment.append(record);
+        }
+        if (properties.getFsyncPolicy() == FsyncPolicy.EVERY_WRITE) {
+            segment.force(offset);
+        }
+
+        nextSequence++;
+        lastSequence = record.getSequence();
+        return record.getSequence();
+    }
+
+    /**
+     * Waits until the record is on disk, with the group commit policy. The first writer to get
+     * here syncs every record appended so far; writers arriving meanwhile wait for it and, in
+     * most cases, find their record already synced.
+     */
+    public void awaitDurable(long sequence) {
+        if (properties.getFsyncPolicy() != FsyncPolicy.GROUP_COMMIT) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+
+            // records in previous segments were forced when their segment was closed
+            long syncedSequence = lastSequence;
+            segment.force();
+            durableSequence = syncedSequence;
+        }
+    }
+
+    /**
+     * Applies the net deltas of the records up to the sequence and moves the checkpoint there,
+     * in one transaction. The adjustments must hold every delta still pending up to the
+     * sequence, the ones carried by the checkpoint included: the rejected ones become the new
+     * carried deltas. Segments behind the checkpoint are deleted once it commits.
+     *
+     * @return updated rows for each adjustment, in the same order
+     */
+    @Transactional
+    public int[] commit(List<StockAdjustmentDTO> adjustments, long sequence) {
+        int[] updatedRows = adjustments.isEmpty() ? new int[0] : stockLedger.addToQuantities(adjustments);
+        Map<Long, Integer> carriedDeltas = new HashMap<>();
+        for (int i = 0; i < updatedRows.length; i++) {
+            if (updatedRows[i] == 0) {
+                carriedDeltas.put(adjustments.get(i).getBeerId(), adjustments.get(i).getDelta());
+            }
+        }
+        checkpointRepository.save(new StockJournalCheckpoint(properties.getId(), sequence, carriedDeltas));
+        TransactionCallbacks.afterCommit(() -> truncate(sequence));
+        return updatedRows;
+    }
+
+    private void startSegment() throws IOException {
+        segment = JournalSegment.create(directory, nextSequence,
+                (int) Math.min(properties.getSegmentSize().toBytes(), Integer.MAX_VALUE));
+        segmentFiles.put(nextSequence, segment.getFile());
+    }
+
+    /**
+     * Deletes the segments whose records are all at or behind the sequence. The current
+     * segment is never deleted.
+     */
+    private void truncate(long sequence) {
+        committedSequence = Math.max(committedSequence, sequence);
+
+        Map.Entry<Long, Path> entry = segmentFiles.firstEntry();
+        while (entry != null) {
+            Long nextFirstSequence = segmentFiles.higherKey(entry.getKey());
+            if (nextFirstSequence == null || nextFirstSequence - 1 > sequence) {
+                return;
+            }
+
+            try {
+                Files.deleteIfExists(entry.getValue());
+            } catch (IOException e) {
+                log.warn("Could not delete stock journal segment {}, it will be retried", entry.getValue(), e);
+                return;
+            }
+            segmentFiles.remove(entry.getKey());
+            entry = segmentFiles.firstEntry();
+        }
+    }
+}
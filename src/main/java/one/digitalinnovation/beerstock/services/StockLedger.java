@@ -0,0 +1,171 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.StockSnapshot;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockSnapshotRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.LedgerProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of stock movements. Every quantity change made in the database is
+ * recorded, in the same transaction, as a (beer, delta) row; beer creation records the
+ * initial quantity. Ledger rows are written with plain batched inserts, never updated.
+ * Stock changes insert theirs along with the guarded update (on Postgres, in the same
+ * statement), so recording them costs the hot path no extra round trip.
+ *
+ * Per-beer snapshots are taken periodically, so the quantity of a beer at any point in time
+ * is its latest snapshot before that point plus the movements after it. Superseded snapshots
+ * are pruned once older than the retention.
+ * With the stock engine enabled, the ledger follows the database: each flush records one
+ * net movement per beer.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StockLedger {
+
+    private final BeerRepository beerRepository;
+
+    private final StockMovementRepository stockMovementRepository;
+
+    private final StockSnapshotRepository stockSnapshotRepository;
+
+    private final LedgerProperties properties;
+
+    private ScheduledExecutorService snapshotter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recordOpeningMovements();
+
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getSnapshotInterval().toMillis();
+        snapshotter.scheduleWithFixedDelay(this::takeSnapshots, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotter != null) {
+            snapshotter.shutdownNow();
+        }
+    }
+
+    /**
+     * Records the current quantity of every beer with no movement yet, so the ledger also
+     * covers beers created before it existed. Beers already in the ledger are left alone.
+     */
+    public void recordOpeningMovements() {
+        int openedBeers = stockMovementRepository.appendOpeningMovements(Instant.now());
+        if (openedBeers > 0) {
+            log.info("Opening stock movements recorded for {} beers", openedBeers);
+        }
+    }
+
+    /**
+     * Applies one movement with the guarded update and records it, reading the updated beer
+     * back in the same round trip where the database allows it.
+     *
+     * @return the updated beer, empty when the beer doesn't exist or its stock would go out of bounds
+     */
+    @Transactional
+    public Optional<Beer> addToQuantity(Long beerId, int delta) {
+        return beerRepository.addToQuantityAndRecord(beerId, delta, Instant.now());
+    }
+
+    /**
+     * Applies the adjustments with the guarded batch update and records the applied ones,
+     * all in one transaction and, on Postgres, in one JDBC batch.
+     *
+     * @return updated rows for each adjustment, in the same order
+     */
+    @Transactional
+    public int[] addToQuantities(List<StockAdjustmentDTO> adjustments) {
+        return beerRepository.addToQuantitiesAndRecord(adjustments, Instant.now());
+    }
+
+    /**
+     * Records a movement already applied in the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long beerId, int delta) {
+        record(Collections.singletonList(new StockAdjustmentDTO(beerId, delta)));
+    }
+
+    /**
+     * Records movements already applied in the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(List<StockAdjustmentDTO> movements) {
+        if (!movements.isEmpty()) {
+            stockMovementRepository.appendAll(movements, Instant.now());
+        }
+    }
+
+    /**
+     * Rebuilds the quantity of a beer at a given time, replaying only the movements recorded
+     * after its latest snapshot.
+     *
+     * @throws BeerNotFoundException when the ledger has nothing about the beer up to that time
+     */
+    @Transactional(readOnly = true)
+    public StockLevelDTO quantityAt(Long beerId, Instant at) throws BeerNotFoundException {
+        Optional<StockSnapshot> snapshot =
+                stockSnapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, at);
+        Long replayedDelta = stockMovementRepository.sumDeltas(
+                beerId, snapshot.map(StockSnapshot::getLastMovementId).orElse(0L), at);
+        if (snapshot.isEmpty() && replayedDelta == null) {
+            throw new BeerNotFoundException(beerId);
+        }
+
+        long quantity = snapshot.map(StockSnapshot::getQuantity).orElse(0)
+                + (replayedDelta == null ? 0 : replayedDelta);
+        return StockLevelDTO.builder()
+                .beerId(beerId)
+                .at(at)
+                .quantity(Math.toIntExact(quantity))
+                .build();
+    }
+
+    /**
+     * Snapshots stop at a settled movement id, not at a time: a movement given its id before
+     * the snapshot could otherwise commit after it, behind its last movement id, and never be
+     * replayed. Every movement up to that id is committed when the time is read, so none is
+     * dated after the snapshot.
+     */
+    public void takeSnapshots() {
+        try {
+            long lastMovementId = stockMovementRepository.awaitSettledMovementId();
+            int snapshots = stockSnapshotRepository.takeSnapshots(Instant.now(), lastMovementId);
+            int prunedSnapshots = stockSnapshotRepository.pruneSnapshots(
+                    Instant.now().minus(properties.getSnapshotRetention()));
+            log.debug("Stock snapshots taken for {} beers, {} superseded ones pruned", snapshots, prunedSnapshots);
+        } catch (RuntimeException e) {
+            log.error("Could not take stock snapshots, they will be taken next time", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package one.digitalinnovation.beerstock.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties.Threshold;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties.ThresholdUnit;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import static one.digitalinnovation.beerstock.services.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory watchlist of beers that are about to run out or to reach their max.
+ *
+ * Beers are kept in two sorted sets, one by quantity and one by free room (max - quantity),
+ * so the k most critical beers are the first k entries of a set. Like the search index, it
+ * is loaded once at startup and then kept up to date by BeerService. Updates made inside a
+ * transaction are only applied after it commits, and stock movements are applied as deltas,
+ * so concurrent movements can be applied in any order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StockWatchlist implements SmartInitializingSingleton {
+
+    private final BeerRepository beerRepository;
+
+    private final WatchlistProperties properties;
+
+    // entries are never changed once stored, a movement replaces them with an adjusted copy
+    private final Map<Long, BeerDTO> entriesById = new ConcurrentHashMap<>();
+
+    private WatchlistView lowStock;
+
+    private WatchlistView nearCapacity;
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @PostConstruct
+    public void init() {
+        lowStock = new WatchlistView(BeerDTO::getQuantity, properties.getLowStock());
+        nearCapacity = new WatchlistView(beer -> beer.getMax() - beer.getQuantity(), properties.getNearCapacity());
+    }
+
+    /**
+     * Runs once every bean exists, before the web server starts, so no request finds the
+     * watchlist empty.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc()) {
+            beers.forEach(beer -> {
+                put(beerMapper.toDTO(beer));
+                beerRepository.detach(beer);
+            });
+        }
+        log.info("Stock watchlist loaded with {} beers", entriesById.size());
+    }
+
+    public void add(BeerDTO beerDTO) {
+        BeerDTO entry = beerMapper.copy(beerDTO);
+        afterCommit(() -> put(entry));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> removeEntry(id));
+    }
+
+    /**
+     * @param id    beer id
+     * @param delta quantity added to (or, when negative, removed from) the beer stock
+     */
+    public void adjust(Long id, int delta) {
+        afterCommit(() -> adjustEntry(id, delta));
+    }
+
+    /**
+     * @param limit maximum number of beers returned
+     * @return beers within the low stock threshold, emptiest first
+     */
+    public List<BeerDTO> lowStock(int limit) {
+        return lowStock.head(limit);
+    }
+
+    /**
+     * @param limit maximum number of beers returned
+     * @return beers within the near capacity threshold, fullest first
+     */
+    public List<BeerDTO> nearCapacity(int limit) {
+        return nearCapacity.head(limit);
+    }
+
+    /**
+     * @return number of beers with no stock left
+     */
+    public int countEmpty() {
+        return lowStock.countAtZero();
+    }
+
+    /**
+     * @return number of beers stocked at their max
+     */
+    public int countFull() {
+        return nearCapacity.countAtZero();
+    }
+
+    private synchronized void put(BeerDTO entry) {
+        removeEntry(entry.getId());
+        entriesById.put(entry.getId(), entry);
+        lowStock.entries.add(entry);
+        nearCapacity.entries.add(entry);
+    }
+
+    private synchronized void removeEntry(Long id) {
+        BeerDTO entry = entriesById.remove(id);
+        if (entry != null) {
+            lowStock.entries.remove(entry);
+            nearCapacity.entries.remove(entry);
+        }
+    }
+
+    private synchronized void adjustEntry(Long id, int delta) {
+        BeerDTO entry = entriesById.get(id);
+        if (entry != null) {
+            BeerDTO adjustedEntry = beerMapper.copy(entry);
+            adjustedEntry.setQuantity(entry.getQuantity() + delta);
+            put(adjustedEntry);
+        }
+    }
+
+    /**
+     * One side of the watchlist. Beers are sorted by a stock level (quantity or free room),
+     * either in units or relative to their max, the same way the threshold is expressed.
+     */
+    private static final class WatchlistView {
+
+        private final ToIntFunction<BeerDTO> level;
+
+        private final Threshold threshold;
+
+        private final NavigableSet<BeerDTO> entries;
+
+        private WatchlistView(ToIntFunction<BeerDTO> level, Threshold threshold) {
+            this.level = level;
+            this.threshold = threshold;
+
+            // percentages are compared as fractions (a / maxA < b / maxB), without rounding
+            Comparator<BeerDTO> byLevel = threshold.getUnit() == ThresholdUnit.PERCENT
+                    ? (a, b) -> Long.compare(
+                            (long) level.applyAsInt(a) * capacity(b),
+                            (long) level.applyAsInt(b) * capacity(a))
+                    : Comparator.comparingInt(level);
+            this.entries = new ConcurrentSkipListSet<>(byLevel.thenComparing(BeerDTO::getId));
+        }
+
+        private List<BeerDTO> head(int limit) {
+            // a beer moved while iterating may be seen twice, so results are collected by id
+            Map<Long, BeerDTO> watchedBeers = new LinkedHashMap<>();
+            for (BeerDTO entry : entries) {
+                if (watchedBeers.size() == limit || !isWatched(entry)) {
+                    break;
+                }
+                watchedBeers.putIfAbsent(entry.getId(), beerMapper.copy(entry));
+            }
+
+            return new ArrayList<>(watchedBeers.values());
+        }
+
+        // beers at level zero (or below) sort first, so only they are walked
+        private int countAtZero() {
+            Set<Long> depletedIds = new HashSet<>();
+            for (BeerDTO entry : entries) {
+                if (level.applyAsInt(entry) > 0) {
+                    break;
+                }
+                depletedIds.add(entry.getId());
+            }
+
+            return depletedIds.size();
+        }
+
+        private boolean isWatched(BeerDTO beer) {
+            int beerLevel = level.applyAsInt(beer);
+            return threshold.getUnit() == ThresholdUnit.PERCENT
+                    ? beerLevel * 100L <= (long) threshold.getValue() * capacity(beer)
+                    : beerLevel <= threshold.getValue();
+        }
+
+        private static int capacity(BeerDTO beer) {
+            return Math.max(beer.getMax(), 1);
+        }
+    }
+}
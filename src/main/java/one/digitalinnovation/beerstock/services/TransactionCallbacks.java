@@ -0,0 +1,55 @@
+package one.digitalinnovation.beerstock.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps in-memory state (search index, watchlist, inventory stats, idempotency keys) and the
+ * stock metrics in step with committed data only.
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+
+    }
+
+    /**
+     * Runs the update once the current transaction commits, or right away when there is none.
+     * Nothing runs if the transaction is rolled back.
+     */
+    static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Runs one of the callbacks once the current transaction completes, depending on its
+     * outcome. With no transaction, it's considered committed right away.
+     */
+    static void afterCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed.run();
+                } else {
+                    rolledBack.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+-- Moves beer and shopkeeper ids from identity (or serial) columns to the sequences used by
+-- PooledSequenceGenerator. Run it once, with the application stopped, before starting the
+-- version that uses them:
+--
+--   psql -d beerstock -f src/main/resources/db/postgres/pooled-sequence-ids.sql
+--
+-- The increment of both sequences must be beerstock.id-generator.allocation-size (50 by default).
+-- Each sequence starts after the greatest id in use, so existing rows keep their ids.
+
+begin;
+
+create sequence if not exists beer_seq increment by 50;
+select setval('beer_seq', coalesce((select max(id) from beer), 0) + 1, false);
+alter table beer alter column id drop identity if exists;
+alter table beer alter column id drop default;
+drop sequence if exists beer_id_seq;
+
+create sequence if not exists shopkeeper_seq increment by 50;
+select setval('shopkeeper_seq', coalesce((select max(id) from shopkeeper), 0) + 1, false);
+alter table shopkeeper alter column id drop identity if exists;
+alter table shopkeeper alter column id drop default;
+drop sequence if exists shopkeeper_id_seq;
+
+commit;
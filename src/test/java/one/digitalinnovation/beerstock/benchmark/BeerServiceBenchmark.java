@@ -0,0 +1,147 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.IdempotencyProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.InventoryStatsProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.LedgerProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockEngineProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockJournalProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.services.BeerCache;
+import one.digitalinnovation.beerstock.services.BeerSearchIndex;
+import one.digitalinnovation.beerstock.services.BeerService;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.IdempotencyStore;
+import one.digitalinnovation.beerstock.services.InventoryStats;
+import one.digitalinnovation.beerstock.services.StockEngine;
+import one.digitalinnovation.beerstock.services.StockJournal;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEERS_BY_ID_CACHE;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_IDS_BY_NAME_CACHE;
+
+/**
+ * Stock movements through BeerService, against a map-backed repository (service code only)
+ * and against H2 (service, JPA and database), with the stock engine on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerServiceBenchmark {
+
+    @Param({"in-memory", "h2"})
+    private String repository;
+
+    @Param({"false", "true"})
+    private boolean stockEngineEnabled;
+
+    private ConfigurableApplicationContext context;
+
+    private StockEngine stockEngine;
+
+    private BeerService beerService;
+
+    private Long beerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws BeerAlreadyRegisteredException {
+        if ("h2".equals(repository)) {
+            context = new SpringApplicationBuilder(BeerstockApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "beerstock.stock-engine.enabled=" + stockEngineEnabled,
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=warn")
+                    .run();
+            beerService = context.getBean(BeerService.class);
+        } else {
+            BeerRepository beerRepository = InMemoryBeerRepository.create();
+            StockEngineProperties properties = new StockEngineProperties();
+            properties.setEnabled(stockEngineEnabled);
+
+            StockLedger stockLedger = new StockLedger(
+                    beerRepository, discardingStockMovementRepository(), null, new LedgerProperties());
+            // journal off, as in the default configuration
+            StockJournal stockJournal = new StockJournal(stockLedger, null, new StockJournalProperties());
+            ChangeVersions changeVersions = new ChangeVersions();
+            StockWatchlist stockWatchlist = stockWatchlist(beerRepository);
+            stockEngine = new StockEngine(beerRepository, stockLedger, stockJournal, properties, changeVersions);
+            stockEngine.start();
+            beerService = new BeerService(
+                    beerRepository,
+                    stockEngine,
+                    new BeerCache(new ConcurrentMapCacheManager(BEERS_BY_ID_CACHE, BEER_IDS_BY_NAME_CACHE)),
+                    new BeerSearchIndex(beerRepository),
+                    new StockMetrics(new SimpleMeterRegistry(), stockWatchlist),
+                    stockWatchlist,
+                    new InventoryStats(beerRepository, stockEngine, new InventoryStatsProperties()),
+                    stockLedger,
+                    new IdempotencyStore(null, new ObjectMapper(), new IdempotencyProperties(), null),
+                    changeVersions);
+        }
+
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).max(500).quantity(250).build().toBeerDTO();
+        beerId = beerService.createBeer(beerDTO).getId();
+    }
+
+    /**
+     * Ledger rows are dropped: the in-memory variant measures the service code only.
+     */
+    private static StockMovementRepository discardingStockMovementRepository() {
+        return (StockMovementRepository) Proxy.newProxyInstance(
+                StockMovementRepository.class.getClassLoader(),
+                new Class<?>[]{StockMovementRepository.class},
+                (proxy, method, args) -> {
+                    if (!"appendAll".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return null;
+                });
+    }
+
+    private static StockWatchlist stockWatchlist(BeerRepository beerRepository) {
+        StockWatchlist stockWatchlist = new StockWatchlist(beerRepository, new WatchlistProperties());
+        stockWatchlist.init();
+        return stockWatchlist;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (context != null) {
+            context.close();
+        } else {
+            stockEngine.stop();
+        }
+    }
+
+    /**
+     * Increment and decrement go together so the stock never drifts to its bounds.
+     */
+    @Benchmark
+    public BeerDTO incrementAndDecrement() throws BeerNotFoundException, BeerStockExceededException {
+        beerService.increment(beerId, 1);
+        return beerService.decrement(beerId, 1);
+    }
+}
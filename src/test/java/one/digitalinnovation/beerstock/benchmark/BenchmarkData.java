@@ -0,0 +1,38 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<BeerDTO> beerDTOs(int size) {
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(id -> BeerDTOBuilder.builder()
+                        .id(id)
+                        .name("Beer " + id)
+                        .build()
+                        .toBeerDTO())
+                .collect(Collectors.toList());
+    }
+
+    static List<ShopkeeperDTO> shopkeeperDTOs(int size, int beersPerShopkeeper) {
+        List<BeerDTO> beers = beerDTOs(beersPerShopkeeper);
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(id -> ShopkeeperDTOBuilder.builder()
+                        .id(id)
+                        .name("Shopkeeper " + id)
+                        .beers(beers)
+                        .build()
+                        .toShopkeeperDTO())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,98 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of the list responses in each format offered by content negotiation.
+ * Payload sizes are printed once per trial. Shopkeepers carry 10 beers each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private static final int BEERS_PER_SHOPKEEPER = 10;
+
+    @Param({"json", "cbor", "avro"})
+    private String format;
+
+    @Param({"1000"})
+    private int size;
+
+    private List<BeerDTO> beerDTOs;
+
+    private List<ShopkeeperDTO> shopkeeperDTOs;
+
+    private ObjectWriter beerWriter;
+    private ObjectReader beerReader;
+    private ObjectWriter shopkeeperWriter;
+    private ObjectReader shopkeeperReader;
+
+    private byte[] encodedBeers;
+    private byte[] encodedShopkeepers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        beerDTOs = BenchmarkData.beerDTOs(size);
+        shopkeeperDTOs = BenchmarkData.shopkeeperDTOs(size, BEERS_PER_SHOPKEEPER);
+
+        ObjectMapper mapper = "avro".equals(format) ? new AvroMapper()
+                : "cbor".equals(format) ? new CBORMapper()
+                : new ObjectMapper();
+        JavaType beerListType = mapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class);
+        JavaType shopkeeperListType = mapper.getTypeFactory().constructCollectionType(List.class, ShopkeeperDTO.class);
+        beerWriter = mapper.writerFor(beerListType);
+        beerReader = mapper.readerFor(beerListType);
+        shopkeeperWriter = mapper.writerFor(shopkeeperListType);
+        shopkeeperReader = mapper.readerFor(shopkeeperListType);
+        if (mapper instanceof AvroMapper) {
+            AvroSchema beerSchema = ((AvroMapper) mapper).schemaFor(beerListType);
+            AvroSchema shopkeeperSchema = ((AvroMapper) mapper).schemaFor(shopkeeperListType);
+            beerWriter = beerWriter.with(beerSchema);
+            beerReader = beerReader.with(beerSchema);
+            shopkeeperWriter = shopkeeperWriter.with(shopkeeperSchema);
+            shopkeeperReader = shopkeeperReader.with(shopkeeperSchema);
+        }
+
+        encodedBeers = beerWriter.writeValueAsBytes(beerDTOs);
+        encodedShopkeepers = shopkeeperWriter.writeValueAsBytes(shopkeeperDTOs);
+        System.out.printf("%n%s payload: %d beers = %d bytes, %d shopkeepers = %d bytes%n",
+                format, size, encodedBeers.length, size, encodedShopkeepers.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBeerList() throws IOException {
+        return beerWriter.writeValueAsBytes(beerDTOs);
+    }
+
+    @Benchmark
+    public List<BeerDTO> decodeBeerList() throws IOException {
+        return beerReader.readValue(encodedBeers);
+    }
+
+    @Benchmark
+    public byte[] encodeShopkeeperList() throws IOException {
+        return shopkeeperWriter.writeValueAsBytes(shopkeeperDTOs);
+    }
+
+    @Benchmark
+    public List<ShopkeeperDTO> decodeShopkeeperList() throws IOException {
+        return shopkeeperReader.readValue(encodedShopkeepers);
+    }
+}
@@ -0,0 +1,113 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Beers inserted through BeerRepository.saveAll, with ids from an identity column (as before,
+ * mapped back by benchmark/identity-ids-orm.xml) and from the pooled sequence. Identity ids
+ * are only known after each insert, so Hibernate can't batch them: one statement per beer.
+ * The score is beers per second; the statements sent per beer are printed after each iteration.
+ *
+ * With "tcp", H2 runs as a server on localhost, so each statement is a network round trip,
+ * as with Postgres; "in-process" only measures the work done by Hibernate and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int BEERS_PER_TRANSACTION = 1000;
+
+    @Param({"identity", "pooled-sequence"})
+    private String generator;
+
+    @Param({"in-process", "tcp"})
+    private String database;
+
+    private Server server;
+
+    private ConfigurableApplicationContext context;
+
+    private BeerRepository beerRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private long beers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:id-generation";
+        if ("tcp".equals(database)) {
+            server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:id-generation";
+        }
+
+        context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "identity".equals(generator)
+                                ? "spring.jpa.mapping-resources=benchmark/identity-ids-orm.xml"
+                                : "beerstock.id-generator.allocation-size=50",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        beerRepository = context.getBean(BeerRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearBeers() {
+        beerRepository.deleteAllInBatch();
+        statistics.clear();
+        beers = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printStatements() {
+        System.out.printf("%n%s: %.2f statements per beer%n", generator,
+                (double) statistics.getPrepareStatementCount() / Math.max(beers, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BEERS_PER_TRANSACTION)
+    public List<Beer> saveAll() {
+        List<Beer> newBeers = new ArrayList<>(BEERS_PER_TRANSACTION);
+        for (int i = 0; i < BEERS_PER_TRANSACTION; i++) {
+            newBeers.add(new Beer(null, "Beer " + beers++, "Ambev", 500, 10, BeerType.LAGER, null));
+        }
+        return transactionTemplate.execute(status -> beerRepository.saveAll(newBeers));
+    }
+}
@@ -0,0 +1,126 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Map-backed BeerRepository, so benchmarks can measure the service code without any
+ * database cost. Only the methods used by BeerService and StockEngine are supported.
+ */
+final class InMemoryBeerRepository {
+
+    private final Map<Long, Beer> beers = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private InMemoryBeerRepository() {
+    }
+
+    static BeerRepository create() {
+        InMemoryBeerRepository repository = new InMemoryBeerRepository();
+        return (BeerRepository) Proxy.newProxyInstance(
+                BeerRepository.class.getClassLoader(),
+                new Class<?>[]{BeerRepository.class},
+                (proxy, method, args) -> repository.invoke(proxy, method.getName(), args));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(Object proxy, String methodName, Object[] args) {
+        switch (methodName) {
+            case "save":
+                return save((Beer) args[0]);
+            case "findById":
+                return Optional.ofNullable(beers.get((Long) args[0]));
+            case "existsById":
+                return beers.containsKey((Long) args[0]);
+            case "findByName":
+                return beers.values().stream()
+                        .filter(beer -> beer.getName().equals(args[0]))
+                        .findFirst();
+            case "findAll":
+                return new ArrayList<>(beers.values());
+            case "findAllById":
+                return StreamSupport.stream(((Iterable<Long>) args[0]).spliterator(), false)
+                        .map(beers::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+            case "addToQuantity":
+                return addToQuantity((Long) args[0], (Integer) args[1]);
+            case "addToQuantityAndRecord":
+                // the ledger movement is dropped, as in BeerServiceBenchmark
+                return addToQuantityAndRead((Long) args[0], (Integer) args[1]);
+            case "addToQuantities":
+            case "addToQuantitiesAndRecord":
+                return ((List<StockAdjustmentDTO>) args[0]).stream()
+                        .mapToInt(adjustment -> addToQuantity(adjustment.getBeerId(), adjustment.getDelta()))
+                        .toArray();
+            case "detach":
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return InMemoryBeerRepository.class.getSimpleName();
+            default:
+                throw new UnsupportedOperationException(methodName);
+        }
+    }
+
+    private Beer save(Beer beer) {
+        if (beer.getId() == null) {
+            beer.setId(ids.incrementAndGet());
+        }
+        beers.put(beer.getId(), beer);
+        return beer;
+    }
+
+    /**
+     * Same guard as the database update: nothing changes if the new quantity leaves [0, max].
+     */
+    private int addToQuantity(Long id, int delta) {
+        Beer beer = beers.get(id);
+        if (beer == null) {
+            return 0;
+        }
+
+        synchronized (beer) {
+            int newQuantity = beer.getQuantity() + delta;
+            if (newQuantity < 0 || newQuantity > beer.getMax()) {
+                return 0;
+            }
+            beer.setQuantity(newQuantity);
+            return 1;
+        }
+    }
+
+    /**
+     * Like addToQuantity, returning a copy of the updated beer, as read back from the database.
+     */
+    private Optional<Beer> addToQuantityAndRead(Long id, int delta) {
+        Beer beer = beers.get(id);
+        if (beer == null) {
+            return Optional.empty();
+        }
+
+        synchronized (beer) {
+            if (addToQuantity(id, delta) == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new Beer(beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(),
+                    beer.getQuantity(), beer.getBeerType(), beer.getVersion()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.mappers.ShopkeeperMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions between entities and DTOs. Shopkeeper conversions also map every
+ * beer of the shopkeeper, so they're measured for a few list sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private static final ShopkeeperMapper shopkeeperMapper = ShopkeeperMapper.INSTANCE;
+
+    @Param({"10", "100"})
+    private int beersPerShopkeeper;
+
+    private Beer beer;
+
+    private BeerDTO beerDTO;
+
+    private Shopkeeper shopkeeper;
+
+    private ShopkeeperDTO shopkeeperDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beerDTO = BenchmarkData.beerDTOs(1).get(0);
+        beer = beerMapper.toModel(beerDTO);
+        shopkeeperDTO = BenchmarkData.shopkeeperDTOs(1, beersPerShopkeeper).get(0);
+        shopkeeper = shopkeeperMapper.toModel(shopkeeperDTO);
+    }
+
+    @Benchmark
+    public BeerDTO beerToDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer beerToModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+
+    @Benchmark
+    public ShopkeeperDTO shopkeeperToDTO() {
+        return shopkeeperMapper.toDTO(shopkeeper);
+    }
+
+    @Benchmark
+    public Shopkeeper shopkeeperToModel() {
+        return shopkeeperMapper.toModel(shopkeeperDTO);
+    }
+}
@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import one.digitalinnovation.beerstock.infrastructure.configs.ResponseCacheProperties;
+import one.digitalinnovation.beerstock.services.BeerResponseCache;
+import one.digitalinnovation.beerstock.services.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list responses. Shopkeepers carry 10 beers each.
+ * The beer list is also read from the response cache, with no change in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int BEERS_PER_SHOPKEEPER = 10;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<BeerDTO> beerDTOs;
+
+    private List<ShopkeeperDTO> shopkeeperDTOs;
+
+    private BeerResponseCache beerResponseCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        beerDTOs = BenchmarkData.beerDTOs(size);
+        shopkeeperDTOs = BenchmarkData.shopkeeperDTOs(size, BEERS_PER_SHOPKEEPER);
+
+        // only the methods used by the response cache, with a tag that never moves
+        BeerService beerService = new BeerService(null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public String getChangeTag() {
+                return "benchmark";
+            }
+
+            @Override
+            public List<BeerDTO> listAll() {
+                return beerDTOs;
+            }
+        };
+        beerResponseCache = new BeerResponseCache(beerService, objectMapper, new ResponseCacheProperties());
+    }
+
+    @Benchmark
+    public byte[] beerListToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerDTOs);
+    }
+
+    @Benchmark
+    public byte[] beerListFromResponseCache() {
+        return beerResponseCache.listAll(MediaType.APPLICATION_JSON).getBody();
+    }
+
+    @Benchmark
+    public byte[] shopkeeperListToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(shopkeeperDTOs);
+    }
+}
@@ -0,0 +1,115 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.services.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
+
+/**
+ * Thousands of concurrent stock PATCHes against the running server, with requests handled by
+ * Tomcat's platform worker pool or by virtual threads. Each operation is one whole burst, so
+ * the score is bursts per second. The virtual mode needs a Java 21 runtime.
+ *
+ * Without the stock engine every PATCH holds a database connection, so no more requests run at
+ * once than the connection pool allows, whatever the threads: the pool is sized to Tomcat's
+ * 200 platform workers so it isn't the first limit, and the stock engine variant takes the
+ * database off the request path altogether.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"2000"})
+    private int concurrentRequests;
+
+    @Param({"false", "true"})
+    private boolean stockEngineEnabled;
+
+    @Param({"200"})
+    private int connectionPoolSize;
+
+    private ServletWebServerApplicationContext context;
+
+    private ExecutorService clientExecutor;
+
+    private HttpClient httpClient;
+
+    private URI incrementUri;
+
+    private URI decrementUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws BeerAlreadyRegisteredException {
+        context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(BeerstockApplication.class)
+                .properties(
+                        "server.port=0",
+                        // the whole burst connects at once, it must not overflow the accept backlog
+                        "server.tomcat.accept-count=" + concurrentRequests,
+                        "beerstock.virtual-threads.enabled=" + "virtual".equals(threads),
+                        "beerstock.stock-engine.enabled=" + stockEngineEnabled,
+                        "spring.datasource.hikari.maximum-pool-size=" + connectionPoolSize,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).max(500).quantity(250).build().toBeerDTO();
+        Long beerId = context.getBean(BeerService.class).createBeer(beerDTO).getId();
+
+        String beerUri = "http://localhost:" + context.getWebServer().getPort()
+                + BASE_URI_PATH + BEERS_URI_PATH + "/" + beerId;
+        incrementUri = URI.create(beerUri + INCREMENT_URI_PATH);
+        decrementUri = URI.create(beerUri + DECREMENT_URI_PATH);
+
+        clientExecutor = Executors.newFixedThreadPool(16);
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Increments and decrements alternate, so the stock stays around its starting point.
+     * Responses rejected by the stock bounds still went through the whole stack, so they count.
+     */
+    @Benchmark
+    public int patchBurst() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(i % 2 == 0 ? incrementUri : decrementUri)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\": 1}"))
+                    .build();
+            responses[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+}
@@ -31,12 +31,15 @@ public class BeerDTOBuilder {
     @Builder.Default
     private final BeerType type = BeerType.LAGER;
 
+    private final Long version;
+
     public BeerDTO toBeerDTO() {
         return new BeerDTO(id,
                 name,
                 brand,
                 max,
                 quantity,
-                type);
+                type,
+                version);
     }
 }
@@ -0,0 +1,40 @@
+package one.digitalinnovation.beerstock.configs;
+
+import one.digitalinnovation.beerstock.infrastructure.configs.VirtualThreadsConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigTest {
+
+    private static final boolean VIRTUAL_THREADS_AVAILABLE = Runtime.version().feature() >= 21;
+
+    @Test
+    void whenRuntimeSupportsVirtualThreadsThenTasksRunOnVirtualThreads() throws Exception {
+        assumeTrue(VIRTUAL_THREADS_AVAILABLE);
+
+        VirtualThreadsConfig virtualThreadsConfig = new VirtualThreadsConfig();
+        AsyncTaskExecutor executor = virtualThreadsConfig.applicationTaskExecutor();
+
+        Future<Object> isVirtual = executor.submit(
+                () -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+
+        assertThat(isVirtual.get(), is(equalTo(true)));
+        virtualThreadsConfig.shutdown();
+    }
+
+    @Test
+    void whenRuntimeHasNoVirtualThreadsThenStartupFails() {
+        assumeFalse(VIRTUAL_THREADS_AVAILABLE);
+
+        assertThrows(IllegalStateException.class, VirtualThreadsConfig::new);
+    }
+}
@@ -1,31 +1,63 @@
 package one.digitalinnovation.beerstock.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.controllers.BeerController;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryTotalsDTO;
 import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.infrastructure.configs.ResponseCacheProperties;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidBeerImportException;
+import one.digitalinnovation.beerstock.services.BeerImportService;
+import one.digitalinnovation.beerstock.services.BeerResponseCache;
 import one.digitalinnovation.beerstock.services.BeerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static one.digitalinnovation.beerstock.utils.JsonConversionUtils.asJsonString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
 
@@ -41,11 +73,19 @@ class BeerControllerTest {
     @Mock // What we WANT to mock
     private BeerService beerService;
 
-    @InjectMocks // What we WANT TO INJECT mocked classes indicated by @Mock
+    @Mock
+    private BeerImportService beerImportService;
+
+    @Spy // Real object
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     private BeerController beerController;
 
     @BeforeEach
     void setUp() {
+        // built by hand, as the response cache needs the mocked service
+        beerController = new BeerController(beerService, objectMapper,
+                new BeerResponseCache(beerService, objectMapper, new ResponseCacheProperties()), beerImportService);
         mockMvc = MockMvcBuilders.standaloneSetup(beerController)
             .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
             .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
@@ -70,6 +110,23 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.beerType", is(beerDTO.getBeerType().toString())));
     }
 
+    @Test
+    void whenPOSTIsCalledWithAVersionThenItIsIgnored() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().version(7L).build().toBeerDTO();
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerService.createBeer(expectedBeerDTO)).thenReturn(expectedBeerDTO);
+
+        // then
+        mockMvc.perform(post(BASE_URI_PATH + BEERS_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isCreated());
+        verify(beerService, times(1)).createBeer(expectedBeerDTO);
+    }
+
     @Test
     void whenPOSTIsCalledWithoutRequiredFieldThenAnErrorIsCreated() throws Exception {
         // given
@@ -100,6 +157,114 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$.beerType", is(beerDTO.getBeerType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledThenTheChangeTagIsReturnedAsETag() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.7");
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + "/" + beerDTO.getName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1.7\""));
+    }
+
+    @Test
+    void whenGETIsCalledWithCurrentETagThenNotModifiedIsReturnedWithoutReadingBeers() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.7");
+
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + "/" + beerDTO.getName())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1.7\""))
+                .andExpect(status().isNotModified());
+
+        verify(beerService, never()).findByName(beerDTO.getName());
+        verify(beerService, never()).listAll();
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingGzipThenThePrecompressedBodyIsReturned() throws Exception {
+        List<BeerDTO> beers = IntStream.range(0, 50)
+                .mapToObj(i -> BeerDTOBuilder.builder().id((long) i).name("Brahma " + i).build().toBeerDTO())
+                .collect(Collectors.toList());
+
+        when(beerService.getChangeTag()).thenReturn("k1.7");
+        when(beerService.listAll()).thenReturn(beers);
+
+        byte[] body = mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream uncompressed = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(uncompressed.readAllBytes(), is(objectMapper.writeValueAsBytes(beers)));
+        }
+    }
+
+    @Test
+    void whenGETListIsCalledRefusingGzipThenTheIdentityBodyAndETagAreReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.7");
+        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1.7\""));
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1.7-gzip\""));
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingCborThenCborIsReturnedWithItsOwnETag() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.7");
+        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+
+        byte[] body = mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1.7-cbor\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readValue(body, BeerDTO[].class), is(new BeerDTO[]{beerDTO}));
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingNoKnownFormatThenNotAcceptableIsReturned() throws Exception {
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isNotAcceptable());
+
+        verify(beerService, never()).listAll();
+    }
+
+    @Test
+    void whenGETListIsCalledWithOutdatedETagThenBeersAreReturned() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.8");
+        when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1.7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"k1.8\""))
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    }
+
     @Test
     void whenGETIsCalledWithoutValidNameThenAnNotFoundStatusIsReturned() throws Exception {
         // given
@@ -131,6 +296,192 @@ class BeerControllerTest {
                 .andExpect(jsonPath("$[0].beerType", is(beerDTO.getBeerType().toString())));
     }
 
+
+    @Test
+    void whenGETListIsCalledWithLimitThenAPageIsReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        CursorPageDTO<BeerDTO> page = new CursorPageDTO<>(Collections.singletonList(beerDTO), beerDTO.getId());
+
+        // when
+        when(beerService.listPage(0L, 1)).thenReturn(page);
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .param(LIMIT_PARAM, "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.nextCursor", is(beerDTO.getId().intValue())));
+    }
+
+    @Test
+    void whenGETListIsCalledWithCursorOnlyThenADefaultSizedPageIsReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        CursorPageDTO<BeerDTO> page = new CursorPageDTO<>(Collections.singletonList(beerDTO), null);
+
+        // when
+        when(beerService.listPage(7L, DEFAULT_PAGE_SIZE)).thenReturn(page);
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH)
+                .param(AFTER_PARAM, "7")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(beerDTO.getName())));
+        verify(beerService, never()).listAll();
+    }
+
+
+    @Test
+    void whenGETSearchIsCalledThenMatchingBeersAreReturned() throws Exception {
+        // given
+        BeerSearchResultDTO searchResultDTO = BeerSearchResultDTO.builder()
+                .id(1L)
+                .name("Brahma")
+                .brand("Ambev")
+                .build();
+
+        // when
+        when(beerService.search("bra", 10)).thenReturn(Collections.singletonList(searchResultDTO));
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + SEARCH_URI_PATH)
+                .param(QUERY_PARAM, "bra")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(searchResultDTO.getName())))
+                .andExpect(jsonPath("$[0].brand", is(searchResultDTO.getBrand())));
+    }
+
+    @Test
+    void whenGETStatsIsCalledThenInventoryTotalsAreReturned() throws Exception {
+        // given
+        InventoryTotalsDTO totalsDTO = InventoryTotalsDTO.builder().skus(2).units(40).capacity(150).build();
+        InventoryStatsDTO statsDTO = InventoryStatsDTO.builder()
+                .byBeerType(Collections.singletonMap(BeerType.LAGER, totalsDTO))
+                .byBrand(Collections.singletonMap("Ambev", totalsDTO))
+                .build();
+
+        // when
+        when(beerService.getInventoryStats()).thenReturn(statsDTO);
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + STATS_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byBeerType.LAGER.units", is(40)))
+                .andExpect(jsonPath("$.byBrand.Ambev.skus", is(2)))
+                .andExpect(jsonPath("$.byBrand.Ambev.capacity", is(150)));
+    }
+
+    @Test
+    void whenGETQuantityIsCalledWithATimeThenTheStockLevelAtThatTimeIsReturned() throws Exception {
+        // given
+        Instant at = Instant.parse("2026-10-18T12:00:00Z");
+        StockLevelDTO stockLevelDTO = StockLevelDTO.builder().beerId(1L).at(at).quantity(18).build();
+
+        // when
+        when(beerService.getQuantityAt(1L, at)).thenReturn(stockLevelDTO);
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + "/1" + QUANTITY_URI_PATH)
+                .param(AT_PARAM, "2026-10-18T12:00:00Z")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beerId", is(1)))
+                .andExpect(jsonPath("$.quantity", is(18)));
+    }
+
+    @Test
+    void whenGETQuantityIsCalledForAnUnknownBeerThenNotFoundStatusIsReturned() throws Exception {
+        // when
+        when(beerService.getQuantityAt(eq(1L), any(Instant.class))).thenThrow(BeerNotFoundException.class);
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + "/1" + QUANTITY_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenGETLowStockWatchlistIsCalledThenLowStockBeersAreReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(1).build().toBeerDTO();
+
+        // when
+        when(beerService.listLowStock(5)).thenReturn(Collections.singletonList(beerDTO));
+
+        // then
+        mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + WATCHLIST_URI_PATH + LOW_STOCK_URI_PATH)
+                .param(LIMIT_PARAM, "5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].quantity", is(beerDTO.getQuantity())));
+    }
+
+
+    @Test
+    void whenGETExportIsCalledThenBeersAreStreamedAsNdjson() throws Exception {
+        // given
+        BeerDTO firstBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+        // when
+        doAnswer(invocation -> {
+            Consumer<BeerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(firstBeerDTO);
+            consumer.accept(secondBeerDTO);
+            return null;
+        }).when(beerService).exportAll(any());
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(get(BASE_URI_PATH + BEERS_URI_PATH + EXPORT_URI_PATH))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(asJsonString(firstBeerDTO) + "\n" + asJsonString(secondBeerDTO) + "\n"));
+    }
+
+    @Test
+    void whenCSVIsPOSTedToImportThenTheImportReportIsReturned() throws Exception {
+        // given
+        BeerImportResultDTO result = BeerImportResultDTO.builder()
+                .imported(1)
+                .rejected(1)
+                .errors(List.of(new BeerImportErrorDTO(2, "Skol", "max must be a whole number")))
+                .build();
+
+        // when
+        when(beerImportService.importCsv(any())).thenReturn(result);
+
+        // then
+        mockMvc.perform(post(BASE_URI_PATH + BEERS_URI_PATH + IMPORT_URI_PATH)
+                .contentType(CSV_MEDIA_TYPE)
+                .content("name,brand,max,quantity,beerType\nBrahma,Ambev,50,10,LAGER\nSkol,Ambev,fifty,10,LAGER\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].message", is("max must be a whole number")));
+    }
+
+    @Test
+    void whenCSVWithoutRequiredColumnsIsPOSTedToImportThenBadRequestIsReturned() throws Exception {
+        // when
+        when(beerImportService.importCsv(any())).thenThrow(new InvalidBeerImportException("missing columns [beerType]"));
+
+        // then
+        mockMvc.perform(post(BASE_URI_PATH + BEERS_URI_PATH + IMPORT_URI_PATH)
+                .contentType(CSV_MEDIA_TYPE)
+                .content("name,brand,max,quantity\nBrahma,Ambev,50,10\n"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
         // when
@@ -162,7 +513,7 @@ class BeerControllerTest {
 
         beerDTO.setQuantity(beerDTO.getQuantity() + quantityDTO.getQuantity());
 
-        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity(), null)).thenReturn(beerDTO);
 
         var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + INCREMENT_URI_PATH;
         mockMvc.perform(patch(urlPath)
@@ -184,7 +535,7 @@ class BeerControllerTest {
 
         doThrow(BeerStockExceededException.class)
                 .when(beerService)
-                .increment(VALID_BEER_ID, quantityDTO.getQuantity());
+                .increment(VALID_BEER_ID, quantityDTO.getQuantity(), null);
 
         var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + INCREMENT_URI_PATH;
         mockMvc.perform(patch(urlPath)
@@ -193,6 +544,56 @@ class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPATCHIsCalledToIncrementWithAnIdempotencyKeyThenTheKeyIsPassedOn() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
+
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity(), "retry-1")).thenReturn(beerDTO);
+
+        var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + INCREMENT_URI_PATH;
+        mockMvc.perform(patch(urlPath)
+                .header(IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementWithAReusedIdempotencyKeyThenUnprocessableEntityStatusIsReturned()
+            throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+        doThrow(IdempotencyKeyReusedException.class)
+                .when(beerService)
+                .decrement(VALID_BEER_ID, quantityDTO.getQuantity(), "retry-1");
+
+        var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + DECREMENT_URI_PATH;
+        mockMvc.perform(patch(urlPath)
+                .header(IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementWhileTheSameKeyIsInProgressThenConflictStatusIsReturned()
+            throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+        doThrow(IdempotencyKeyInProgressException.class)
+                .when(beerService)
+                .increment(VALID_BEER_ID, quantityDTO.getQuantity(), "retry-1");
+
+        var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + INCREMENT_URI_PATH;
+        mockMvc.perform(patch(urlPath)
+                .header(IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void whenPATCHIsCalledToDecrementBeerThenOkStatusIsReturned() throws Exception {
         QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build(); // edge case: 10 - 10 >= 0
@@ -200,7 +601,7 @@ class BeerControllerTest {
 
         beerDTO.setQuantity(beerDTO.getQuantity() - quantityDTO.getQuantity());
 
-        when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+        when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity(), null)).thenReturn(beerDTO);
 
         var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + DECREMENT_URI_PATH;
         mockMvc.perform(patch(urlPath)
@@ -222,7 +623,7 @@ class BeerControllerTest {
 
         doThrow(BeerStockExceededException.class)
                 .when(beerService)
-                .decrement(VALID_BEER_ID, quantityDTO.getQuantity());
+                .decrement(VALID_BEER_ID, quantityDTO.getQuantity(), null);
 
         var urlPath = BASE_URI_PATH + BEERS_URI_PATH + "/" + VALID_BEER_ID + "/" + DECREMENT_URI_PATH;
         mockMvc.perform(patch(urlPath)
@@ -230,4 +631,34 @@ class BeerControllerTest {
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockThenOkStatusIsReturned() throws Exception {
+        StockAdjustmentDTO adjustmentDTO = StockAdjustmentDTO.builder().beerId(VALID_BEER_ID).delta(-5).build();
+        StockAdjustmentBatchDTO batchDTO = new StockAdjustmentBatchDTO(Collections.singletonList(adjustmentDTO));
+        StockAdjustmentResultDTO resultDTO = StockAdjustmentResultDTO.builder()
+                .beerId(VALID_BEER_ID)
+                .delta(-5)
+                .success(true)
+                .build();
+
+        when(beerService.adjustStock(batchDTO.getAdjustments())).thenReturn(Collections.singletonList(resultDTO));
+
+        mockMvc.perform(patch(BASE_URI_PATH + BEERS_URI_PATH + STOCK_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(batchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].beerId", is((int) VALID_BEER_ID)))
+                .andExpect(jsonPath("$[0].success", is(true)));
+    }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockWithoutAdjustmentsThenBadRequestStatusIsReturned() throws Exception {
+        StockAdjustmentBatchDTO batchDTO = new StockAdjustmentBatchDTO(Collections.emptyList());
+
+        mockMvc.perform(patch(BASE_URI_PATH + BEERS_URI_PATH + STOCK_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(batchDTO)))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,122 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.controllers.ReactiveBeerController;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.QuantityDTO;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.services.ReactiveBeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBeerControllerTest {
+
+    private static final long VALID_BEER_ID = 1L;
+    private static final long INVALID_BEER_ID = 2L;
+    private static final String BEERS_URI = BASE_URI_PATH + BEERS_URI_PATH;
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ReactiveBeerService reactiveBeerService;
+
+    @InjectMocks
+    private ReactiveBeerController reactiveBeerController;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(reactiveBeerController).build();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenABeerIsCreated() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(reactiveBeerService.createBeer(beerDTO)).thenReturn(Mono.just(beerDTO));
+
+        webTestClient.post().uri(BEERS_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(beerDTO.getName())
+                .jsonPath("$.quantity").isEqualTo(beerDTO.getQuantity());
+    }
+
+    @Test
+    void whenPOSTIsCalledWithoutRequiredFieldThenBadRequestIsReturned() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand(null);
+
+        webTestClient.post().uri(BEERS_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(reactiveBeerService, never()).createBeer(any(BeerDTO.class));
+    }
+
+    @Test
+    void whenGETIsCalledWithInvalidNameThenNotFoundIsReturned() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(reactiveBeerService.findByName(beerDTO.getName()))
+                .thenReturn(Mono.error(new BeerNotFoundException(beerDTO.getName())));
+
+        webTestClient.get().uri(BEERS_URI + "/" + beerDTO.getName())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGETListAsNdjsonIsCalledThenBeersAreStreamed() {
+        BeerDTO first = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO second = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+        when(reactiveBeerService.listAll()).thenReturn(Flux.just(first, second));
+
+        webTestClient.get().uri(BEERS_URI)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BeerDTO.class).contains(first, second).hasSize(2);
+    }
+
+    @Test
+    void whenDELETEIsCalledWithValidIdThenNoContentIsReturned() {
+        when(reactiveBeerService.deleteById(VALID_BEER_ID)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri(BEERS_URI + "/" + VALID_BEER_ID)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementWithInvalidIdThenNotFoundIsReturned() {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(10).build();
+
+        when(reactiveBeerService.increment(INVALID_BEER_ID, quantityDTO.getQuantity()))
+                .thenReturn(Mono.error(new BeerNotFoundException(INVALID_BEER_ID)));
+
+        webTestClient.patch().uri(BEERS_URI + "/" + INVALID_BEER_ID + INCREMENT_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
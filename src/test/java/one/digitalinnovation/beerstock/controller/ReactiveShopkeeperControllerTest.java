@@ -0,0 +1,149 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
+import one.digitalinnovation.beerstock.controllers.ReactiveShopkeeperController;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
+import one.digitalinnovation.beerstock.services.ShopkeeperService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+import java.util.List;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveShopkeeperControllerTest {
+
+    private static final long VALID_SHOPKEEPER_ID = 1L;
+    private static final long INVALID_SHOPKEEPER_ID = 2L;
+    private static final String SHOPKEEPERS_URI = BASE_URI_PATH + SHOPKEEPERS_URI_PATH;
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ShopkeeperService shopkeeperService;
+
+    @InjectMocks
+    private ReactiveShopkeeperController reactiveShopkeeperController;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(reactiveShopkeeperController).build();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenAShopkeeperIsCreated() throws Exception {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+
+        when(shopkeeperService.createShopkeeper(shopkeeperDTO)).thenReturn(shopkeeperDTO);
+
+        webTestClient.post().uri(SHOPKEEPERS_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(shopkeeperDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(shopkeeperDTO.getName());
+    }
+
+    @Test
+    void whenGETIsCalledWithInvalidNameThenNotFoundIsReturned() throws Exception {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+
+        when(shopkeeperService.getChangeTag()).thenReturn("k1.3.2");
+        when(shopkeeperService.findByName(shopkeeperDTO.getName()))
+                .thenThrow(new ShopkeeperNotFoundException(shopkeeperDTO.getName()));
+
+        webTestClient.get().uri(SHOPKEEPERS_URI + "/" + shopkeeperDTO.getName())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGETListIsCalledThenTheShopkeepersAreReturnedWithAnETag() {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+
+        when(shopkeeperService.getChangeTag()).thenReturn("k1.3.2");
+        when(shopkeeperService.listAll()).thenReturn(List.of(shopkeeperDTO));
+
+        webTestClient.get().uri(SHOPKEEPERS_URI)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"k1.3.2\"")
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo(shopkeeperDTO.getName());
+    }
+
+    @Test
+    void whenGETListIsCalledWithCurrentETagThenNotModifiedIsReturnedWithoutReadingShopkeepers() {
+        when(shopkeeperService.getChangeTag()).thenReturn("k1.3.2");
+
+        webTestClient.get().uri(SHOPKEEPERS_URI)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1.3.2\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        verify(shopkeeperService, never()).listAll();
+    }
+
+    @Test
+    void whenGETListIsCalledWithCursorOnlyThenADefaultSizedPageIsReturned() {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+        CursorPageDTO<ShopkeeperDTO> page = new CursorPageDTO<>(Collections.singletonList(shopkeeperDTO), null);
+
+        when(shopkeeperService.getChangeTag()).thenReturn("k1.3.2");
+        when(shopkeeperService.listPage(VALID_SHOPKEEPER_ID, DEFAULT_PAGE_SIZE)).thenReturn(page);
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder.path(SHOPKEEPERS_URI)
+                        .queryParam(AFTER_PARAM, VALID_SHOPKEEPER_ID)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo(shopkeeperDTO.getName());
+        verify(shopkeeperService, never()).listAll();
+    }
+
+    @Test
+    void whenDELETEIsCalledWithValidIdThenNoContentIsReturned() throws Exception {
+        webTestClient.delete().uri(SHOPKEEPERS_URI + "/" + VALID_SHOPKEEPER_ID)
+                .exchange()
+                .expectStatus().isNoContent();
+        verify(shopkeeperService).deleteById(VALID_SHOPKEEPER_ID);
+    }
+
+    @Test
+    void whenDELETEIsCalledWithInvalidIdThenNotFoundIsReturned() throws Exception {
+        doThrow(new ShopkeeperNotFoundException(INVALID_SHOPKEEPER_ID)).when(shopkeeperService)
+                .deleteById(INVALID_SHOPKEEPER_ID);
+
+        webTestClient.delete().uri(SHOPKEEPERS_URI + "/" + INVALID_SHOPKEEPER_ID)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenPOSTonAddIsCalledWithInvalidBeersIdsThenNotFoundIsReturned() throws Exception {
+        List<Long> beerIds = List.of(3L);
+
+        when(shopkeeperService.addBeersToShopkeeper(VALID_SHOPKEEPER_ID, beerIds))
+                .thenThrow(new BeerNotFoundException(3L));
+
+        webTestClient.post().uri(SHOPKEEPERS_URI + "/" + VALID_SHOPKEEPER_ID + ADD_BEER_TO_SHOPKEEPER_URI_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerIds)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
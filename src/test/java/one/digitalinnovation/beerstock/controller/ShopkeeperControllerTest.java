@@ -4,6 +4,7 @@ import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
 import one.digitalinnovation.beerstock.controllers.ShopkeeperController;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
@@ -16,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -133,6 +135,48 @@ class ShopkeeperControllerTest {
                 .andExpect(jsonPath("$[0].name", is(shopkeeperDTO.getName())));
     }
 
+    @Test
+    void whenGETListIsCalledWithCurrentETagThenNotModifiedIsReturnedWithoutReadingShopkeepers() throws Exception {
+        when(shopkeeperService.getChangeTag()).thenReturn("k1.3.2");
+
+        mockMvc.perform(get(BASE_URI_PATH + SHOPKEEPERS_URI_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1.3.2\""))
+                .andExpect(status().isNotModified());
+
+        verify(shopkeeperService, never()).listAll();
+    }
+
+    @Test
+    void whenGETListIsCalledWithCursorAndLimitThenAPageIsReturned() throws Exception {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+        CursorPageDTO<ShopkeeperDTO> page = new CursorPageDTO<>(Collections.singletonList(shopkeeperDTO), null);
+
+        when(shopkeeperService.listPage(VALID_SHOPKEEPER_ID, 10)).thenReturn(page);
+
+        mockMvc.perform(get(BASE_URI_PATH + SHOPKEEPERS_URI_PATH)
+                .param(AFTER_PARAM, VALID_SHOPKEEPER_ID.toString())
+                .param(LIMIT_PARAM, "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is(shopkeeperDTO.getName())));
+    }
+
+    @Test
+    void whenGETListIsCalledWithCursorOnlyThenADefaultSizedPageIsReturned() throws Exception {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+        CursorPageDTO<ShopkeeperDTO> page = new CursorPageDTO<>(Collections.singletonList(shopkeeperDTO), null);
+
+        when(shopkeeperService.listPage(VALID_SHOPKEEPER_ID, DEFAULT_PAGE_SIZE)).thenReturn(page);
+
+        mockMvc.perform(get(BASE_URI_PATH + SHOPKEEPERS_URI_PATH)
+                .param(AFTER_PARAM, VALID_SHOPKEEPER_ID.toString())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+        verify(shopkeeperService, never()).listAll();
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
         // when
@@ -168,7 +212,8 @@ class ShopkeeperControllerTest {
                 firstBeerDTO.getBrand(),
                 firstBeerDTO.getQuantity(),
                 firstBeerDTO.getMax(),
-                firstBeerDTO.getBeerType()
+                firstBeerDTO.getBeerType(),
+                null
         );
 
         shopkeeperDTO.setBeers(Stream.of(firstBeerDTO, secondBeerDTO).collect(Collectors.toList()));
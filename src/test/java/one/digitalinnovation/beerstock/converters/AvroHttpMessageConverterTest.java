@@ -0,0 +1,101 @@
+package one.digitalinnovation.beerstock.converters;
+
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.infrastructure.converters.AvroHttpMessageConverter;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.AVRO_MEDIA_TYPE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class AvroHttpMessageConverterTest {
+
+    private static final MediaType AVRO = MediaType.valueOf(AVRO_MEDIA_TYPE);
+
+    private static final Type BEER_LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, BeerDTO.class).getType();
+
+    private final AvroHttpMessageConverter converter = new AvroHttpMessageConverter();
+
+    @Test
+    void whenBeerListIsWrittenThenItIsReadBack() throws Exception {
+        List<BeerDTO> beers = List.of(
+                BeerDTOBuilder.builder().build().toBeerDTO(),
+                BeerDTOBuilder.builder().id(2L).name("Guinness").type(BeerType.STOUT).version(3L).build().toBeerDTO());
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(beers, BEER_LIST_TYPE, AVRO, outputMessage);
+
+        Object readBeers = converter.read(BEER_LIST_TYPE, null, new MockHttpInputMessage(outputMessage.getBodyAsBytes()));
+
+        assertThat(outputMessage.getHeaders().getContentType(), is(equalTo(AVRO)));
+        // the version is written for clients, but never read from them
+        beers.get(1).setVersion(null);
+        assertThat(readBeers, is(equalTo(beers)));
+    }
+
+    @Test
+    void whenShopkeeperIsWrittenThenItsBeersAreReadBack() throws Exception {
+        ShopkeeperDTO shopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
+        shopkeeperDTO.setBeers(List.of(BeerDTOBuilder.builder().build().toBeerDTO()));
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(shopkeeperDTO, ShopkeeperDTO.class, AVRO, outputMessage);
+
+        Object readShopkeeper = converter.read(ShopkeeperDTO.class, null,
+                new MockHttpInputMessage(outputMessage.getBodyAsBytes()));
+
+        assertThat(readShopkeeper, is(equalTo(shopkeeperDTO)));
+    }
+
+    @Test
+    void whenBeerIsWrittenThenBeerTypeIsAnEnumOfTheDeclaredConstants() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().type(BeerType.IPA).build().toBeerDTO();
+        Schema schema = new AvroMapper().schemaFor(BeerDTO.class).getAvroSchema();
+
+        GenericRecord record = new GenericDatumReader<GenericRecord>(schema)
+                .read(null, DecoderFactory.get().binaryDecoder(converter.encode(beerDTO, BeerDTO.class), null));
+
+        Schema beerTypeSchema = schema.getField("beerType").schema().getTypes().stream()
+                .filter(type -> type.getType() == Schema.Type.ENUM)
+                .findFirst()
+                .orElseThrow();
+        assertThat(beerTypeSchema.getEnumSymbols(), is(equalTo(
+                Arrays.stream(BeerType.values()).map(Enum::name).collect(Collectors.toList()))));
+        assertThat(record.get("beerType").toString(), is(equalTo(BeerType.IPA.name())));
+    }
+
+    @Test
+    void whenOtherMediaTypeOrTypeWithoutSchemaIsAskedThenItIsNotWritable() {
+        Type mapType = ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class).getType();
+
+        assertThat(converter.canWrite(BEER_LIST_TYPE, List.class, MediaType.APPLICATION_JSON), is(false));
+        assertThat(converter.canWrite(BEER_LIST_TYPE, List.class, AVRO), is(true));
+        assertThat(converter.canWrite(mapType, Map.class, AVRO), is(false));
+    }
+
+    @Test
+    void whenRawListClassIsAskedThenAvroIsStillListedAsProducible() {
+        assertThat(converter.getSupportedMediaTypes(ArrayList.class), is(equalTo(List.of(AVRO))));
+    }
+}
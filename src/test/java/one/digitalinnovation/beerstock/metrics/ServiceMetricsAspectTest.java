@@ -0,0 +1,153 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.ReactiveBeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.ServiceMetricsAspect;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.services.BeerCache;
+import one.digitalinnovation.beerstock.services.BeerSearchIndex;
+import one.digitalinnovation.beerstock.services.BeerService;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.IdempotencyStore;
+import one.digitalinnovation.beerstock.services.InventoryStats;
+import one.digitalinnovation.beerstock.services.ReactiveBeerService;
+import one.digitalinnovation.beerstock.services.StockEngine;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static one.digitalinnovation.beerstock.infrastructure.metrics.ServiceMetricsAspect.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    private static final long INVALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockEngine stockEngine;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private BeerSearchIndex beerSearchIndex;
+
+    @Mock
+    private StockMetrics stockMetrics;
+
+    @Mock
+    private StockWatchlist stockWatchlist;
+
+    @Mock
+    private InventoryStats inventoryStats;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Mock
+    private ReactiveBeerRepository reactiveBeerRepository;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BeerService beerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new BeerService(beerRepository, stockEngine, beerCache, beerSearchIndex, stockMetrics,
+                        stockWatchlist, inventoryStats, stockLedger, idempotencyStore, changeVersions));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        beerService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenServiceMethodSucceedsThenItIsTimedWithSuccessOutcome() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        when(stockLedger.addToQuantity(beerDTO.getId(), 10)).thenReturn(Optional.of(beer));
+
+        beerService.increment(beerDTO.getId(), 10);
+
+        assertThat(timer("increment", SUCCESS).count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenServiceMethodFailsThenItIsTimedWithItsOutcome() {
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, 10)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false, true);
+
+        assertThrows(BeerNotFoundException.class, () -> beerService.increment(INVALID_BEER_ID, 10));
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(INVALID_BEER_ID, 10));
+
+        assertThat(timer("increment", NOT_FOUND).count(), is(equalTo(1L)));
+        assertThat(timer("increment", EXCEEDED).count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenReactiveServiceMethodIsCalledThenItIsTimedOnceSubscribed() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ReactiveBeerService(
+                reactiveBeerRepository, null, null, null, null, null, null, null));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        ReactiveBeerService reactiveBeerService = proxyFactory.getProxy();
+        when(reactiveBeerRepository.findByName("Brahma")).thenReturn(Mono.empty());
+
+        Mono<BeerDTO> foundBeer = reactiveBeerService.findByName("Brahma");
+        assertThat(meterRegistry.find(SERVICE_METRIC).timer(), is(nullValue()));
+
+        StepVerifier.create(foundBeer)
+                .expectError(BeerNotFoundException.class)
+                .verify();
+        assertThat(timer(ReactiveBeerService.class, "findByName", NOT_FOUND).count(), is(equalTo(1L)));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return timer(BeerService.class, method, outcome);
+    }
+
+    private Timer timer(Class<?> serviceClass, String method, String outcome) {
+        return meterRegistry.get(SERVICE_METRIC)
+                .tag("class", serviceClass.getSimpleName())
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics.BEERS_METRIC;
+import static one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics.UNITS_METRIC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockMetricsTest {
+
+    @Mock
+    private StockWatchlist stockWatchlist;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockMetrics stockMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockMetrics = new StockMetrics(meterRegistry, stockWatchlist);
+    }
+
+    @Test
+    void whenUnitsAreMovedThenTheyAreCountedPerOperationAndBeerType() {
+        stockMetrics.recordIncrement(BeerType.LAGER, 10);
+        stockMetrics.recordAdjustment(BeerType.LAGER, 5);
+        stockMetrics.recordAdjustment(BeerType.IPA, -3);
+        stockMetrics.recordDecrement(null, 2);
+
+        assertThat(units("increment", "LAGER"), is(equalTo(15.0)));
+        assertThat(units("decrement", "IPA"), is(equalTo(3.0)));
+        assertThat(units("decrement", "unknown"), is(equalTo(2.0)));
+    }
+
+    @Test
+    void whenGaugesAreReadThenEmptyAndFullBeersAreCounted() {
+        when(stockWatchlist.countEmpty()).thenReturn(2);
+        when(stockWatchlist.countFull()).thenReturn(3);
+
+        assertThat(meterRegistry.get(BEERS_METRIC).tag("level", "empty").gauge().value(), is(equalTo(2.0)));
+        assertThat(meterRegistry.get(BEERS_METRIC).tag("level", "full").gauge().value(), is(equalTo(3.0)));
+    }
+
+    private double units(String operation, String beerType) {
+        return meterRegistry.get(UNITS_METRIC)
+                .tag("operation", operation)
+                .tag("beer.type", beerType)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,207 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.InventoryTotals;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+class BeerRepositoryTest {
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private Beer savedBeer;
+
+    @BeforeEach
+    void setUp() {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        savedBeer = beerRepository.saveAndFlush(beer);
+    }
+
+    @Test
+    void whenDeltaIsWithinBoundsThenQuantityIsUpdated() {
+        int updatedRows = beerRepository.addToQuantity(savedBeer.getId(), 40); // edge case: 10 + 40 = 50
+
+        assertThat(updatedRows, is(equalTo(1)));
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getQuantity(), is(equalTo(50)));
+    }
+
+    @Test
+    void whenStockIsSummedThenBeersAreGroupedByBeerTypeAndBrand() {
+        beerRepository.saveAndFlush(beerMapper.toModel(BeerDTOBuilder.builder()
+                .id(null).name("Skol").max(100).quantity(30).build().toBeerDTO()));
+
+        List<InventoryTotals> totals = beerRepository.sumStockByBeerTypeAndBrand();
+
+        assertThat(totals.size(), is(equalTo(1)));
+        InventoryTotals ambevLagers = totals.get(0);
+        assertThat(ambevLagers.getBeerType(), is(equalTo(savedBeer.getBeerType())));
+        assertThat(ambevLagers.getBrand(), is(equalTo(savedBeer.getBrand())));
+        assertThat(ambevLagers.getSkus(), is(equalTo(2L)));
+        assertThat(ambevLagers.getUnits(), is(equalTo(40L)));
+        assertThat(ambevLagers.getCapacity(), is(equalTo(150L)));
+    }
+
+    @Test
+    void whenDeltaExceedsMaxThenNothingIsUpdated() {
+        int updatedRows = beerRepository.addToQuantity(savedBeer.getId(), 41); // edge case: 10 + 41 > 50
+
+        assertThat(updatedRows, is(equalTo(0)));
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getQuantity(), is(equalTo(10)));
+    }
+
+    @Test
+    void whenDeltaGoesBelowZeroThenNothingIsUpdated() {
+        int updatedRows = beerRepository.addToQuantity(savedBeer.getId(), -11); // edge case: 10 - 11 < 0
+
+        assertThat(updatedRows, is(equalTo(0)));
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getQuantity(), is(equalTo(10)));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenNothingIsUpdated() {
+        int updatedRows = beerRepository.addToQuantity(savedBeer.getId() + 1, 1);
+
+        assertThat(updatedRows, is(equalTo(0)));
+    }
+
+    @Test
+    void whenQuantityIsAddedAndRecordedThenTheUpdatedBeerAndItsMovementAreWritten() {
+        Beer updatedBeer = beerRepository.addToQuantityAndRecord(savedBeer.getId(), 40, Instant.now()).orElseThrow();
+
+        assertThat(updatedBeer.getQuantity(), is(equalTo(50)));
+        assertThat(updatedBeer.getVersion(), is(equalTo(savedBeer.getVersion() + 1)));
+        assertThat(stockMovementRepository.findAll().stream()
+                .map(movement -> List.of(movement.getBeerId(), movement.getDelta().longValue()))
+                .collect(Collectors.toList()), contains(List.of(savedBeer.getId(), 40L)));
+    }
+
+    @Test
+    void whenQuantityToRecordExceedsMaxThenNothingIsUpdatedOrRecorded() {
+        assertThat(beerRepository.addToQuantityAndRecord(savedBeer.getId(), 41, Instant.now()).isEmpty(), is(true));
+
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getQuantity(), is(equalTo(10)));
+        assertThat(stockMovementRepository.count(), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenAdjustmentsAreBatchedThenEachOneIsGuardedIndividually() {
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(savedBeer.getId(), 30),
+                new StockAdjustmentDTO(savedBeer.getId(), 30), // edge case: 40 + 30 > 50
+                new StockAdjustmentDTO(savedBeer.getId() + 1, 1),
+                new StockAdjustmentDTO(savedBeer.getId(), -40));
+
+        int[] updatedRows = beerRepository.addToQuantities(adjustments);
+
+        assertThat(updatedRows, is(equalTo(new int[]{1, 0, 0, 1})));
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getQuantity(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenBatchedAdjustmentsAreRecordedThenOnlyTheAppliedOnesAreWrittenToTheLedger() {
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(savedBeer.getId(), 30),
+                new StockAdjustmentDTO(savedBeer.getId(), 30)); // edge case: 40 + 30 > 50
+
+        int[] updatedRows = beerRepository.addToQuantitiesAndRecord(adjustments, Instant.now());
+
+        assertThat(updatedRows, is(equalTo(new int[]{1, 0})));
+        assertThat(stockMovementRepository.findAll().stream()
+                .map(movement -> List.of(movement.getBeerId(), movement.getDelta().longValue()))
+                .collect(Collectors.toList()), contains(List.of(savedBeer.getId(), 30L)));
+    }
+
+    @Test
+    void whenNamesAreCheckedThenOnlyRegisteredOnesAreReturned() {
+        assertThat(beerRepository.findNamesByNameIn(List.of("Skol", "Heineken", savedBeer.getName())),
+                contains(savedBeer.getName()));
+    }
+
+    @Test
+    void whenBeersAreSavedTogetherThenTheirIdsAreTakenFromOneSequenceBlock() {
+        List<Beer> newBeers = Stream.of("Skol", "Bohemia", "Heineken")
+                .map(name -> beerMapper.toModel(BeerDTOBuilder.builder().id(null).name(name).build().toBeerDTO()))
+                .collect(Collectors.toList());
+
+        List<Long> ids = beerRepository.saveAll(newBeers).stream()
+                .map(Beer::getId)
+                .collect(Collectors.toList());
+        beerRepository.flush();
+
+        // pooled-lo: ids follow the first one in memory, without going back to the sequence
+        assertThat(ids, contains(savedBeer.getId() + 1, savedBeer.getId() + 2, savedBeer.getId() + 3));
+        assertThat(beerRepository.findNamesByNameIn(List.of("Skol", "Bohemia", "Heineken")),
+                containsInAnyOrder("Skol", "Bohemia", "Heineken"));
+    }
+
+    @Test
+    void whenQuantityIsUpdatedThenVersionIsIncremented() {
+        long version = savedBeer.getVersion();
+
+        beerRepository.addToQuantity(savedBeer.getId(), 1);
+        beerRepository.addToQuantities(List.of(new StockAdjustmentDTO(savedBeer.getId(), 1)));
+
+        assertThat(beerRepository.findById(savedBeer.getId()).orElseThrow().getVersion(), is(equalTo(version + 2)));
+    }
+
+    @Test
+    void whenStaleBeerIsSavedThenOptimisticLockingFails() {
+        beerRepository.addToQuantity(savedBeer.getId(), 1); // savedBeer now holds an outdated version
+
+        savedBeer.setName("Brahma Duplo Malte");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> beerRepository.saveAndFlush(savedBeer));
+    }
+
+    @Test
+    void whenPageIsRequestedAfterACursorThenOnlyGreaterIdsAreReturnedInOrder() {
+        Beer secondBeer = beerRepository.save(beerMapper.toModel(
+                BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO()));
+        Beer thirdBeer = beerRepository.save(beerMapper.toModel(
+                BeerDTOBuilder.builder().id(null).name("Antarctica").build().toBeerDTO()));
+
+        List<Beer> page = beerRepository.findByIdGreaterThanOrderByIdAsc(savedBeer.getId(), PageRequest.of(0, 1));
+
+        assertThat(page, contains(secondBeer));
+        assertThat(beerRepository.findByIdGreaterThanOrderByIdAsc(secondBeer.getId(), PageRequest.of(0, 5)),
+                contains(thirdBeer));
+    }
+
+    @Test
+    void whenCatalogIsStreamedThenBeersComeInIdOrder() {
+        Beer secondBeer = beerRepository.save(beerMapper.toModel(
+                BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO()));
+
+        try (Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc()) {
+            assertThat(beers.collect(Collectors.toList()), contains(savedBeer, secondBeer));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package one.digitalinnovation.beerstock.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import one.digitalinnovation.beerstock.domains.repositories.ReactiveBeerRepositoryCustomImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Runs the reactive ledger statements against an in-memory H2 database, on tables shaped
+ * like the ones JPA creates.
+ */
+class ReactiveBeerRepositoryTest {
+
+    private static final long BEER_ID = 1L;
+
+    private DatabaseClient databaseClient;
+
+    private ReactiveBeerRepositoryCustomImpl reactiveBeerRepository;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        reactiveBeerRepository = new ReactiveBeerRepositoryCustomImpl(databaseClient, connectionFactory);
+
+        execute("create table beer (id bigint primary key, name varchar(200), brand varchar(200), " +
+                "max integer, quantity integer, beer_type varchar(50), version bigint)");
+        execute("create table stock_movement (id bigint auto_increment primary key, beer_id bigint not null, " +
+                "delta integer not null, moved_at timestamp not null)");
+        execute("insert into beer values (" + BEER_ID + ", 'Brahma', 'Ambev', 50, 10, 'LAGER', 0)");
+    }
+
+    @Test
+    void whenQuantityIsAddedAndRecordedThenTheUpdatedBeerAndItsMovementAreWritten() {
+        StepVerifier.create(reactiveBeerRepository.addToQuantityAndRecord(BEER_ID, 40, Instant.now()))
+                .expectNextMatches(beer -> beer.getQuantity() == 50 && beer.getVersion() == 1)
+                .verifyComplete();
+
+        assertThat(count("select count(*) from stock_movement where beer_id = " + BEER_ID + " and delta = 40"),
+                is(equalTo(1L)));
+    }
+
+    @Test
+    void whenQuantityToRecordExceedsMaxThenNothingIsUpdatedOrRecorded() {
+        StepVerifier.create(reactiveBeerRepository.addToQuantityAndRecord(BEER_ID, 41, Instant.now()))
+                .verifyComplete();
+
+        assertThat(count("select count(*) from stock_movement"), is(equalTo(0L)));
+        assertThat(count("select quantity from beer where id = " + BEER_ID), is(equalTo(10L)));
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    private long count(String sql) {
+        return databaseClient.sql(sql)
+                .map(row -> ((Number) row.get(0)).longValue())
+                .one()
+                .block();
+    }
+}
@@ -0,0 +1,150 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.ShopkeeperRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockSnapshotRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.SecondLevelCacheConfig;
+import one.digitalinnovation.beerstock.infrastructure.configs.SecondLevelCacheProperties;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_BY_NAME_CACHE_REGION;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_CACHE_REGION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks what is read from the second-level cache, and that the guarded stock updates, which
+ * bypass Hibernate, don't leave stale beers in it. Every repository call commits on its own,
+ * as cached entries are only shared once committed.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SecondLevelCacheConfig.class, SecondLevelCacheProperties.class})
+class SecondLevelCacheRepositoryTest {
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private ShopkeeperRepository shopkeeperRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private Statistics statistics;
+
+    private Beer brahma;
+
+    private Beer skol;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        brahma = beerRepository.save(beerMapper.toModel(BeerDTOBuilder.builder().id(null).name("Brahma").build().toBeerDTO()));
+        skol = beerRepository.save(beerMapper.toModel(BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shopkeeperRepository.deleteAll();
+        stockSnapshotRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenSavedBeerIsFoundThenItComesFromTheCache() {
+        assertThat(countStatements(() -> beerRepository.findById(brahma.getId()).orElseThrow()), is(0L));
+        assertThat(statistics.getDomainDataRegionStatistics(BEER_CACHE_REGION).getHitCount(), is(1L));
+    }
+
+    @Test
+    void whenQuantityIsAddedThenOnlyThatBeerIsReadAgain() {
+        beerRepository.addToQuantity(brahma.getId(), 5);
+
+        assertThat(countStatements(() -> beerRepository.findById(brahma.getId()).orElseThrow()), is(1L));
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getQuantity(), is(equalTo(brahma.getQuantity() + 5)));
+        assertThat(countStatements(() -> beerRepository.findById(skol.getId()).orElseThrow()), is(0L));
+    }
+
+    @Test
+    void whenAdjustmentsAreBatchedThenAdjustedBeersAreReadAgain() {
+        beerRepository.addToQuantities(List.of(
+                new StockAdjustmentDTO(brahma.getId(), 5),
+                new StockAdjustmentDTO(skol.getId(), -5)));
+
+        assertThat(beerRepository.findById(brahma.getId()).orElseThrow().getQuantity(), is(equalTo(brahma.getQuantity() + 5)));
+        assertThat(beerRepository.findById(skol.getId()).orElseThrow().getQuantity(), is(equalTo(skol.getQuantity() - 5)));
+    }
+
+    @Test
+    void whenStockLedgerIsWrittenThenCachedBeersAreKept() {
+        stockMovementRepository.appendOpeningMovements(Instant.now());
+        stockSnapshotRepository.takeSnapshots(Instant.now(), Long.MAX_VALUE);
+
+        assertThat(countStatements(() -> beerRepository.findById(brahma.getId()).orElseThrow()), is(0L));
+    }
+
+    @Test
+    void whenBeerIsFoundByNameAgainThenTheQueryIsNotRun() {
+        beerRepository.findByName(brahma.getName()).orElseThrow();
+
+        assertThat(countStatements(() -> beerRepository.findByName(brahma.getName()).orElseThrow()), is(0L));
+        assertThat(statistics.getQueryRegionStatistics(BEER_BY_NAME_CACHE_REGION).getHitCount(), is(1L));
+    }
+
+    @Test
+    void whenShopkeeperIsFoundAgainThenItsBeersComeFromTheCache() {
+        Shopkeeper shopkeeper = shopkeeperRepository.save(new Shopkeeper(null, "Shopkeeper", List.of(brahma, skol), null));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Supplier<Object> findShopkeeper = () -> transactionTemplate.execute(status ->
+                shopkeeperRepository.findByName(shopkeeper.getName()).orElseThrow().getBeers().size());
+        findShopkeeper.get();
+
+        assertThat(countStatements(findShopkeeper), is(0L));
+        assertThat(findShopkeeper.get(), is(equalTo(2)));
+    }
+
+    /**
+     * @return number of statements prepared by the query
+     */
+    private long countStatements(Supplier<Object> query) {
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
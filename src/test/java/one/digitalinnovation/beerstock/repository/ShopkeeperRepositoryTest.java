@@ -0,0 +1,125 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.mappers.ShopkeeperMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.ShopkeeperRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Checks the number of SQL statements issued to load shopkeepers and map them to DTOs
+ * (which walks their beers) doesn't grow with the number of shopkeepers.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ShopkeeperRepositoryTest {
+
+    private static final int BEERS_PER_SHOPKEEPER = 3;
+
+    @Autowired
+    private ShopkeeperRepository shopkeeperRepository;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final ShopkeeperMapper shopkeeperMapper = ShopkeeperMapper.INSTANCE;
+
+    private Statistics statistics;
+
+    private List<Beer> beers;
+
+    private int shopkeeperCount;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        beers = beerRepository.saveAll(List.of(
+                beerMapper.toModel(BeerDTOBuilder.builder().id(null).name("Brahma").build().toBeerDTO()),
+                beerMapper.toModel(BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO()),
+                beerMapper.toModel(BeerDTOBuilder.builder().id(null).name("Antarctica").build().toBeerDTO())));
+    }
+
+    @Test
+    void whenAllShopkeepersAreListedThenStatementCountDoesNotGrow() {
+        long statementsForTwo = countStatements(2, () -> shopkeeperRepository.findAll());
+        long statementsForTwenty = countStatements(20, () -> shopkeeperRepository.findAll());
+
+        assertThat(statementsForTwenty, is(equalTo(statementsForTwo)));
+        assertThat(statementsForTwenty, is(equalTo(1L)));
+    }
+
+    @Test
+    void whenAPageOfShopkeepersIsListedThenStatementCountDoesNotGrow() {
+        long statementsForTwo = countStatements(2,
+                () -> shopkeeperRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 100)));
+        long statementsForTwenty = countStatements(20,
+                () -> shopkeeperRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 100)));
+
+        assertThat(statementsForTwenty, is(equalTo(statementsForTwo)));
+    }
+
+    @Test
+    void whenShopkeeperIsFoundThenBeersAreLoadedInTheSameStatement() {
+        Shopkeeper shopkeeper = createShopkeepers(1);
+
+        assertThat(countStatements(0, () -> shopkeeperRepository.findById(shopkeeper.getId()).orElseThrow()), is(1L));
+        assertThat(countStatements(0, () -> shopkeeperRepository.findByName(shopkeeper.getName()).orElseThrow()), is(1L));
+    }
+
+    /**
+     * Creates more shopkeepers, then loads them from a clean persistence context with the
+     * given query and maps the result to DTOs.
+     *
+     * @return number of statements prepared by the query and the mapping
+     */
+    private long countStatements(int shopkeepersToCreate, Supplier<Object> query) {
+        createShopkeepers(shopkeepersToCreate);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        Object result = query.get();
+        if (result instanceof List) {
+            List<?> shopkeepers = (List<?>) result;
+            assertThat(shopkeepers, hasSize(shopkeeperCount));
+            shopkeepers.forEach(shopkeeper -> shopkeeperMapper.toDTO((Shopkeeper) shopkeeper));
+        } else {
+            shopkeeperMapper.toDTO((Shopkeeper) result);
+        }
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Shopkeeper createShopkeepers(int count) {
+        Shopkeeper shopkeeper = null;
+        for (int i = 0; i < count; i++) {
+            shopkeeper = new Shopkeeper(null, "Shopkeeper " + shopkeeperCount++, List.copyOf(beers), null);
+            testEntityManager.persist(shopkeeper);
+        }
+        return shopkeeper;
+    }
+}
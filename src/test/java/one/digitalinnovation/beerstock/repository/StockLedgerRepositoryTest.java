@@ -0,0 +1,199 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.entities.StockSnapshot;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest
+class StockLedgerRepositoryTest {
+
+    private static final Instant T0 = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private Beer savedBeer;
+
+    @BeforeEach
+    void setUp() {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        savedBeer = beerRepository.saveAndFlush(beer);
+    }
+
+    @Test
+    void whenMovementsAreAppendedThenTheirDeltasAreSummedAfterAnId() {
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(savedBeer.getId(), 10)), T0);
+        stockMovementRepository.appendAll(List.of(
+                new StockAdjustmentDTO(savedBeer.getId(), 5),
+                new StockAdjustmentDTO(savedBeer.getId(), -3)), T0.plusSeconds(10));
+        Long firstMovementId = stockMovementRepository.findAll(Sort.by("id")).get(0).getId();
+
+        assertThat(stockMovementRepository.count(), is(equalTo(3L)));
+        assertThat(stockMovementRepository.sumDeltas(savedBeer.getId(), 0L, T0), is(equalTo(10L)));
+        assertThat(stockMovementRepository.sumDeltas(savedBeer.getId(), firstMovementId, T0.plusSeconds(10)), is(equalTo(2L)));
+        assertThat(stockMovementRepository.sumDeltas(savedBeer.getId(), 0L, T0.minusSeconds(1)),
+                is(nullValue()));
+    }
+
+    @Test
+    void whenBeerHasNoMovementThenItGetsAnOpeningOne() {
+        assertThat(stockMovementRepository.appendOpeningMovements(T0), is(equalTo(1)));
+        assertThat(stockMovementRepository.appendOpeningMovements(T0), is(equalTo(0)));
+
+        assertThat(stockMovementRepository.sumDeltas(savedBeer.getId(), 0L, T0),
+                is(equalTo(savedBeer.getQuantity().longValue())));
+    }
+
+    @Test
+    void whenSnapshotsAreTakenThenTheyBuildOnThePreviousOnes() {
+        Long beerId = savedBeer.getId();
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 10)), T0);
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 5)), T0.plusSeconds(10));
+
+        Long firstMovementId = stockMovementRepository.findAll(Sort.by("id")).get(0).getId();
+
+        assertThat(stockSnapshotRepository.takeSnapshots(T0.plusSeconds(5), firstMovementId), is(equalTo(1)));
+        // the beer has not moved since the last snapshot
+        assertThat(stockSnapshotRepository.takeSnapshots(T0.plusSeconds(6), firstMovementId), is(equalTo(0)));
+
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, -8)), T0.plusSeconds(20));
+        assertThat(stockSnapshotRepository.takeSnapshots(T0.plusSeconds(30), lastMovementId()), is(equalTo(1)));
+
+        StockSnapshot latestSnapshot = stockSnapshotRepository
+                .findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, T0.plusSeconds(60))
+                .orElseThrow();
+        assertThat(latestSnapshot.getTakenAt(), is(equalTo(T0.plusSeconds(30))));
+        assertThat(latestSnapshot.getQuantity(), is(equalTo(7)));
+        assertThat(stockSnapshotRepository
+                .findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, T0.plusSeconds(29))
+                .orElseThrow()
+                .getQuantity(), is(equalTo(10)));
+    }
+
+    @Test
+    void whenMovementIsRecordedBehindTheLatestSnapshotTimeThenTheNextSnapshotCountsIt() {
+        Long beerId = savedBeer.getId();
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 10)), T0);
+        stockSnapshotRepository.takeSnapshots(T0.plusSeconds(5), lastMovementId());
+        // committed after the snapshot by a transaction that started before it
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 5)), T0.plusSeconds(2));
+
+        assertThat(stockSnapshotRepository.takeSnapshots(T0.plusSeconds(6), lastMovementId()), is(equalTo(1)));
+        assertThat(stockSnapshotRepository
+                .findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, T0.plusSeconds(6))
+                .orElseThrow()
+                .getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenSnapshotsAreSupersededBeforeTheRetentionThenOnlyTheLatestOfThemIsKept() {
+        Long beerId = savedBeer.getId();
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 10)), T0);
+        stockSnapshotRepository.takeSnapshots(T0.plusSeconds(5), lastMovementId());
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 5)), T0.plusSeconds(10));
+        stockSnapshotRepository.takeSnapshots(T0.plusSeconds(30), lastMovementId());
+        stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, -3)), T0.plusSeconds(40));
+        stockSnapshotRepository.takeSnapshots(T0.plusSeconds(60), lastMovementId());
+
+        assertThat(stockSnapshotRepository.pruneSnapshots(T0.plusSeconds(50)), is(equalTo(1)));
+        assertThat(stockSnapshotRepository.pruneSnapshots(T0.plusSeconds(50)), is(equalTo(0)));
+
+        assertThat(stockSnapshotRepository.findAll().stream()
+                .map(StockSnapshot::getTakenAt)
+                .collect(Collectors.toList()), containsInAnyOrder(T0.plusSeconds(30), T0.plusSeconds(60)));
+        assertThat(stockSnapshotRepository
+                .findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, T0.plusSeconds(50))
+                .orElseThrow()
+                .getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void whenMovementIsCommittedAfterALaterOneThenTheSnapshotWaitsForIt() throws Exception {
+        Long beerId = savedBeer.getId();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch committing = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // given the lower id, but committed last
+            Future<?> slowMovement = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 10)), T0);
+                appended.countDown();
+                await(committing);
+            }));
+            appended.await();
+            transactionTemplate.executeWithoutResult(status ->
+                    stockMovementRepository.appendAll(List.of(new StockAdjustmentDTO(beerId, 5)), T0));
+
+            Future<Long> settledMovementId = executor.submit(stockMovementRepository::awaitSettledMovementId);
+            Thread.sleep(200);
+            assertThat(settledMovementId.isDone(), is(false));
+
+            committing.countDown();
+            slowMovement.get(5, TimeUnit.SECONDS);
+            stockSnapshotRepository.takeSnapshots(T0.plusSeconds(5), settledMovementId.get(5, TimeUnit.SECONDS));
+
+            assertThat(stockSnapshotRepository
+                    .findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(beerId, T0.plusSeconds(5))
+                    .orElseThrow()
+                    .getQuantity(), is(equalTo(15)));
+        } finally {
+            committing.countDown();
+            executor.shutdownNow();
+            stockSnapshotRepository.deleteAll();
+            stockMovementRepository.deleteAll();
+            beerRepository.deleteAll();
+        }
+    }
+
+    private Long lastMovementId() {
+        return stockMovementRepository.findAll(Sort.by(Sort.Direction.DESC, "id")).get(0).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
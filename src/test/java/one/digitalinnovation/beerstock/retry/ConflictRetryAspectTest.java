@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
+import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
+import one.digitalinnovation.beerstock.domains.mappers.ShopkeeperMapper;
+import one.digitalinnovation.beerstock.domains.repositories.ShopkeeperRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.ConflictRetryProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.ConcurrentUpdateException;
+import one.digitalinnovation.beerstock.infrastructure.retry.ConflictRetryAspect;
+import one.digitalinnovation.beerstock.services.BeerService;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.ShopkeeperService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static one.digitalinnovation.beerstock.infrastructure.retry.ConflictRetryAspect.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConflictRetryAspectTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private ShopkeeperRepository shopkeeperRepository;
+
+    @Mock
+    private BeerService beerService;
+
+    private final ShopkeeperMapper shopkeeperMapper = ShopkeeperMapper.INSTANCE;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ShopkeeperService shopkeeperService;
+
+    private Shopkeeper shopkeeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        ConflictRetryProperties properties = new ConflictRetryProperties();
+        properties.setMaxAttempts(MAX_ATTEMPTS);
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(
+                new ShopkeeperService(shopkeeperRepository, beerService, new ChangeVersions()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ConflictRetryAspect(meterRegistry, properties));
+        shopkeeperService = proxyFactory.getProxy();
+
+        shopkeeper = shopkeeperMapper.toModel(ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO());
+        when(shopkeeperRepository.findById(shopkeeper.getId())).thenReturn(Optional.of(shopkeeper));
+    }
+
+    @Test
+    void whenConflictIsTransientThenMethodIsRetriedUntilItSucceeds() throws Exception {
+        doThrow(conflict()).doThrow(conflict()).doNothing()
+                .when(shopkeeperRepository).deleteById(shopkeeper.getId());
+
+        shopkeeperService.deleteById(shopkeeper.getId());
+
+        verify(shopkeeperRepository, times(3)).deleteById(shopkeeper.getId());
+        assertThat(conflicts(RETRIED), is(equalTo(2.0)));
+        assertThat(conflicts(EXHAUSTED), is(equalTo(0.0)));
+        assertThat(meterRegistry.get(CONFLICTS_METRIC).counter().getId().getTag("id"), is(nullValue()));
+    }
+
+    @Test
+    void whenConflictPersistsThenAttemptsAreBoundedAndConcurrentUpdateIsThrown() {
+        doThrow(conflict()).when(shopkeeperRepository).deleteById(shopkeeper.getId());
+
+        assertThrows(ConcurrentUpdateException.class, () -> shopkeeperService.deleteById(shopkeeper.getId()));
+
+        verify(shopkeeperRepository, times(MAX_ATTEMPTS)).deleteById(shopkeeper.getId());
+        assertThat(conflicts(RETRIED), is(equalTo((double) MAX_ATTEMPTS - 1)));
+        assertThat(conflicts(EXHAUSTED), is(equalTo(1.0)));
+    }
+
+    @Test
+    void whenThereIsNoConflictThenMethodRunsOnce() throws Exception {
+        doNothing().when(shopkeeperRepository).deleteById(shopkeeper.getId());
+
+        shopkeeperService.deleteById(shopkeeper.getId());
+
+        verify(shopkeeperRepository).deleteById(shopkeeper.getId());
+        assertThat(meterRegistry.find(CONFLICTS_METRIC).counters().isEmpty(), is(true));
+    }
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Shopkeeper.class, shopkeeper.getId());
+    }
+
+    private double conflicts(String outcome) {
+        var counter = meterRegistry.find(CONFLICTS_METRIC)
+                .tag("entity", Shopkeeper.class.getSimpleName())
+                .tag("outcome", outcome)
+                .counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
@@ -0,0 +1,91 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.services.BeerCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEERS_BY_ID_CACHE;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.BEER_IDS_BY_NAME_CACHE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BeerCacheTest {
+
+    private BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        beerCache = new BeerCache(new ConcurrentMapCacheManager(BEERS_BY_ID_CACHE, BEER_IDS_BY_NAME_CACHE));
+    }
+
+    @Test
+    void whenBeerIsPutThenItShouldBeFoundByIdAndByName() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO);
+
+        assertThat(beerCache.getById(beerDTO.getId()), is(equalTo(Optional.of(beerDTO))));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(equalTo(Optional.of(beerDTO))));
+    }
+
+    @Test
+    void whenCachedBeerIsChangedByCallerThenCachedCopyShouldNotChange() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        int cachedQuantity = beerDTO.getQuantity();
+
+        beerCache.put(beerDTO);
+        beerDTO.setQuantity(cachedQuantity + 1);
+        beerCache.getById(beerDTO.getId()).ifPresent(found -> found.setQuantity(cachedQuantity + 2));
+
+        assertThat(beerCache.getById(beerDTO.getId()).map(BeerDTO::getQuantity), is(equalTo(Optional.of(cachedQuantity))));
+    }
+
+    @Test
+    void whenBeerIsEvictedByIdThenItsNameShouldNotResolveToStaleState() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO);
+        beerCache.evict(beerDTO.getId());
+
+        assertThat(beerCache.getById(beerDTO.getId()), is(equalTo(Optional.empty())));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenBeerIsEvictedByIdAndNameThenItShouldNotBeFound() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO);
+        beerCache.evict(beerDTO.getId(), beerDTO.getName());
+
+        assertThat(beerCache.getById(beerDTO.getId()), is(equalTo(Optional.empty())));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenBeerIsEvictedWhileBeingReadThenTheReadBeerShouldNotBeCached() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        long readStamp = beerCache.readStamp();
+        // a change commits while the beer is read from the database
+        beerCache.evict(beerDTO.getId());
+        beerCache.put(beerDTO, readStamp);
+
+        assertThat(beerCache.getById(beerDTO.getId()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenBeerIsReadAfterItsLastEvictionThenItShouldBeCached() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.evict(beerDTO.getId());
+        beerCache.put(beerDTO, beerCache.readStamp());
+
+        assertThat(beerCache.getById(beerDTO.getId()), is(equalTo(Optional.of(beerDTO))));
+    }
+}
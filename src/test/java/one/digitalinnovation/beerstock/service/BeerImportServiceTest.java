@@ -0,0 +1,174 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.domains.dtos.BeerImportResultDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.infrastructure.configs.BeerImportProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidBeerImportException;
+import one.digitalinnovation.beerstock.services.BeerImportService;
+import one.digitalinnovation.beerstock.services.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BeerImportServiceTest {
+
+    private static final String HEADER = "name,brand,max,quantity,beerType\n";
+
+    @Mock
+    private BeerService beerService;
+
+    private final BeerImportProperties properties = new BeerImportProperties();
+
+    private BeerImportService beerImportService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(2);
+        beerImportService = new BeerImportService(beerService,
+                Validation.buildDefaultValidatorFactory().getValidator(), properties);
+    }
+
+    @Test
+    void whenEveryRowIsValidThenBeersAreCreatedChunkByChunk() throws Exception {
+        createEveryBeer();
+
+        BeerImportResultDTO result = beerImportService.importCsv(csv(HEADER +
+                "Brahma,Ambev,50,10,LAGER\n" +
+                "Skol,Ambev,50,10,LAGER\n" +
+                "\"Colorado, Appia\",Colorado,100,0,WITBIER\n" +
+                "Heineken,Heineken,500,500,LAGER\n" +
+                "Baden Baden,Baden,20,5,STOUT\n"));
+
+        assertThat(result.getImported(), is(equalTo(5L)));
+        assertThat(result.getRejected(), is(equalTo(0L)));
+        assertThat(result.getErrors(), is(empty()));
+
+        ArgumentCaptor<List<BeerDTO>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(beerService, times(3)).createBeers(chunks.capture());
+        assertThat(chunks.getAllValues().stream().map(List::size).collect(Collectors.toList()), contains(2, 2, 1));
+        BeerDTO colorado = chunks.getAllValues().get(1).get(0);
+        assertThat(colorado.getName(), is(equalTo("Colorado, Appia")));
+        assertThat(colorado.getMax(), is(equalTo(100)));
+        assertThat(colorado.getBeerType(), is(equalTo(BeerType.WITBIER)));
+    }
+
+    @Test
+    void whenRowsAreInvalidThenTheyAreRejectedAndTheOthersImported() throws Exception {
+        // a single chunk: repeated names in different chunks are caught by the database check
+        properties.setChunkSize(10);
+        when(beerService.createBeers(anyList())).thenAnswer(invocation -> {
+            List<BeerDTO> beerDTOs = invocation.getArgument(0);
+            // Brahma is already registered
+            return beerDTOs.stream()
+                    .filter(beerDTO -> !beerDTO.getName().equals("Brahma"))
+                    .collect(Collectors.toList());
+        });
+
+        BeerImportResultDTO result = beerImportService.importCsv(csv(HEADER +
+                "Brahma,Ambev,50,10,LAGER\n" +
+                "Skol,Ambev,fifty,10,LAGER\n" +
+                "Bohemia,Ambev,600,10,LAGER\n" +
+                "Heineken,Heineken,50,10,PILSEN\n" +
+                ",Ambev,50,10,LAGER\n" +
+                "Stella,AB InBev,50,10,LAGER\n" +
+                "Stella,AB InBev,50,10,LAGER\n"));
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getRejected(), is(equalTo(6L)));
+        assertThat(result.getErrors().stream().map(BeerImportErrorDTO::getRow).collect(Collectors.toList()),
+                contains(2L, 3L, 4L, 5L, 7L, 1L));
+        assertThat(result.getErrors().get(0).getMessage(), is(equalTo("max must be a whole number")));
+        assertThat(result.getErrors().get(1).getMessage(), startsWith("max "));
+        assertThat(result.getErrors().get(2).getMessage(), startsWith("beerType must be one of"));
+        assertThat(result.getErrors().get(3).getMessage(), startsWith("name "));
+        assertThat(result.getErrors().get(4).getMessage(), containsString("Stella"));
+        assertThat(result.getErrors().get(5).getMessage(), containsString("Brahma already registered"));
+    }
+
+    @Test
+    void whenHeaderMissesAColumnThenImportIsRejected() {
+        assertThrows(InvalidBeerImportException.class, () -> beerImportService.importCsv(csv(
+                "name,brand,max,quantity\n" +
+                "Brahma,Ambev,50,10\n")));
+        verify(beerService, never()).createBeers(anyList());
+    }
+
+    @Test
+    void whenMoreRowsAreRejectedThanReportedThenErrorsAreTruncated() throws Exception {
+        properties.setMaxReportedErrors(2);
+        StringBuilder rows = new StringBuilder(HEADER);
+        for (int i = 0; i < 10; i++) {
+            rows.append("Beer ").append(i).append(",Ambev,50,10,\n");
+        }
+
+        BeerImportResultDTO result = beerImportService.importCsv(csv(rows.toString()));
+
+        assertThat(result.getRejected(), is(equalTo(10L)));
+        assertThat(result.getErrors().size(), is(equalTo(2)));
+        assertThat(result.isErrorsTruncated(), is(true));
+    }
+
+    @Test
+    void whenRowIsMalformedThenImportStopsKeepingThePreviousRows() throws Exception {
+        createEveryBeer();
+
+        BeerImportResultDTO result = beerImportService.importCsv(csv(HEADER +
+                "Brahma,Ambev,50,10,LAGER\n" +
+                "\"Skol,Ambev,50,10,LAGER\n" +
+                "Heineken,Heineken,50,10,LAGER\n"));
+
+        assertThat(result.getImported(), is(equalTo(1L)));
+        assertThat(result.getRejected(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getRow(), is(equalTo(2L)));
+        assertThat(result.getErrors().get(0).getMessage(), startsWith("Malformed CSV"));
+    }
+
+    @Test
+    void whenNameIsRegisteredConcurrentlyThenChunkIsTriedAgain() throws Exception {
+        when(beerService.createBeers(anyList()))
+                .thenThrow(new DataIntegrityViolationException("unique name"))
+                .thenReturn(List.of());
+
+        BeerImportResultDTO result = beerImportService.importCsv(csv(HEADER + "Brahma,Ambev,50,10,LAGER\n"));
+
+        assertThat(result.getImported(), is(equalTo(0L)));
+        assertThat(result.getRejected(), is(equalTo(1L)));
+        verify(beerService, times(2)).createBeers(anyList());
+    }
+
+    private void createEveryBeer() {
+        when(beerService.createBeers(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
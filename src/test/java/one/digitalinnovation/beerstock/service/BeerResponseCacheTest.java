@@ -0,0 +1,136 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.infrastructure.configs.ResponseCacheProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.services.BeerResponseCache;
+import one.digitalinnovation.beerstock.services.BeerResponseCache.SerializedResponse;
+import one.digitalinnovation.beerstock.services.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.AVRO_MEDIA_TYPE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BeerResponseCacheTest {
+
+    private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    @Mock
+    private BeerService beerService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+
+    private BeerResponseCache beerResponseCache;
+
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() {
+        beerResponseCache = new BeerResponseCache(beerService, objectMapper, properties);
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    }
+
+    @Test
+    void whenNothingChangedThenListIsSerializedOnce() throws Exception {
+        when(beerService.getChangeTag()).thenReturn("k1.1");
+        when(beerService.listAll()).thenReturn(List.of(beerDTO));
+
+        SerializedResponse first = beerResponseCache.listAll(JSON);
+        SerializedResponse second = beerResponseCache.listAll(JSON);
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first.getBody(), is(equalTo(objectMapper.writeValueAsBytes(List.of(beerDTO)))));
+        assertThat(first.getGzip(), is(nullValue())); // too small to be worth compressing
+        verify(beerService, times(1)).listAll();
+    }
+
+    @Test
+    void whenTagMovesThenListIsRebuiltOnNextRead() throws Exception {
+        BeerDTO incrementedBeerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
+
+        when(beerService.getChangeTag()).thenReturn("k1.1", "k1.2");
+        when(beerService.listAll()).thenReturn(List.of(beerDTO), List.of(incrementedBeerDTO));
+
+        beerResponseCache.listAll(JSON);
+        SerializedResponse rebuilt = beerResponseCache.listAll(JSON);
+
+        assertThat(rebuilt.getTag(), is(equalTo("k1.2")));
+        assertThat(rebuilt.getBody(), is(equalTo(objectMapper.writeValueAsBytes(List.of(incrementedBeerDTO)))));
+    }
+
+    @Test
+    void whenBeerIsFoundByNameThenItsResponseIsCached() throws Exception {
+        when(beerService.getChangeTag()).thenReturn("k1.1");
+        when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+        beerResponseCache.findByName(beerDTO.getName(), JSON);
+        SerializedResponse cached = beerResponseCache.findByName(beerDTO.getName(), JSON);
+
+        assertThat(cached.getBody(), is(equalTo(objectMapper.writeValueAsBytes(beerDTO))));
+        verify(beerService, times(1)).findByName(beerDTO.getName());
+    }
+
+    @Test
+    void whenBeerIsNotFoundThenNothingIsCached() throws Exception {
+        when(beerService.getChangeTag()).thenReturn("k1.1");
+        when(beerService.findByName(beerDTO.getName())).thenThrow(BeerNotFoundException.class);
+
+        assertThrows(BeerNotFoundException.class, () -> beerResponseCache.findByName(beerDTO.getName(), JSON));
+        assertThrows(BeerNotFoundException.class, () -> beerResponseCache.findByName(beerDTO.getName(), JSON));
+
+        verify(beerService, times(2)).findByName(beerDTO.getName());
+    }
+
+    @Test
+    void whenListIsReadInSeveralFormatsThenEachOneIsCachedOnItsOwn() throws Exception {
+        when(beerService.getChangeTag()).thenReturn("k1.1");
+        when(beerService.listAll()).thenReturn(List.of(beerDTO));
+
+        SerializedResponse json = beerResponseCache.listAll(JSON);
+        SerializedResponse cbor = beerResponseCache.listAll(MediaType.APPLICATION_CBOR);
+        SerializedResponse avro = beerResponseCache.listAll(MediaType.valueOf(AVRO_MEDIA_TYPE));
+
+        assertThat(beerResponseCache.listAll(MediaType.APPLICATION_CBOR), is(sameInstance(cbor)));
+        assertThat(new CBORMapper().readValue(cbor.getBody(), new TypeReference<List<BeerDTO>>() {}),
+                is(equalTo(List.of(beerDTO))));
+        assertThat(avro.getBody().length, is(lessThan(cbor.getBody().length)));
+        assertThat(cbor.getBody().length, is(lessThan(json.getBody().length)));
+        verify(beerService, times(3)).listAll();
+    }
+
+    @Test
+    void whenCacheIsDisabledThenListIsSerializedOnEveryRead() {
+        properties.setEnabled(false);
+
+        when(beerService.getChangeTag()).thenReturn("k1.1");
+        when(beerService.listAll()).thenReturn(List.of(beerDTO));
+
+        beerResponseCache.listAll(JSON);
+        beerResponseCache.listAll(JSON);
+
+        verify(beerService, times(2)).listAll();
+    }
+}
@@ -0,0 +1,117 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.services.BeerSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeerSearchIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @InjectMocks
+    private BeerSearchIndex beerSearchIndex;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Test
+    void whenPrefixIsSearchedThenNamesAndBrandsAreMatchedIgnoringCaseAndAccents() {
+        beerSearchIndex.add(beer(1L, "Brahma", "Ambev"));
+        beerSearchIndex.add(beer(2L, "Bohemia", "Ambev"));
+        beerSearchIndex.add(beer(3L, "Colorado Appia", "Cervejaria Colorado"));
+        beerSearchIndex.add(beer(4L, "Cerveja Açaí", "Amazon Beer"));
+
+        assertThat(ids(beerSearchIndex.search("BRA", 10)), contains(1L));
+        assertThat(ids(beerSearchIndex.search("amb", 10)), containsInAnyOrder(1L, 2L));
+        assertThat(ids(beerSearchIndex.search("cerveja a", 10)), contains(4L));
+        assertThat(ids(beerSearchIndex.search("cerveja", 10)), contains(4L, 3L));
+        assertThat(beerSearchIndex.search("heineken", 10), is(empty()));
+    }
+
+    @Test
+    void whenBeerMatchesByNameAndBrandThenItIsReturnedOnce() {
+        beerSearchIndex.add(beer(1L, "Colorado Appia", "Colorado"));
+
+        assertThat(ids(beerSearchIndex.search("colorado", 10)), contains(1L));
+    }
+
+    @Test
+    void whenLimitIsReachedThenNoMoreBeersAreReturned() {
+        beerSearchIndex.add(beer(1L, "Skol", "Ambev"));
+        beerSearchIndex.add(beer(2L, "Skol Beats", "Ambev"));
+        beerSearchIndex.add(beer(3L, "Skol Puro Malte", "Ambev"));
+
+        assertThat(ids(beerSearchIndex.search("skol", 2)), contains(1L, 2L));
+    }
+
+    @Test
+    void whenBeerIsRemovedThenItIsNoLongerFound() {
+        beerSearchIndex.add(beer(1L, "Brahma", "Ambev"));
+
+        beerSearchIndex.remove(1L);
+
+        assertThat(beerSearchIndex.search("brahma", 10), is(empty()));
+        assertThat(beerSearchIndex.search("ambev", 10), is(empty()));
+    }
+
+    @Test
+    void whenBeerIsAddedInATransactionThenItIsSearchableOnlyOnceItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerSearchIndex.add(beer(1L, "Brahma", "Ambev"));
+            assertThat(beerSearchIndex.search("brahma", 10), is(empty()));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ids(beerSearchIndex.search("brahma", 10)), contains(1L));
+    }
+
+    @Test
+    void whenIndexIsLoadedThenEveryStoredBeerIsSearchable() {
+        Beer storedBeer = beer(1L, "Brahma", "Ambev");
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(storedBeer));
+
+        beerSearchIndex.load();
+
+        assertThat(ids(beerSearchIndex.search("bra", 10)), contains(1L));
+        verify(beerRepository, times(1)).detach(storedBeer);
+    }
+
+    @Test
+    void whenBlankPrefixIsSearchedThenNothingIsReturned() {
+        beerSearchIndex.add(beer(1L, "Brahma", "Ambev"));
+
+        assertThat(beerSearchIndex.search("  ", 10), is(empty()));
+    }
+
+    private Beer beer(Long id, String name, String brand) {
+        return beerMapper.toModel(BeerDTOBuilder.builder().id(id).name(name).brand(brand).build().toBeerDTO());
+    }
+
+    private List<Long> ids(List<BeerSearchResultDTO> results) {
+        return results.stream().map(BeerSearchResultDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -2,23 +2,47 @@ package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentResultDTO;
 import one.digitalinnovation.beerstock.domains.entities.Beer;
 import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
 import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.services.BeerCache;
+import one.digitalinnovation.beerstock.services.BeerSearchIndex;
 import one.digitalinnovation.beerstock.services.BeerService;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.IdempotencyStore;
+import one.digitalinnovation.beerstock.services.InventoryStats;
+import one.digitalinnovation.beerstock.services.StockEngine;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_PAGE_SIZE;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_SEARCH_RESULTS;
+import static one.digitalinnovation.beerstock.constants.BeerstockConstants.MAX_WATCHLIST_RESULTS;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,6 +57,33 @@ class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private StockEngine stockEngine;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private BeerSearchIndex beerSearchIndex;
+
+    @Mock
+    private StockMetrics stockMetrics;
+
+    @Mock
+    private StockWatchlist stockWatchlist;
+
+    @Mock
+    private InventoryStats inventoryStats;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private ChangeVersions changeVersions = new ChangeVersions();
+
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -72,6 +123,9 @@ class BeerServiceTest {
 
         // Other Hamcrest assertions
         assertThat(createdBeerDTO.getQuantity(), is(greaterThan(2)));
+
+        verify(beerSearchIndex, times(1)).add(expectedSavedBeer);
+        verify(stockLedger, times(1)).record(expectedSavedBeer.getId(), expectedSavedBeer.getQuantity());
     }
 
     @Test
@@ -87,6 +141,40 @@ class BeerServiceTest {
         assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
     }
 
+    @Test
+    void whenBeersAreCreatedInBulkThenRegisteredNamesAreSkipped() {
+        // given a registered beer and a new one
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().id(null).name("Brahma").build().toBeerDTO();
+        BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO();
+        Beer insertedBeer = beerMapper.toModel(newBeerDTO);
+        insertedBeer.setId(2L);
+
+        // when
+        when(beerRepository.findNamesByNameIn(List.of("Brahma", "Skol"))).thenReturn(Set.of("Brahma"));
+        when(beerRepository.saveAll(List.of(beerMapper.toModel(newBeerDTO)))).thenReturn(List.of(insertedBeer));
+
+        // then only the new beer is saved, and flushed at once
+        List<BeerDTO> createdBeerDTOs = beerService.createBeers(List.of(registeredBeerDTO, newBeerDTO));
+
+        assertThat(createdBeerDTOs.size(), is(equalTo(1)));
+        assertThat(createdBeerDTOs.get(0).getId(), is(equalTo(2L)));
+        assertThat(createdBeerDTOs.get(0).getName(), is(equalTo("Skol")));
+        verify(beerRepository, times(1)).flush();
+        verify(stockLedger, times(1)).record(List.of(new StockAdjustmentDTO(2L, insertedBeer.getQuantity())));
+        verify(beerSearchIndex, times(1)).add(insertedBeer);
+    }
+
+    @Test
+    void whenEveryBeerIsAlreadyRegisteredThenNothingIsInserted() {
+        BeerDTO registeredBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerRepository.findNamesByNameIn(List.of(registeredBeerDTO.getName())))
+                .thenReturn(Set.of(registeredBeerDTO.getName()));
+
+        assertThat(beerService.createBeers(List.of(registeredBeerDTO)), is(empty()));
+        verify(beerRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws BeerNotFoundException {
         // given
@@ -100,6 +188,29 @@ class BeerServiceTest {
         BeerDTO foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
 
         assertThat(expectedFoundBeerDTO, is(equalTo(foundBeerDTO)));
+        verify(beerCache, times(1)).put(expectedFoundBeerDTO, 0L);
+    }
+
+    @Test
+    void whenCachedBeerNameIsGivenThenDatabaseShouldNotBeQueried() throws BeerNotFoundException {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerCache.getByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.of(expectedFoundBeerDTO));
+
+        BeerDTO foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+
+        assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void whenCachedBeerNameIsInformedThenItShouldNotBeCreatedAgain() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerCache.getByName(expectedBeerDTO.getName())).thenReturn(Optional.of(expectedBeerDTO));
+
+        assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(expectedBeerDTO));
+        verifyNoInteractions(beerRepository);
     }
 
     @Test
@@ -126,6 +237,22 @@ class BeerServiceTest {
         assertThat(foundBeerDTOS.get(0), is(equalTo(expectedFoundBeerDTO)));
     }
 
+    @Test
+    void whenSearchIsCalledWithTooBigLimitThenLimitIsClamped() {
+        when(beerSearchIndex.search("bra", MAX_SEARCH_RESULTS)).thenReturn(Collections.emptyList());
+
+        assertThat(beerService.search("bra", MAX_SEARCH_RESULTS + 1), is(empty()));
+        verify(beerSearchIndex, times(1)).search("bra", MAX_SEARCH_RESULTS);
+    }
+
+    @Test
+    void whenLowStockIsCalledWithTooBigLimitThenLimitIsClamped() {
+        when(stockWatchlist.lowStock(MAX_WATCHLIST_RESULTS)).thenReturn(Collections.emptyList());
+
+        assertThat(beerService.listLowStock(MAX_WATCHLIST_RESULTS + 1), is(empty()));
+        verify(stockWatchlist, times(1)).lowStock(MAX_WATCHLIST_RESULTS);
+    }
+
     @Test
     void whenListBeerIsCalledThenReturnEmptyList() {
         when(beerRepository.findAll()).thenReturn(Collections.emptyList());
@@ -134,6 +261,47 @@ class BeerServiceTest {
         assertThat(foundBeerDTOS, is(empty()));
     }
 
+
+    @Test
+    void whenListPageIsCalledThenReturnPageWithNextCursor() {
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(firstBeer, secondBeer));
+        CursorPageDTO<BeerDTO> foundPage = beerService.listPage(0L, 1);
+
+        assertThat(foundPage.getContent(), hasSize(1));
+        assertThat(foundPage.getContent().get(0).getId(), is(equalTo(firstBeer.getId())));
+        assertThat(foundPage.getNextCursor(), is(equalTo(firstBeer.getId())));
+    }
+
+    @Test
+    void whenLastPageIsListedThenNextCursorIsNull() {
+        Beer lastBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).build().toBeerDTO());
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(lastBeer));
+        CursorPageDTO<BeerDTO> foundPage = beerService.listPage(1L, MAX_PAGE_SIZE + 100);
+
+        assertThat(foundPage.getContent(), hasSize(1));
+        assertThat(foundPage.getNextCursor(), is(nullValue()));
+    }
+
+
+    @Test
+    void whenExportIsCalledThenEachBeerIsConsumedAndDetached() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        List<BeerDTO> exportedBeerDTOS = new ArrayList<>();
+
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(expectedBeer));
+        beerService.exportAll(exportedBeerDTOS::add);
+
+        assertThat(exportedBeerDTOS, contains(expectedBeerDTO));
+        verify(beerRepository, times(1)).detach(expectedBeer);
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException {
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -145,7 +313,12 @@ class BeerServiceTest {
         beerService.deleteById(expectedDeletedBeerDTO.getId());
 
         verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
-        verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+        InOrder deletion = inOrder(beerRepository, stockEngine);
+        deletion.verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+        deletion.verify(stockEngine, times(1)).evict(expectedDeletedBeerDTO.getId());
+        verify(beerCache, times(1)).evict(expectedDeletedBeerDTO.getId(), expectedDeletedBeerDTO.getName());
+        verify(beerSearchIndex, times(1)).remove(expectedDeletedBeerDTO.getId());
+        verify(inventoryStats, times(1)).remove(expectedDeletedBeerDTO);
     }
 
     @Test
@@ -157,6 +330,31 @@ class BeerServiceTest {
         assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(expectedDeletedBeerDTO.getId()));
     }
 
+    @Test
+    void whenValidIdsAreGivenThenBeersShouldBeFoundInASingleQuery() throws BeerNotFoundException {
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).build().toBeerDTO());
+
+        when(beerRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(secondBeer, firstBeer));
+
+        List<Beer> foundBeers = beerService.findAllById(List.of(1L, 2L, 1L));
+
+        assertThat(foundBeers, contains(firstBeer, secondBeer));
+        verify(beerRepository, times(1)).findAllById(Set.of(1L, 2L));
+    }
+
+    @Test
+    void whenSomeIdsAreNotFoundThenAllMissingIdsShouldBeReported() {
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).build().toBeerDTO());
+
+        when(beerRepository.findAllById(Set.of(1L, 7L, 8L))).thenReturn(List.of(firstBeer));
+
+        BeerNotFoundException exception = assertThrows(BeerNotFoundException.class,
+                () -> beerService.findAllById(List.of(1L, 7L, 8L)));
+
+        assertThat(exception.getMessage(), containsString("[7, 8]"));
+    }
+
     @Test
     void whenIncrementIsCalledThenIncrementBeerStock() throws BeerNotFoundException, BeerStockExceededException {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -164,27 +362,85 @@ class BeerServiceTest {
 
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(stockLedger.addToQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(Optional.of(expectedBeer));
 
         BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
         assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+        verify(beerRepository, never()).save(expectedBeer);
+        verify(beerCache, times(1)).evict(expectedBeerDTO.getId());
+        verify(beerCache, never()).getById(expectedBeerDTO.getId());
+        verify(stockMetrics, times(1)).recordIncrement(expectedBeerDTO.getBeerType(), quantityToIncrement);
+        verify(stockWatchlist, times(1)).adjust(expectedBeerDTO.getId(), quantityToIncrement);
+        verify(inventoryStats, times(1))
+                .adjust(expectedBeerDTO.getBeerType(), expectedBeerDTO.getBrand(), quantityToIncrement);
     }
 
     @Test
-    void whenIncrementValueIsGreaterThanAllowedThenThrowException() {
+    void whenIncrementRunsInATransactionThenUnitsAreCountedOnlyOnCommit() throws Exception {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        when(stockLedger.addToQuantity(expectedBeerDTO.getId(), 10)).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerService.increment(expectedBeerDTO.getId(), 10);
+            verify(stockMetrics, never()).recordIncrement(any(), anyInt());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(stockMetrics, times(1)).recordIncrement(expectedBeerDTO.getBeerType(), 10);
+    }
+
+    @Test
+    void whenStockChangesThenChangeTagMoves() throws BeerNotFoundException, BeerStockExceededException {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(stockLedger.addToQuantity(expectedBeerDTO.getId(), 10)).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        String tagBeforeIncrement = beerService.getChangeTag();
+        beerService.increment(expectedBeerDTO.getId(), 10);
+
+        assertThat(beerService.getChangeTag(), not(equalTo(tagBeforeIncrement)));
+    }
+
+    @Test
+    void whenStockChangeFailsThenChangeTagStays() {
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, 10)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false);
+
+        String tagBeforeIncrement = beerService.getChangeTag();
+
+        assertThrows(BeerNotFoundException.class, () -> beerService.increment(INVALID_BEER_ID, 10));
+        assertThat(beerService.getChangeTag(), is(equalTo(tagBeforeIncrement)));
+    }
 
+    @Test
+    void whenIncrementValueIsGreaterThanAllowedThenThrowException() {
         int invalidQuantity = 41; // edge case: 10 + 41 > 50
+
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, invalidQuantity)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(true);
+
         assertThrows(BeerStockExceededException.class, () -> beerService.increment(INVALID_BEER_ID, invalidQuantity));
     }
 
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenThrowException() {
+        int quantityToIncrement = 10;
+
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, quantityToIncrement)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false);
+
+        assertThrows(BeerNotFoundException.class, () -> beerService.increment(INVALID_BEER_ID, quantityToIncrement));
+    }
+
     @Test
     void whenDecrementIsCalledThenIncrementBeerStock() throws Exception {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -193,24 +449,80 @@ class BeerServiceTest {
         int quantityToIncrement = 10;
         int expectedQuantityAfterIncrement;
         expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() - quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(stockLedger.addToQuantity(expectedBeerDTO.getId(), -quantityToIncrement)).thenReturn(Optional.of(expectedBeer));
 
         BeerDTO incrementedBeerDTO = beerService.decrement(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
         assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+        verify(beerRepository, never()).save(expectedBeer);
     }
 
     @Test
     void whenDecrementValueIsGreaterThanAllowedThenThrowException() {
+        int invalidQuantity = 11; // edge case: 10 - 11 < 0
+
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, -invalidQuantity)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(true);
+
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(INVALID_BEER_ID, invalidQuantity));
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowException() {
+        int quantityToDecrement = 10;
+
+        when(stockLedger.addToQuantity(INVALID_BEER_ID, -quantityToDecrement)).thenReturn(Optional.empty());
+        when(beerRepository.existsById(INVALID_BEER_ID)).thenReturn(false);
+
+        assertThrows(BeerNotFoundException.class, () -> beerService.decrement(INVALID_BEER_ID, quantityToDecrement));
+    }
+
+    @Test
+    void whenStockBatchIsAdjustedThenEachItemReportsItsOwnResult() throws NoBeerProvidedException {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+        StockAdjustmentDTO unknownBeerAdjustment = new StockAdjustmentDTO(INVALID_BEER_ID + 1, 5);
+        StockAdjustmentDTO validAdjustment = new StockAdjustmentDTO(expectedBeerDTO.getId(), 10);
+        StockAdjustmentDTO exceededAdjustment = new StockAdjustmentDTO(expectedBeerDTO.getId(), 41);
+        List<StockAdjustmentDTO> sortedAdjustments = List.of(validAdjustment, exceededAdjustment, unknownBeerAdjustment);
+
+        when(stockLedger.addToQuantities(sortedAdjustments)).thenReturn(new int[]{1, 0, 0});
+        when(beerRepository.findAllById(Set.of(expectedBeerDTO.getId(), INVALID_BEER_ID + 1)))
+                .thenReturn(Collections.singletonList(expectedBeer));
+
+        List<StockAdjustmentResultDTO> results = beerService.adjustStock(
+                List.of(unknownBeerAdjustment, validAdjustment, exceededAdjustment));
+
+        assertThat(results, hasSize(3));
+        assertThat(results.get(0).isSuccess(), is(true));
+        assertThat(results.get(1).isSuccess(), is(false));
+        assertThat(results.get(1).getMessage(), containsString("exceeds the max stock capacity"));
+        assertThat(results.get(2).isSuccess(), is(false));
+        assertThat(results.get(2).getMessage(), containsString("not found"));
+        // only the successful adjustment is counted
+        verify(stockMetrics, times(1)).recordAdjustment(null, validAdjustment.getDelta());
+        verifyNoMoreInteractions(stockMetrics);
+    }
 
-        int invalidQuantity = 11; // edge case: 10 - 11 < 0
-        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(INVALID_BEER_ID, invalidQuantity));
+    @Test
+    void whenNoStockAdjustmentIsInformedThenThrowException() {
+        assertThrows(NoBeerProvidedException.class, () -> beerService.adjustStock(Collections.emptyList()));
+    }
+
+    @Test
+    void whenStockEngineIsEnabledThenIncrementDoesNotTouchTheDatabase() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(stockEngine.isEnabled()).thenReturn(true);
+        when(stockEngine.increment(expectedBeerDTO.getId(), 10)).thenReturn(expectedBeerDTO);
+
+        BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), 10);
+
+        assertThat(incrementedBeerDTO, is(equalTo(expectedBeerDTO)));
+        verifyNoInteractions(beerRepository);
     }
 }
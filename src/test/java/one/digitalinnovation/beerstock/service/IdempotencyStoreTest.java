@@ -0,0 +1,204 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.IdempotencyRecord;
+import one.digitalinnovation.beerstock.domains.repositories.IdempotencyRecordRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.IdempotencyProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyInProgressException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.IdempotencyKeyReusedException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.InvalidIdempotencyKeyException;
+import one.digitalinnovation.beerstock.services.IdempotencyStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final String IDEMPOTENCY_KEY = "3f2c9a7e-retry";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyProperties properties;
+
+    private IdempotencyStore idempotencyStore;
+
+    private BeerDTO beerDTO;
+
+    private final AtomicInteger appliedMovements = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, objectMapper, properties, transactionManager);
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    }
+
+    @Test
+    void whenNoKeyIsGivenThenMovementIsAlwaysApplied() throws Exception {
+        idempotencyStore.execute(null, "increment", beerDTO.getId(), 10, this::applyMovement);
+        idempotencyStore.execute(null, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        assertThat(appliedMovements.get(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenRequestIsRetriedWithTheSameKeyThenTheFirstResponseIsReturned() throws Exception {
+        BeerDTO firstResponse = idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+        firstResponse.setQuantity(0); // responses are copies
+
+        BeerDTO retryResponse = idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        assertThat(appliedMovements.get(), is(equalTo(1)));
+        assertThat(retryResponse.getQuantity(), is(equalTo(beerDTO.getQuantity() + 1)));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void whenKeyIsReusedForAnotherRequestThenThrowException() throws Exception {
+        idempotencyStore.execute(IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "decrement", beerDTO.getId(), 10, this::applyMovement));
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 5, this::applyMovement));
+    }
+
+    @Test
+    void whenKeyIsEmptyOrTooLongThenThrowException() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyStore.execute(
+                "", "increment", beerDTO.getId(), 10, this::applyMovement));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyStore.execute(
+                "k".repeat(256), "increment", beerDTO.getId(), 10, this::applyMovement));
+    }
+
+    @Test
+    void whenFirstRequestFailsThenRetryAppliesTheMovement() throws Exception {
+        assertThrows(BeerStockExceededException.class, () -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, () -> {
+                    throw new BeerStockExceededException(beerDTO.getId(), 10);
+                }));
+
+        idempotencyStore.execute(IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        assertThat(appliedMovements.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void whenRetryArrivesWhileFirstRequestRunsThenItWaitsForItsResponse() throws Exception {
+        CountDownLatch movementStarted = new CountDownLatch(1);
+        CountDownLatch movementReleased = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<BeerDTO> firstRequest = executor.submit(() -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, () -> {
+                    movementStarted.countDown();
+                    while (movementReleased.getCount() > 0) {
+                        Thread.onSpinWait();
+                    }
+                    return applyMovement();
+                }));
+        movementStarted.await(5, TimeUnit.SECONDS);
+        Future<BeerDTO> retry = executor.submit(() -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement));
+        movementReleased.countDown();
+
+        assertThat(retry.get(5, TimeUnit.SECONDS), is(equalTo(firstRequest.get(5, TimeUnit.SECONDS))));
+        assertThat(appliedMovements.get(), is(equalTo(1)));
+        executor.shutdown();
+    }
+
+    @Test
+    void whenFirstRequestRunsForTooLongThenRetryIsToldItIsInProgress() throws Exception {
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        CountDownLatch movementStarted = new CountDownLatch(1);
+        CountDownLatch movementReleased = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Future<BeerDTO> firstRequest = executor.submit(() -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, () -> {
+                    movementStarted.countDown();
+                    while (movementReleased.getCount() > 0) {
+                        Thread.onSpinWait();
+                    }
+                    return applyMovement();
+                }));
+        movementStarted.await(5, TimeUnit.SECONDS);
+
+        assertThrows(IdempotencyKeyInProgressException.class, () -> idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement));
+        movementReleased.countDown();
+        firstRequest.get(5, TimeUnit.SECONDS);
+
+        assertThat(appliedMovements.get(), is(equalTo(1)));
+        // only the first request opened a transaction, the retry never got to
+        verify(transactionManager, times(1)).getTransaction(any());
+        executor.shutdown();
+    }
+
+    @Test
+    void whenKeysArePersistentThenTheyAreSavedWithTheResponse() throws Exception {
+        properties.setPersistent(true);
+        when(idempotencyRecordRepository.findById(IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+
+        BeerDTO response = idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        ArgumentCaptor<IdempotencyRecord> savedRecord = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository, times(1)).save(savedRecord.capture());
+        assertThat(savedRecord.getValue().getIdempotencyKey(), is(equalTo(IDEMPOTENCY_KEY)));
+        assertThat(objectMapper.readValue(savedRecord.getValue().getResponse(), BeerDTO.class),
+                is(equalTo(response)));
+    }
+
+    @Test
+    void whenKeyIsOnlyInTheDatabaseThenPersistedResponseIsReturned() throws Exception {
+        properties.setPersistent(true);
+        IdempotencyRecord record = new IdempotencyRecord(IDEMPOTENCY_KEY, "increment " + beerDTO.getId() + " 10",
+                objectMapper.writeValueAsString(beerDTO), Instant.now());
+        when(idempotencyRecordRepository.findById(IDEMPOTENCY_KEY)).thenReturn(Optional.of(record));
+
+        BeerDTO response = idempotencyStore.execute(
+                IDEMPOTENCY_KEY, "increment", beerDTO.getId(), 10, this::applyMovement);
+
+        assertThat(response, is(equalTo(beerDTO)));
+        assertThat(appliedMovements.get(), is(equalTo(0)));
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    private BeerDTO applyMovement() {
+        BeerDTO movedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        movedBeerDTO.setQuantity(beerDTO.getQuantity() + appliedMovements.incrementAndGet());
+        return movedBeerDTO;
+    }
+}
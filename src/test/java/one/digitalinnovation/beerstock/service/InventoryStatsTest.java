@@ -0,0 +1,174 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.domains.dtos.InventoryTotalsDTO;
+import one.digitalinnovation.beerstock.domains.enums.BeerType;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.InventoryTotals;
+import one.digitalinnovation.beerstock.infrastructure.configs.InventoryStatsProperties;
+import one.digitalinnovation.beerstock.services.InventoryStats;
+import one.digitalinnovation.beerstock.services.StockEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryStatsTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockEngine stockEngine;
+
+    private InventoryStats inventoryStats;
+
+    @BeforeEach
+    void setUp() {
+        inventoryStats = new InventoryStats(beerRepository, stockEngine, new InventoryStatsProperties());
+    }
+
+    @Test
+    void whenBeersAreAddedThenTheyAreTotaledPerBeerTypeAndBrand() {
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+        inventoryStats.add(beer(2L, "Ambev", BeerType.IPA, 100, 30));
+        inventoryStats.add(beer(3L, "Colorado", BeerType.IPA, 20, 5));
+
+        InventoryStatsDTO stats = inventoryStats.getStats();
+
+        assertThat(stats.getByBeerType().get(BeerType.LAGER), is(equalTo(totals(1, 10, 50))));
+        assertThat(stats.getByBeerType().get(BeerType.IPA), is(equalTo(totals(2, 35, 120))));
+        assertThat(stats.getByBrand().get("Ambev"), is(equalTo(totals(2, 40, 150))));
+        assertThat(stats.getByBrand().get("Colorado"), is(equalTo(totals(1, 5, 20))));
+    }
+
+    @Test
+    void whenStockIsAdjustedThenOnlyUnitsChange() {
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+        InventoryStatsDTO statsBeforeAdjustment = inventoryStats.getStats();
+
+        inventoryStats.adjust(BeerType.LAGER, "Ambev", -4);
+
+        assertThat(inventoryStats.getStats().getByBrand().get("Ambev"), is(equalTo(totals(1, 6, 50))));
+        assertThat(statsBeforeAdjustment.getByBrand().get("Ambev"), is(equalTo(totals(1, 10, 50))));
+    }
+
+    @Test
+    void whenLastBeerOfAGroupIsRemovedThenTheGroupIsGone() {
+        BeerDTO beerDTO = beer(1L, "Ambev", BeerType.LAGER, 50, 10);
+        inventoryStats.add(beerDTO);
+
+        inventoryStats.remove(beerDTO);
+
+        assertThat(inventoryStats.getStats().getByBeerType().entrySet(), is(empty()));
+        assertThat(inventoryStats.getStats().getByBrand().entrySet(), is(empty()));
+    }
+
+    @Test
+    void whenStockIsAdjustedInATransactionThenTotalsOnlyChangeAfterCommit() {
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryStats.adjust(BeerType.LAGER, "Ambev", 5);
+            assertThat(inventoryStats.getStats().getByBrand().get("Ambev").getUnits(), is(equalTo(10L)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(inventoryStats.getStats().getByBrand().get("Ambev").getUnits(), is(equalTo(15L)));
+    }
+
+    @Test
+    void whenReconciledThenTotalsAreReplacedByTheDatabaseOnes() {
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+        InventoryTotals row = row(BeerType.LAGER, "Ambev", 1, 7, 50);
+        when(beerRepository.sumStockByBeerTypeAndBrand()).thenReturn(Collections.singletonList(row));
+
+        inventoryStats.reconcile();
+
+        assertThat(inventoryStats.getStats().getByBrand().get("Ambev"), is(equalTo(totals(1, 7, 50))));
+        verify(stockEngine, never()).flush();
+    }
+
+    @Test
+    void whenStockEngineIsEnabledThenItIsFlushedBeforeReconciling() {
+        when(stockEngine.isEnabled()).thenReturn(true);
+        when(beerRepository.sumStockByBeerTypeAndBrand()).thenReturn(Collections.emptyList());
+
+        inventoryStats.reconcile();
+
+        verify(stockEngine, times(1)).flush();
+    }
+
+    @Test
+    void whenTotalsChangeWhileReconcilingThenTheChangesAreAppliedOnTopOfTheDatabaseOnes() {
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+        InventoryTotals row = row(BeerType.LAGER, "Ambev", 1, 7, 50);
+        when(beerRepository.sumStockByBeerTypeAndBrand()).thenAnswer(invocation -> {
+            // committed after the query read the beers
+            inventoryStats.add(beer(2L, "Ambev", BeerType.LAGER, 20, 5));
+            inventoryStats.adjust(BeerType.LAGER, "Ambev", 3);
+            return Collections.singletonList(row);
+        });
+
+        inventoryStats.reconcile();
+
+        assertThat(inventoryStats.getStats().getByBrand().get("Ambev"), is(equalTo(totals(2, 15, 70))));
+        assertThat(inventoryStats.getStats().getByBeerType().get(BeerType.LAGER), is(equalTo(totals(2, 15, 70))));
+    }
+
+    @Test
+    void whenReconciliationFailsThenLaterChangesAreNotRecorded() {
+        when(beerRepository.sumStockByBeerTypeAndBrand())
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(Collections.singletonList(row(BeerType.LAGER, "Ambev", 1, 7, 50)));
+
+        inventoryStats.reconcile();
+        inventoryStats.add(beer(1L, "Ambev", BeerType.LAGER, 50, 10));
+        inventoryStats.reconcile();
+
+        assertThat(inventoryStats.getStats().getByBrand().get("Ambev"), is(equalTo(totals(1, 7, 50))));
+    }
+
+    private static BeerDTO beer(Long id, String brand, BeerType beerType, int max, int quantity) {
+        return BeerDTOBuilder.builder()
+                .id(id)
+                .name("Beer " + id)
+                .brand(brand)
+                .type(beerType)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+    }
+
+    private static InventoryTotalsDTO totals(long skus, long units, long capacity) {
+        return new InventoryTotalsDTO(skus, units, capacity);
+    }
+
+    private static InventoryTotals row(BeerType beerType, String brand, long skus, long units, long capacity) {
+        InventoryTotals row = mock(InventoryTotals.class);
+        when(row.getBeerType()).thenReturn(beerType);
+        when(row.getBrand()).thenReturn(brand);
+        when(row.getSkus()).thenReturn(skus);
+        when(row.getUnits()).thenReturn(units);
+        when(row.getCapacity()).thenReturn(capacity);
+        return row;
+    }
+}
@@ -0,0 +1,225 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.ReactiveBeer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.ReactiveBeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.infrastructure.metrics.StockMetrics;
+import one.digitalinnovation.beerstock.services.BeerCache;
+import one.digitalinnovation.beerstock.services.BeerSearchIndex;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.InventoryStats;
+import one.digitalinnovation.beerstock.services.ReactiveBeerService;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBeerServiceTest {
+
+    private static final long INVALID_BEER_ID = 2L;
+
+    @Mock
+    private ReactiveBeerRepository reactiveBeerRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private BeerSearchIndex beerSearchIndex;
+
+    @Mock
+    private StockMetrics stockMetrics;
+
+    @Mock
+    private StockWatchlist stockWatchlist;
+
+    @Mock
+    private InventoryStats inventoryStats;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @InjectMocks
+    private ReactiveBeerService reactiveBeerService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void whenBeerInformedThenItShouldBeCreated() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ReactiveBeer savedBeer = beerMapper.toReactiveModel(expectedDTO);
+
+        when(reactiveBeerRepository.findByName(expectedDTO.getName())).thenReturn(Mono.empty());
+        when(reactiveBeerRepository.nextId()).thenReturn(Mono.just(expectedDTO.getId()));
+        when(reactiveBeerRepository.save(any(ReactiveBeer.class))).thenReturn(Mono.just(savedBeer));
+        when(reactiveBeerRepository.record(eq(expectedDTO.getId()), eq(expectedDTO.getQuantity()), any(Instant.class)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveBeerService.createBeer(expectedDTO))
+                .expectNext(expectedDTO)
+                .verifyComplete();
+        verify(reactiveBeerRepository).save(argThat(beer ->
+                expectedDTO.getId().equals(beer.getId()) && beer.getVersion() == null));
+        verify(reactiveBeerRepository).record(eq(expectedDTO.getId()), eq(expectedDTO.getQuantity()), any(Instant.class));
+        verify(beerCache).put(expectedDTO);
+        verify(beerSearchIndex).add(argThat(beer -> expectedDTO.getId().equals(beer.getId())));
+        verify(stockWatchlist).add(expectedDTO);
+        verify(inventoryStats).add(expectedDTO);
+        verify(changeVersions).beersChanged();
+    }
+
+    @Test
+    void whenAlreadyRegisteredBeerInformedThenAnErrorShouldBeSignalled() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ReactiveBeer duplicatedBeer = beerMapper.toReactiveModel(expectedDTO);
+
+        when(reactiveBeerRepository.findByName(expectedDTO.getName())).thenReturn(Mono.just(duplicatedBeer));
+
+        StepVerifier.create(reactiveBeerService.createBeer(expectedDTO))
+                .expectError(BeerAlreadyRegisteredException.class)
+                .verify();
+        verify(reactiveBeerRepository, never()).save(any(ReactiveBeer.class));
+        verifyNoInteractions(beerSearchIndex, stockWatchlist, inventoryStats, changeVersions);
+    }
+
+    @Test
+    void whenBeerIsRegisteredConcurrentlyThenAlreadyRegisteredErrorShouldBeSignalled() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(reactiveBeerRepository.findByName(expectedDTO.getName())).thenReturn(Mono.empty());
+        when(reactiveBeerRepository.nextId()).thenReturn(Mono.just(expectedDTO.getId()));
+        when(reactiveBeerRepository.save(any(ReactiveBeer.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("unique name")));
+
+        StepVerifier.create(reactiveBeerService.createBeer(expectedDTO))
+                .expectError(BeerAlreadyRegisteredException.class)
+                .verify();
+    }
+
+    @Test
+    void whenNotRegisteredBeerNameIsGivenThenAnErrorShouldBeSignalled() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(reactiveBeerRepository.findByName(expectedDTO.getName())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveBeerService.findByName(expectedDTO.getName()))
+                .expectError(BeerNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void whenListBeerIsCalledThenBeersShouldBeStreamedInOrder() {
+        BeerDTO first = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO second = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+        when(reactiveBeerRepository.findAllByOrderByIdAsc()).thenReturn(Flux.just(
+                beerMapper.toReactiveModel(first), beerMapper.toReactiveModel(second)));
+
+        StepVerifier.create(reactiveBeerService.listAll())
+                .expectNext(first, second)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenExclusionIsCalledWithInvalidIdThenNothingShouldBeDeleted() {
+        when(reactiveBeerRepository.findById(INVALID_BEER_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveBeerService.deleteById(INVALID_BEER_ID))
+                .expectError(BeerNotFoundException.class)
+                .verify();
+        verify(reactiveBeerRepository, never()).deleteById(INVALID_BEER_ID);
+    }
+
+    @Test
+    void whenExclusionIsCalledWithValidIdThenTheBeerShouldBeForgottenEverywhere() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(reactiveBeerRepository.findById(expectedDTO.getId()))
+                .thenReturn(Mono.just(beerMapper.toReactiveModel(expectedDTO)));
+        when(reactiveBeerRepository.deleteById(expectedDTO.getId())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveBeerService.deleteById(expectedDTO.getId()))
+                .verifyComplete();
+        verify(beerCache).evict(expectedDTO.getId(), expectedDTO.getName());
+        verify(beerSearchIndex).remove(expectedDTO.getId());
+        verify(stockWatchlist).remove(expectedDTO.getId());
+        verify(inventoryStats).remove(expectedDTO);
+        verify(changeVersions).beersChanged();
+    }
+
+    @Test
+    void whenIncrementIsCalledThenUpdatedBeerShouldBeEmitted() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ReactiveBeer updatedBeer = beerMapper.toReactiveModel(expectedDTO);
+        updatedBeer.setQuantity(expectedDTO.getQuantity() + 10);
+
+        when(reactiveBeerRepository.addToQuantityAndRecord(eq(expectedDTO.getId()), eq(10), any(Instant.class)))
+                .thenReturn(Mono.just(updatedBeer));
+
+        StepVerifier.create(reactiveBeerService.increment(expectedDTO.getId(), 10))
+                .expectNextMatches(beer -> beer.getQuantity() == expectedDTO.getQuantity() + 10)
+                .verifyComplete();
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(reactiveBeerRepository, never()).findById(expectedDTO.getId());
+        verify(beerCache).evict(expectedDTO.getId());
+        verify(stockMetrics).recordIncrement(expectedDTO.getBeerType(), 10);
+        verify(stockWatchlist).adjust(expectedDTO.getId(), 10);
+        verify(inventoryStats).adjust(expectedDTO.getBeerType(), expectedDTO.getBrand(), 10);
+        verify(changeVersions).beersChanged();
+    }
+
+    @Test
+    void whenDecrementIsCalledBelowZeroThenAnErrorShouldBeSignalled() {
+        BeerDTO expectedDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        int quantityToDecrement = expectedDTO.getQuantity() + 1;
+
+        when(reactiveBeerRepository.addToQuantityAndRecord(eq(expectedDTO.getId()), eq(-quantityToDecrement), any(Instant.class)))
+                .thenReturn(Mono.empty());
+        when(reactiveBeerRepository.existsById(expectedDTO.getId())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(reactiveBeerService.decrement(expectedDTO.getId(), quantityToDecrement))
+                .expectError(BeerStockExceededException.class)
+                .verify();
+        verifyNoInteractions(beerCache, stockMetrics, stockWatchlist, inventoryStats, changeVersions);
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenAnErrorShouldBeSignalled() {
+        when(reactiveBeerRepository.addToQuantityAndRecord(eq(INVALID_BEER_ID), eq(10), any(Instant.class)))
+                .thenReturn(Mono.empty());
+        when(reactiveBeerRepository.existsById(INVALID_BEER_ID)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(reactiveBeerService.increment(INVALID_BEER_ID, 10))
+                .expectError(BeerNotFoundException.class)
+                .verify();
+    }
+}
@@ -3,6 +3,7 @@ package one.digitalinnovation.beerstock.service;
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.builder.ShopkeeperDTOBuilder;
 import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.CursorPageDTO;
 import one.digitalinnovation.beerstock.domains.dtos.ShopkeeperDTO;
 import one.digitalinnovation.beerstock.domains.entities.Beer;
 import one.digitalinnovation.beerstock.domains.entities.Shopkeeper;
@@ -14,12 +15,15 @@ import one.digitalinnovation.beerstock.infrastructure.exceptions.NoBeerProvidedE
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.infrastructure.exceptions.ShopkeeperNotFoundException;
 import one.digitalinnovation.beerstock.services.BeerService;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
 import one.digitalinnovation.beerstock.services.ShopkeeperService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,6 +46,9 @@ class ShopkeeperServiceTest {
     @Mock
     private BeerService beerService;
 
+    @Spy
+    private ChangeVersions changeVersions = new ChangeVersions();
+
     @InjectMocks
     private ShopkeeperService shopkeeperService;
 
@@ -55,10 +62,12 @@ class ShopkeeperServiceTest {
         when(shopkeeperRepository.findByName(expectedShopkeeperDTO.getName())).thenReturn(Optional.empty());
         when(shopkeeperRepository.save(expectedSavedShopkeeper)).thenReturn(expectedSavedShopkeeper);
 
+        String tagBeforeCreation = shopkeeperService.getChangeTag();
         ShopkeeperDTO createdShopkeeperDTO = shopkeeperService.createShopkeeper(expectedShopkeeperDTO);
 
         assertThat(createdShopkeeperDTO.getId(), is(equalTo(expectedShopkeeperDTO.getId())));
         assertThat(createdShopkeeperDTO.getName(), is(equalTo(expectedShopkeeperDTO.getName())));
+        assertThat(shopkeeperService.getChangeTag(), not(equalTo(tagBeforeCreation)));
     }
 
     @Test
@@ -127,6 +136,23 @@ class ShopkeeperServiceTest {
         assertThat(foundShopkeeperDTOS, is(empty()));
     }
 
+
+    @Test
+    void whenListPageIsCalledThenReturnPageWithNextCursor() {
+        Shopkeeper firstShopkeeper = shopkeeperMapper.toModel(
+                ShopkeeperDTOBuilder.builder().id(1L).name("Emporio").build().toShopkeeperDTO());
+        Shopkeeper secondShopkeeper = shopkeeperMapper.toModel(
+                ShopkeeperDTOBuilder.builder().id(2L).name("Adega").build().toShopkeeperDTO());
+
+        when(shopkeeperRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(firstShopkeeper, secondShopkeeper));
+        CursorPageDTO<ShopkeeperDTO> foundPage = shopkeeperService.listPage(0L, 1);
+
+        assertThat(foundPage.getContent(), hasSize(1));
+        assertThat(foundPage.getContent().get(0).getId(), is(equalTo(firstShopkeeper.getId())));
+        assertThat(foundPage.getNextCursor(), is(equalTo(firstShopkeeper.getId())));
+    }
+
     @Test
     void whenExclusionIsCalledWithValidIdThenAShopkeeperShouldBeDeleted() throws ShopkeeperNotFoundException {
         ShopkeeperDTO expectedDeletedShopkeeperDTO = ShopkeeperDTOBuilder.builder().build().toShopkeeperDTO();
@@ -171,9 +197,7 @@ class ShopkeeperServiceTest {
         when(shopkeeperRepository.findById(expectedShopkeeperDTO.getId()))
             .thenReturn(Optional.of(expectedShopkeeper));
 
-        for (Long beerId: expectedSingleBeerId) {
-            when(beerService.findById(beerId)).thenReturn(expectedAddedBeer);
-        }
+        when(beerService.findAllById(expectedSingleBeerId)).thenReturn(expectedAddedBeers);
 
         expectedShopkeeper.setBeers(expectedAddedBeers);
         expectedShopkeeperDTO.setBeers(expectedAddedBeersDTO);
@@ -207,13 +231,13 @@ class ShopkeeperServiceTest {
 
             Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-            // "when" conditions for each beer
-            when(beerService.findById(beerId)).thenReturn(expectedBeer);
-
             expectedAddedBeersDTOS.add(expectedBeerDTO);
             expectedAddedBeers.add(expectedBeer);
         }
 
+        // every beer is looked up in a single call
+        when(beerService.findAllById(expectedBeerIDs)).thenReturn(expectedAddedBeers);
+
         when(shopkeeperRepository.findById(expectedShopkeeperDTO.getId()))
                 .thenReturn(Optional.of(expectedShopkeeper));
 
@@ -267,7 +291,7 @@ class ShopkeeperServiceTest {
 
         when(shopkeeperRepository.findById(expectedShopkeeperToFail.getId()))
                 .thenReturn(Optional.of(expectedShopkeeper));
-        when(beerService.findById(invalidBeerIdList.get(0))).thenThrow(BeerNotFoundException.class);
+        when(beerService.findAllById(invalidBeerIdList)).thenThrow(BeerNotFoundException.class);
 
         assertThrows(BeerNotFoundException.class, () -> shopkeeperService
                 .addBeersToShopkeeper(expectedShopkeeperToFail.getId(), invalidBeerIdList));
@@ -288,9 +312,8 @@ class ShopkeeperServiceTest {
         when(shopkeeperRepository.findById(expectedShopkeeperDTO.getId()))
                 .thenReturn(Optional.of(expectedShopkeeper));
 
-        for (Long beerId: expectedSingleBeerId) {
-            when(beerService.findById(beerId)).thenReturn(expectedRemovedBeer);
-        }
+        when(beerService.findAllById(expectedSingleBeerId))
+                .thenReturn(Collections.singletonList(expectedRemovedBeer));
 
         when(shopkeeperRepository.save(expectedShopkeeper)).thenReturn(expectedShopkeeper);
 
@@ -310,19 +333,20 @@ class ShopkeeperServiceTest {
 
         List<Long> expectedBeerIDs = new ArrayList<>();
         Collections.addAll(expectedBeerIDs, 1L, 2L, 3L);
+        List<Beer> expectedRemovedBeers = new ArrayList<>();
 
-        // adding beers' models and DTOs to it's respective lists
+        // adding beers' models to it's respective list
         for (Long beerId : expectedBeerIDs) {
             BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
             expectedBeerDTO.setId(beerId);
             expectedBeerDTO.setName(expectedBeerDTO.getName() + beerId);
 
-            Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
-
-            // "when" conditions for each beer
-            when(beerService.findById(beerId)).thenReturn(expectedBeer);
+            expectedRemovedBeers.add(beerMapper.toModel(expectedBeerDTO));
         }
 
+        // every beer is looked up in a single call
+        when(beerService.findAllById(expectedBeerIDs)).thenReturn(expectedRemovedBeers);
+
         when(shopkeeperRepository.findById(expectedShopkeeperDTO.getId()))
                 .thenReturn(Optional.of(expectedShopkeeper));
 
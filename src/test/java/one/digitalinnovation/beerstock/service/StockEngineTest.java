@@ -0,0 +1,284 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockEngineProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerStockExceededException;
+import one.digitalinnovation.beerstock.services.ChangeVersions;
+import one.digitalinnovation.beerstock.services.StockEngine;
+import one.digitalinnovation.beerstock.services.StockJournal;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockEngineTest {
+
+    private static final long INVALID_BEER_ID = 2L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockJournal stockJournal;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private StockEngineProperties properties;
+
+    private StockEngine stockEngine;
+
+    private BeerDTO beerDTO;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StockEngineProperties();
+        properties.setEnabled(true);
+        stockEngine = new StockEngine(beerRepository, stockLedger, stockJournal, properties, new ChangeVersions());
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    }
+
+    @Test
+    void whenMovementsAreWithinBoundsThenTheyAreAppliedInMemory() throws Exception {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockEngine.increment(beerDTO.getId(), 40); // edge case: 10 + 40 = 50
+        BeerDTO decrementedBeerDTO = stockEngine.decrement(beerDTO.getId(), 15);
+
+        assertThat(decrementedBeerDTO.getQuantity(), is(equalTo(35)));
+        verify(beerRepository, times(1)).findById(beerDTO.getId());
+        verify(stockLedger, never()).addToQuantities(anyList());
+    }
+
+    @Test
+    void whenMovementExceedsBoundsThenThrowException() {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.increment(beerDTO.getId(), 41));
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.decrement(beerDTO.getId(), 11));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenThrowException() {
+        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(BeerNotFoundException.class, () -> stockEngine.increment(INVALID_BEER_ID, 1));
+    }
+
+    @Test
+    void whenFlushIsCalledThenMovementsAreCoalescedIntoOneDelta() throws Exception {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        List<StockAdjustmentDTO> expectedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(beerDTO.getId(), 5));
+        when(stockLedger.addToQuantities(expectedAdjustments)).thenReturn(new int[]{1});
+
+        stockEngine.increment(beerDTO.getId(), 10);
+        stockEngine.decrement(beerDTO.getId(), 5);
+        stockEngine.flush();
+        stockEngine.flush(); // nothing left to flush
+
+        verify(stockLedger, times(1)).addToQuantities(expectedAdjustments);
+    }
+
+    @Test
+    void whenFlushFailsThenDeltaIsRetriedOnNextFlush() throws Exception {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        List<StockAdjustmentDTO> expectedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(beerDTO.getId(), 10));
+        when(stockLedger.addToQuantities(expectedAdjustments))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(new int[]{1});
+
+        stockEngine.increment(beerDTO.getId(), 10);
+        stockEngine.flush();
+        stockEngine.flush();
+
+        verify(stockLedger, times(2)).addToQuantities(expectedAdjustments);
+    }
+
+    @Test
+    void whenFlushIsRejectedThenPendingDeltaIsRebasedOnDatabaseQuantity() throws Exception {
+        Beer reloadedBeer = beerMapper.toModel(beerDTO);
+        reloadedBeer.setQuantity(0);
+        when(beerRepository.findById(beerDTO.getId()))
+                .thenReturn(Optional.of(beerMapper.toModel(beerDTO)))
+                .thenReturn(Optional.of(reloadedBeer));
+        when(stockLedger.addToQuantities(anyList())).thenReturn(new int[]{0});
+
+        stockEngine.increment(beerDTO.getId(), 10);
+        stockEngine.flush();
+        BeerDTO incrementedBeerDTO = stockEngine.increment(beerDTO.getId(), 1);
+
+        assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(11)));
+    }
+
+    @Test
+    void whenBeerIsMovedDuringRejectedFlushThenAcknowledgedUnitsAreKept() throws Exception {
+        Beer reloadedBeer = beerMapper.toModel(beerDTO);
+        reloadedBeer.setQuantity(5);
+        when(beerRepository.findById(beerDTO.getId()))
+                .thenReturn(Optional.of(beerMapper.toModel(beerDTO)))
+                .thenReturn(Optional.of(reloadedBeer));
+        List<StockAdjustmentDTO> retriedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(beerDTO.getId(), 12));
+        when(stockLedger.addToQuantities(anyList())).thenAnswer(invocation -> {
+            List<StockAdjustmentDTO> adjustments = invocation.getArgument(0);
+            if (adjustments.equals(retriedAdjustments)) {
+                return new int[]{1};
+            }
+            stockEngine.increment(beerDTO.getId(), 2); // acknowledged while the flush is running
+            return new int[]{0};
+        });
+
+        stockEngine.increment(beerDTO.getId(), 10);
+        stockEngine.flush();
+
+        stockEngine.refreshQuantity(beerDTO);
+        assertThat(beerDTO.getQuantity(), is(equalTo(17)));
+        stockEngine.flush();
+        verify(stockLedger, times(1)).addToQuantities(retriedAdjustments);
+    }
+
+    @Test
+    void whenBeerIsEvictedThenItsMovementsAreKeptUntilTheDeleteCommits() throws Exception {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        stockEngine.increment(beerDTO.getId(), 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockEngine.evict(beerDTO.getId());
+            BeerDTO refreshedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            stockEngine.refreshQuantity(refreshedBeerDTO);
+            assertThat(refreshedBeerDTO.getQuantity(), is(equalTo(20)));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        stockEngine.flush();
+        verify(stockLedger, never()).addToQuantities(anyList());
+    }
+
+    @Test
+    void whenJournalIsEnabledThenItIsReplayedAndMovementsAreJournaledAndCheckpointed() throws Exception {
+        List<StockAdjustmentDTO> replayedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(INVALID_BEER_ID, 3));
+        List<StockAdjustmentDTO> expectedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(beerDTO.getId(), 7));
+        properties.setFlushInterval(Duration.ofHours(1));
+        when(stockJournal.isEnabled()).thenReturn(true);
+        when(stockJournal.recover()).thenReturn(replayedAdjustments);
+        when(stockJournal.getLastSequence()).thenReturn(4L, 6L);
+        when(stockJournal.commit(replayedAdjustments, 4L)).thenReturn(new int[]{1});
+        when(stockJournal.commit(expectedAdjustments, 6L)).thenReturn(new int[]{1});
+        when(stockJournal.append(beerDTO.getId(), 10)).thenReturn(5L);
+        when(stockJournal.append(beerDTO.getId(), -3)).thenReturn(6L);
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockEngine.start();
+        stockEngine.increment(beerDTO.getId(), 10);
+        stockEngine.decrement(beerDTO.getId(), 3);
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.decrement(beerDTO.getId(), 100));
+        stockEngine.flush();
+
+        verify(stockJournal, times(1)).commit(replayedAdjustments, 4L);
+        verify(stockJournal, times(1)).awaitDurable(5L);
+        verify(stockJournal, times(1)).awaitDurable(6L);
+        verify(stockJournal, times(1)).commit(expectedAdjustments, 6L);
+        verify(stockJournal, never()).append(beerDTO.getId(), -100);
+        verify(stockLedger, never()).addToQuantities(anyList());
+    }
+
+    @Test
+    void whenReplayedDeltaIsRejectedThenItIsKeptPendingForTheNextFlush() throws Exception {
+        List<StockAdjustmentDTO> replayedAdjustments =
+                Collections.singletonList(new StockAdjustmentDTO(beerDTO.getId(), 30));
+        properties.setFlushInterval(Duration.ofHours(1));
+        when(stockJournal.isEnabled()).thenReturn(true);
+        when(stockJournal.recover()).thenReturn(replayedAdjustments);
+        when(stockJournal.getLastSequence()).thenReturn(4L);
+        when(stockJournal.commit(replayedAdjustments, 4L)).thenReturn(new int[]{0}, new int[]{1});
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockEngine.start();
+        BeerDTO refreshedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        stockEngine.refreshQuantity(refreshedBeerDTO);
+        stockEngine.flush();
+
+        assertThat(refreshedBeerDTO.getQuantity(), is(equalTo(40)));
+        verify(stockJournal, times(2)).commit(replayedAdjustments, 4L);
+    }
+
+    @Test
+    void whenJournalAppendFailsThenMovementIsReverted() throws Exception {
+        properties.setFlushInterval(Duration.ofHours(1));
+        when(stockJournal.isEnabled()).thenReturn(true);
+        when(stockJournal.recover()).thenReturn(Collections.emptyList());
+        when(stockJournal.commit(anyList(), anyLong())).thenReturn(new int[0]);
+        when(stockJournal.append(beerDTO.getId(), 10)).thenThrow(new UncheckedIOException(new IOException("disk full")));
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+
+        stockEngine.start();
+        assertThrows(UncheckedIOException.class, () -> stockEngine.increment(beerDTO.getId(), 10));
+
+        BeerDTO refreshedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        stockEngine.refreshQuantity(refreshedBeerDTO);
+        assertThat(refreshedBeerDTO.getQuantity(), is(equalTo(beerDTO.getQuantity())));
+    }
+
+    @Test
+    void whenMovementsAreConcurrentThenBoundsAreNeverExceeded() throws Exception {
+        when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        AtomicInteger successfulIncrements = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> {
+                try {
+                    stockEngine.increment(beerDTO.getId(), 1);
+                    successfulIncrements.incrementAndGet();
+                } catch (BeerNotFoundException | BeerStockExceededException ignored) {
+                    // expected once the stock is full
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        BeerDTO refreshedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        stockEngine.refreshQuantity(refreshedBeerDTO);
+        assertThat(successfulIncrements.get(), is(equalTo(40))); // edge case: 10 + 40 = 50
+        assertThat(refreshedBeerDTO.getQuantity(), is(equalTo(refreshedBeerDTO.getMax())));
+    }
+}
@@ -0,0 +1,202 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.entities.StockJournalCheckpoint;
+import one.digitalinnovation.beerstock.domains.repositories.StockJournalCheckpointRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockJournalProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.StockJournalProperties.FsyncPolicy;
+import one.digitalinnovation.beerstock.infrastructure.journal.JournalSegment;
+import one.digitalinnovation.beerstock.services.StockJournal;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockJournalTest {
+
+    private static final long BEER_ID = 1L;
+
+    private static final long OTHER_BEER_ID = 2L;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockJournalCheckpointRepository checkpointRepository;
+
+    private StockJournalProperties properties;
+
+    private StockJournal stockJournal;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StockJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setFsyncPolicy(FsyncPolicy.EVERY_WRITE);
+        stockJournal = newJournal();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockJournal.stop();
+    }
+
+    @Test
+    void whenJournalIsReopenedThenRecordsAfterTheCheckpointAreReplayed() {
+        when(checkpointRepository.findById(properties.getId())).thenReturn(Optional.empty());
+        assertThat(stockJournal.recover(), is(empty()));
+        stockJournal.append(BEER_ID, 10);
+        stockJournal.append(OTHER_BEER_ID, 4);
+        stockJournal.append(BEER_ID, -3);
+        stockJournal.stop();
+
+        // the previous run stopped without committing anything
+        StockJournal reopenedJournal = newJournal();
+        List<StockAdjustmentDTO> adjustments = reopenedJournal.recover();
+
+        assertThat(adjustments, contains(
+                new StockAdjustmentDTO(BEER_ID, 7),
+                new StockAdjustmentDTO(OTHER_BEER_ID, 4)));
+        assertThat(reopenedJournal.getLastSequence(), is(equalTo(3L)));
+        assertThat(reopenedJournal.append(BEER_ID, 1), is(equalTo(4L)));
+        verify(stockLedger, times(2)).recordOpeningMovements();
+        reopenedJournal.stop();
+    }
+
+    @Test
+    void whenRecordsAreBehindTheCheckpointThenTheyAreNotReplayed() {
+        when(checkpointRepository.findById(properties.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new StockJournalCheckpoint(properties.getId(), 2L, Map.of())));
+        stockJournal.recover();
+        stockJournal.append(BEER_ID, 10);
+        stockJournal.append(BEER_ID, 5);
+        stockJournal.append(BEER_ID, -3);
+        stockJournal.stop();
+
+        StockJournal reopenedJournal = newJournal();
+
+        assertThat(reopenedJournal.recover(), contains(new StockAdjustmentDTO(BEER_ID, -3)));
+        reopenedJournal.stop();
+    }
+
+    @Test
+    void whenCheckpointCarriesDeltasThenTheyAreReplayedWithTheRecordsAfterIt() {
+        when(checkpointRepository.findById(properties.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new StockJournalCheckpoint(properties.getId(), 1L,
+                        Map.of(BEER_ID, 10, OTHER_BEER_ID, -2))));
+        stockJournal.recover();
+        stockJournal.append(BEER_ID, 10);
+        stockJournal.append(BEER_ID, 5);
+        stockJournal.stop();
+
+        StockJournal reopenedJournal = newJournal();
+
+        assertThat(reopenedJournal.recover(), contains(
+                new StockAdjustmentDTO(BEER_ID, 15),
+                new StockAdjustmentDTO(OTHER_BEER_ID, -2)));
+        reopenedJournal.stop();
+    }
+
+    @Test
+    void whenAdjustmentIsRejectedThenTheCheckpointCarriesIt() {
+        when(checkpointRepository.findById(properties.getId())).thenReturn(Optional.empty());
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(BEER_ID, 15),
+                new StockAdjustmentDTO(OTHER_BEER_ID, -4));
+        when(stockLedger.addToQuantities(adjustments)).thenReturn(new int[]{1, 0});
+        stockJournal.recover();
+        stockJournal.append(BEER_ID, 15);
+        stockJournal.append(OTHER_BEER_ID, -4);
+
+        stockJournal.commit(adjustments, 2L);
+
+        verify(checkpointRepository, times(1))
+                .save(new StockJournalCheckpoint(properties.getId(), 2L, Map.of(OTHER_BEER_ID, -4)));
+        stockJournal.stop();
+    }
+
+    @Test
+    void whenRecordIsTornThenReplayStopsBeforeIt() throws IOException {
+        when(checkpointRepository.findById(properties.getId())).thenReturn(Optional.empty());
+        stockJournal.recover();
+        stockJournal.append(BEER_ID, 10);
+        stockJournal.append(BEER_ID, 5);
+        stockJournal.stop();
+        // flips the delta of the second record, as a write cut in half by a crash would
+        Path segmentFile = JournalSegment.list(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 24 + 16);
+        }
+
+        StockJournal reopenedJournal = newJournal();
+
+        assertThat(reopenedJournal.recover(), contains(new StockAdjustmentDTO(BEER_ID, 10)));
+        assertThat(reopenedJournal.getLastSequence(), is(equalTo(1L)));
+        reopenedJournal.stop();
+    }
+
+    @Test
+    void whenCheckpointIsCommittedThenSegmentsBehindItAreDeleted() throws IOException {
+        // room for two records per segment
+        properties.setSegmentSize(DataSize.ofBytes(48));
+        when(checkpointRepository.findById(properties.getId())).thenReturn(Optional.empty());
+        List<StockAdjustmentDTO> adjustments = List.of(new StockAdjustmentDTO(BEER_ID, 15));
+        when(stockLedger.addToQuantities(adjustments)).thenReturn(new int[]{1});
+        stockJournal.recover();
+        for (int i = 0; i < 5; i++) {
+            stockJournal.append(BEER_ID, 3);
+        }
+        assertThat(JournalSegment.list(directory), hasSize(3));
+
+        int[] updatedRows = stockJournal.commit(adjustments, 4L);
+
+        assertThat(updatedRows, is(equalTo(new int[]{1})));
+        assertThat(stockJournal.getCommittedSequence(), is(equalTo(4L)));
+        assertThat(JournalSegment.list(directory), hasSize(1));
+        assertThat(JournalSegment.firstSequence(JournalSegment.list(directory).get(0)), is(equalTo(5L)));
+        verify(checkpointRepository, times(1)).save(new StockJournalCheckpoint(properties.getId(), 4L, Map.of()));
+    }
+
+    @Test
+    void whenWritesAreGroupCommittedThenEveryWriterIsCovered() {
+        properties.setFsyncPolicy(FsyncPolicy.GROUP_COMMIT);
+        when(checkpointRepository.findById(properties.getId())).thenReturn(Optional.empty());
+        stockJournal.recover();
+
+        long firstSequence = stockJournal.append(BEER_ID, 1);
+        long secondSequence = stockJournal.append(BEER_ID, 1);
+        stockJournal.awaitDurable(secondSequence);
+        stockJournal.awaitDurable(firstSequence); // already covered by the previous sync
+
+        assertThat(secondSequence, is(equalTo(firstSequence + 1)));
+    }
+
+    private StockJournal newJournal() {
+        return new StockJournal(stockLedger, checkpointRepository, properties);
+    }
+}
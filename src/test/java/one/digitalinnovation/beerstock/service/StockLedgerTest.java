@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.domains.dtos.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.domains.dtos.StockLevelDTO;
+import one.digitalinnovation.beerstock.domains.entities.StockSnapshot;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockMovementRepository;
+import one.digitalinnovation.beerstock.domains.repositories.StockSnapshotRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.LedgerProperties;
+import one.digitalinnovation.beerstock.infrastructure.exceptions.BeerNotFoundException;
+import one.digitalinnovation.beerstock.services.StockLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    private static final long BEER_ID = 1L;
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    private StockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() {
+        stockLedger = new StockLedger(beerRepository, stockMovementRepository, stockSnapshotRepository,
+                new LedgerProperties());
+    }
+
+    @Test
+    void whenAdjustmentsAreAppliedThenTheyAreRecordedWithTheUpdate() {
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(BEER_ID, 10), new StockAdjustmentDTO(BEER_ID + 1, -5));
+        when(beerRepository.addToQuantitiesAndRecord(eq(adjustments), any(Instant.class))).thenReturn(new int[]{1, 0});
+
+        int[] updatedRows = stockLedger.addToQuantities(adjustments);
+
+        assertThat(updatedRows, is(equalTo(new int[]{1, 0})));
+        verify(stockMovementRepository, never()).appendAll(anyList(), any(Instant.class));
+    }
+
+    @Test
+    void whenSnapshotExistsThenOnlyMovementsAfterItAreReplayed() throws BeerNotFoundException {
+        Instant snapshotTime = NOW.minusSeconds(600);
+        when(stockSnapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(BEER_ID, NOW))
+                .thenReturn(Optional.of(new StockSnapshot(BEER_ID, snapshotTime, 30, 42L)));
+        when(stockMovementRepository.sumDeltas(BEER_ID, 42L, NOW)).thenReturn(-12L);
+
+        StockLevelDTO stockLevel = stockLedger.quantityAt(BEER_ID, NOW);
+
+        assertThat(stockLevel.getQuantity(), is(equalTo(18)));
+        assertThat(stockLevel.getAt(), is(equalTo(NOW)));
+    }
+
+    @Test
+    void whenThereIsNoSnapshotThenEveryMovementIsReplayed() throws BeerNotFoundException {
+        when(stockSnapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(BEER_ID, NOW))
+                .thenReturn(Optional.empty());
+        when(stockMovementRepository.sumDeltas(BEER_ID, 0L, NOW)).thenReturn(7L);
+
+        assertThat(stockLedger.quantityAt(BEER_ID, NOW).getQuantity(), is(equalTo(7)));
+    }
+
+    @Test
+    void whenLedgerHasNothingAboutTheBeerThenThrowException() {
+        when(stockSnapshotRepository.findFirstByBeerIdAndTakenAtLessThanEqualOrderByLastMovementIdDesc(BEER_ID, NOW))
+                .thenReturn(Optional.empty());
+        when(stockMovementRepository.sumDeltas(BEER_ID, 0L, NOW)).thenReturn(null);
+
+        assertThrows(BeerNotFoundException.class, () -> stockLedger.quantityAt(BEER_ID, NOW));
+    }
+
+    @Test
+    void whenSnapshotsAreTakenThenTheyStopAtTheSettledMovementId() {
+        when(stockMovementRepository.awaitSettledMovementId()).thenReturn(42L);
+        Instant before = Instant.now();
+
+        stockLedger.takeSnapshots();
+
+        InOrder inOrder = inOrder(stockMovementRepository, stockSnapshotRepository);
+        inOrder.verify(stockMovementRepository).awaitSettledMovementId();
+        inOrder.verify(stockSnapshotRepository).takeSnapshots(argThat(takenAt -> !takenAt.isBefore(before)), eq(42L));
+    }
+
+    @Test
+    void whenSnapshotsAreTakenThenTheSupersededOnesPastTheRetentionArePruned() {
+        Instant before = Instant.now();
+
+        stockLedger.takeSnapshots();
+
+        verify(stockSnapshotRepository).pruneSnapshots(argThat(prunedBefore ->
+                !prunedBefore.isBefore(before.minus(new LedgerProperties().getSnapshotRetention()))
+                        && prunedBefore.isBefore(before)));
+    }
+}
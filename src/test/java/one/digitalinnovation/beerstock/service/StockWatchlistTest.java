@@ -0,0 +1,171 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.domains.dtos.BeerDTO;
+import one.digitalinnovation.beerstock.domains.entities.Beer;
+import one.digitalinnovation.beerstock.domains.mappers.BeerMapper;
+import one.digitalinnovation.beerstock.domains.repositories.BeerRepository;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties.Threshold;
+import one.digitalinnovation.beerstock.infrastructure.configs.WatchlistProperties.ThresholdUnit;
+import one.digitalinnovation.beerstock.services.StockWatchlist;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockWatchlistTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Test
+    void whenThresholdsAreInUnitsThenBeersAreListedByQuantityAndFreeRoom() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        stockWatchlist.add(beer(1L, 100, 3));
+        stockWatchlist.add(beer(2L, 10, 0));
+        stockWatchlist.add(beer(3L, 50, 20));
+        stockWatchlist.add(beer(4L, 10, 8));
+        stockWatchlist.add(beer(5L, 100, 99));
+
+        assertThat(ids(stockWatchlist.lowStock(10)), contains(2L, 1L));
+        assertThat(ids(stockWatchlist.nearCapacity(10)), contains(5L, 4L));
+    }
+
+    @Test
+    void whenThresholdsAreInPercentThenBeersAreListedRelativeToTheirMax() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.PERCENT, 20, ThresholdUnit.PERCENT, 20);
+        stockWatchlist.add(beer(1L, 100, 15));
+        stockWatchlist.add(beer(2L, 10, 1));
+        stockWatchlist.add(beer(3L, 10, 3));
+        stockWatchlist.add(beer(4L, 100, 90));
+        stockWatchlist.add(beer(5L, 10, 10));
+
+        assertThat(ids(stockWatchlist.lowStock(10)), contains(2L, 1L));
+        assertThat(ids(stockWatchlist.nearCapacity(10)), contains(5L, 4L));
+    }
+
+    @Test
+    void whenLimitIsReachedThenNoMoreBeersAreReturned() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        stockWatchlist.add(beer(1L, 50, 1));
+        stockWatchlist.add(beer(2L, 50, 0));
+        stockWatchlist.add(beer(3L, 50, 2));
+
+        assertThat(ids(stockWatchlist.lowStock(2)), contains(2L, 1L));
+    }
+
+    @Test
+    void whenStockIsAdjustedThenBeerMovesAcrossTheWatchlist() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        stockWatchlist.add(beer(1L, 50, 20));
+
+        stockWatchlist.adjust(1L, -17);
+        List<BeerDTO> lowStockBeers = stockWatchlist.lowStock(10);
+        assertThat(ids(lowStockBeers), contains(1L));
+        assertThat(lowStockBeers.get(0).getQuantity(), is(3));
+
+        stockWatchlist.adjust(1L, 45);
+        assertThat(stockWatchlist.lowStock(10), is(empty()));
+        assertThat(ids(stockWatchlist.nearCapacity(10)), contains(1L));
+    }
+
+    @Test
+    void whenBeersAreEmptyOrFullThenTheyAreCounted() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.PERCENT, 20, ThresholdUnit.PERCENT, 20);
+        stockWatchlist.add(beer(1L, 50, 0));
+        stockWatchlist.add(beer(2L, 10, 0));
+        stockWatchlist.add(beer(3L, 50, 1));
+        stockWatchlist.add(beer(4L, 50, 50));
+        stockWatchlist.add(beer(5L, 50, 49));
+
+        assertThat(stockWatchlist.countEmpty(), is(2));
+        assertThat(stockWatchlist.countFull(), is(1));
+
+        stockWatchlist.adjust(2L, 10);
+
+        assertThat(stockWatchlist.countEmpty(), is(1));
+        assertThat(stockWatchlist.countFull(), is(2));
+    }
+
+    @Test
+    void whenBeerIsRemovedThenItIsNoLongerWatched() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        stockWatchlist.add(beer(1L, 50, 0));
+
+        stockWatchlist.remove(1L);
+        stockWatchlist.adjust(1L, 10);
+
+        assertThat(stockWatchlist.lowStock(10), is(empty()));
+        assertThat(stockWatchlist.nearCapacity(10), is(empty()));
+    }
+
+    @Test
+    void whenStockIsAdjustedInATransactionThenWatchlistOnlyChangesAfterCommit() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        stockWatchlist.add(beer(1L, 50, 20));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockWatchlist.adjust(1L, -20);
+            assertThat(stockWatchlist.lowStock(10), is(empty()));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ids(stockWatchlist.lowStock(10)), contains(1L));
+    }
+
+    @Test
+    void whenWatchlistIsLoadedThenEveryStoredBeerIsWatched() {
+        StockWatchlist stockWatchlist = watchlist(ThresholdUnit.UNITS, 5, ThresholdUnit.UNITS, 5);
+        Beer storedBeer = beerMapper.toModel(beer(1L, 50, 0));
+        when(beerRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(storedBeer));
+
+        stockWatchlist.load();
+
+        assertThat(ids(stockWatchlist.lowStock(10)), contains(1L));
+        verify(beerRepository).detach(storedBeer);
+    }
+
+    private StockWatchlist watchlist(ThresholdUnit lowStockUnit, int lowStockValue,
+                                     ThresholdUnit nearCapacityUnit, int nearCapacityValue) {
+        WatchlistProperties properties = new WatchlistProperties();
+        properties.setLowStock(new Threshold(lowStockValue, lowStockUnit));
+        properties.setNearCapacity(new Threshold(nearCapacityValue, nearCapacityUnit));
+
+        StockWatchlist stockWatchlist = new StockWatchlist(beerRepository, properties);
+        stockWatchlist.init();
+        return stockWatchlist;
+    }
+
+    private static BeerDTO beer(Long id, int max, int quantity) {
+        return BeerDTOBuilder.builder()
+                .id(id)
+                .name("Beer " + id)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+    }
+
+    private static List<Long> ids(List<BeerDTO> beers) {
+        return beers.stream().map(BeerDTO::getId).collect(Collectors.toList());
+    }
+}